@@ -3,8 +3,10 @@ package com.chatBotStadistics.config;
 import com.chatBotStadistics.domain.AdminUser;
 import com.chatBotStadistics.repository.AdminUserRepository;
 import com.chatBotStadistics.service.AdminUserService;
+import com.chatBotStadistics.service.HashContrasenas;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -31,7 +33,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
  *    and password encoding mechanism.
  * - `authenticationManager`: Provides the AuthenticationManager configured through the
  *    supplied AuthenticationConfiguration.
- * - `passwordEncoder`: Provides an instance of BCryptPasswordEncoder to handle password encoding.
+ * - `passwordEncoder`: Provides a BCryptPasswordEncoder with the configured cost, run on the bounded
+ *    HashContrasenas pool so bursts of logins cannot take every request thread.
  */
 @Configuration
 @RequiredArgsConstructor
@@ -53,10 +56,10 @@ public class AppConfig {
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(final PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -66,7 +69,10 @@ public class AppConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public HashContrasenas passwordEncoder(@Value("${application.security.bcrypt.strength:10}") int coste,
+                                           @Value("${application.security.bcrypt.hilos:2}") int hilos,
+                                           @Value("${application.security.bcrypt.cola:16}") int capacidadCola,
+                                           @Value("${application.security.bcrypt.espera-ms:5000}") long esperaMs) {
+        return new HashContrasenas(new BCryptPasswordEncoder(coste), coste, hilos, capacidadCola, esperaMs);
     }
 }
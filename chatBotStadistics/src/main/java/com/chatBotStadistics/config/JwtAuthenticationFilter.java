@@ -1,10 +1,11 @@
 package com.chatBotStadistics.config;
 
-import com.chatBotStadistics.domain.AdminUser;
-import com.chatBotStadistics.repository.TokenRepository;
 import com.chatBotStadistics.repository.AdminUserRepository;
 import com.chatBotStadistics.service.AdminUserService;
+import com.chatBotStadistics.service.CacheAutenticacion;
 import com.chatBotStadistics.service.JwtService;
+import com.chatBotStadistics.service.ListaRevocados;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -35,16 +36,19 @@ import java.util.Optional;
  *
  * Key responsibilities:
  * - Extracts the JWT from the Authorization header.
- * - Validates the JWT token.
- * - Checks token expiration or revocation status via the TokenRepository.
- * - Fetches user details from the database using UserDetailsService and AdminUserRepository.
+ * - Validates the JWT token, verifying its signature once and reusing the parsed claims.
+ * - Checks token revocation status via the in-memory ListaRevocados denylist, and rejects
+ *   refresh tokens and tokens without an id.
+ * - Fetches user details from the database using UserDetailsService and AdminUserRepository,
+ *   keeping them in CacheAutenticacion for a short time so repeated requests do not touch the database.
  * - Establishes an authenticated context for valid tokens.
  *
  * Dependencies:
  * - JwtService: Provides methods for extracting and validating JWT tokens.
  * - UserDetailsService: Loads user details for authentication.
- * - TokenRepository: Provides access to saved JWT tokens for validation.
+ * - ListaRevocados: Answers whether a token id was revoked, usually from a Bloom filter alone.
  * - AdminUserRepository: Retrieves admin user details from the database.
+ * - CacheAutenticacion: Caches admin principals between requests.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -52,14 +56,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
-    private final TokenRepository tokenRepository;
     private final AdminUserService adminUserService;
+    private final CacheAutenticacion cacheAutenticacion;
+    private final ListaRevocados listaRevocados;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService, TokenRepository tokenRepository, AdminUserService adminUserService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService, AdminUserService adminUserService, CacheAutenticacion cacheAutenticacion, ListaRevocados listaRevocados) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
-        this.tokenRepository = tokenRepository;
         this.adminUserService = adminUserService;
+        this.cacheAutenticacion = cacheAutenticacion;
+        this.listaRevocados = listaRevocados;
     }
 
     @Override
@@ -80,26 +86,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        final String userEmail = jwtService.extractUsername(jwt);
+        final Claims claims = jwtService.parseClaims(jwt);
+        final String userEmail = claims.getSubject();
         final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (userEmail == null || authentication != null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        final UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-        final boolean isTokenExpiredOrRevoked = tokenRepository.findByToken(jwt)
-                .map(token -> !token.getIsExpired() && !token.getIsRevoked())
-                .orElse(false);
+        final boolean isTokenExpiredOrRevoked = claims.getId() != null
+                && !jwtService.isRefreshToken(claims)
+                && !listaRevocados.revocado(claims.getId());
 
 
         if (isTokenExpiredOrRevoked) {
-            final Optional<AdminUser> user = adminUserService.findByEmail(userEmail);
+            final Optional<CacheAutenticacion.PrincipalAdmin> principal = cacheAutenticacion.principal(userEmail, () ->
+                    adminUserService.findByEmail(userEmail).map(adminUser -> new CacheAutenticacion.PrincipalAdmin(
+                            adminUser, this.userDetailsService.loadUserByUsername(userEmail))));
 
-            if (user.isPresent()) {
-                final boolean isTokenValid = jwtService.isTokenValid(jwt, user.get());
+            if (principal.isPresent()) {
+                final boolean isTokenValid = jwtService.isTokenValid(claims, principal.get().adminUser());
 
                 if (isTokenValid) {
+                    final UserDetails userDetails = principal.get().userDetails();
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -0,0 +1,83 @@
+package com.chatBotStadistics.config;
+
+import com.chatBotStadistics.service.EstadisticasCache;
+import com.chatBotStadistics.service.PromptService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * Answers conditional GETs on the statistics and prompt endpoints before their controller runs.
+ *
+ * The entity tag and Last-Modified date of a statistics response come from the data version of
+ * its period filters ({@link EstadisticasCache#version}); responses over a range of dates use
+ * the version of the unfiltered statistics, which advances on every change. The tag of
+ * "/prompt/{id}" is the version of that prompt, its modification time as stored in the
+ * database ({@link PromptService#getVersion}); unknown prompts go on to the controller, which
+ * answers 404. When the request's If-None-Match (or
+ * If-Modified-Since) still matches, the response is 304 Not Modified and neither the query nor
+ * the serialization runs; otherwise the headers are set and the request proceeds.
+ *
+ * Versioned responses are sent with "Cache-Control: private, no-cache", so browsers keep them
+ * and revalidate each time (Spring Security would otherwise mark them as not storable).
+ *
+ * Statistics versions live in memory and start over on every restart, which is part of their
+ * tag, so a tag from a previous run never matches.
+ */
+@Component
+public class PeticionCondicionalInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> ESTADISTICAS = Set.of(
+            "/consultas", "/consultas/tema", "/consultas/tema/top", "/consultas/subtema", "/consultas/subtema/top",
+            "/consultas/usuarios", "/consultas/resumen", "/consultas/serie");
+    private static final String PROMPT = "/prompt/";
+
+    private final EstadisticasCache estadisticasCache;
+    private final PromptService promptService;
+
+    public PeticionCondicionalInterceptor(EstadisticasCache estadisticasCache, PromptService promptService) {
+        this.estadisticasCache = estadisticasCache;
+        this.promptService = promptService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        EstadisticasCache.Version version;
+        try {
+            if (ESTADISTICAS.contains(ruta)) {
+                version = request.getParameter("desde") != null || ruta.equals("/consultas/serie")
+                        ? estadisticasCache.version(null, null, null)
+                        : estadisticasCache.version(entero(request, "year"), entero(request, "month"), entero(request, "week"));
+            } else if (ruta.startsWith(PROMPT) && ruta.indexOf('/', PROMPT.length()) < 0) {
+                OptionalLong versionPrompt = promptService.getVersion(Integer.parseInt(ruta.substring(PROMPT.length())));
+                if (versionPrompt.isEmpty()) {
+                    return true;
+                }
+                version = new EstadisticasCache.Version("W/\"" + versionPrompt.getAsLong() + "\"", -1);
+            } else {
+                return true;
+            }
+        } catch (NumberFormatException e) {
+            return true; // el controlador responde 400 a los parámetros inválidos
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        return !new ServletWebRequest(request, response).checkNotModified(version.etag(), version.modificado());
+    }
+
+    private static Integer entero(HttpServletRequest request, String nombre) {
+        String valor = request.getParameter(nombre);
+        return valor != null && !valor.isBlank() ? Integer.valueOf(valor.trim()) : null;
+    }
+}
@@ -2,6 +2,10 @@ package com.chatBotStadistics.config;
 
 import com.chatBotStadistics.domain.Token;
 import com.chatBotStadistics.repository.TokenRepository;
+import com.chatBotStadistics.service.JwtService;
+import com.chatBotStadistics.service.ListaRevocados;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -37,6 +41,7 @@ import static org.springframework.security.config.http.SessionCreationPolicy.STA
  * - AuthenticationProvider: Handles user authentication by delegating to a configured provider.
  * - JwtAuthenticationFilter: Intercepts requests to validate JWT tokens and set authentication contexts.
  * - TokenRepository: Manages token states such as expiration and revocation.
+ * - ListaRevocados: In-memory denylist of revoked token ids checked on every request.
  *
  * Key features:
  * - Disables CSRF protection as it uses JWT for authentication.
@@ -46,7 +51,7 @@ import static org.springframework.security.config.http.SessionCreationPolicy.STA
  *   - Authentication required for all other endpoints.
  * - Configures stateless session management to handle JWT-based authentication.
  * - Adds a logout mechanism:
- *   - Expires and revokes the user's token upon logout.
+ *   - Expires and revokes the user's token upon logout, and adds its id to the revocation denylist.
  *   - Clears security context after successful logout.
  *
  * Components:
@@ -62,11 +67,15 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final AuthenticationProvider authenticationProvider;
     private final TokenRepository tokenRepository;
+    private final JwtService jwtService;
+    private final ListaRevocados listaRevocados;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, AuthenticationProvider authenticationProvider, TokenRepository tokenRepository) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, AuthenticationProvider authenticationProvider, TokenRepository tokenRepository, JwtService jwtService, ListaRevocados listaRevocados) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.authenticationProvider = authenticationProvider;
         this.tokenRepository = tokenRepository;
+        this.jwtService = jwtService;
+        this.listaRevocados = listaRevocados;
     }
 
     @Bean
@@ -112,12 +121,22 @@ public class SecurityConfig {
         }
 
         final String jwt = authHeader.substring(7);
-        final Token storedToken = tokenRepository.findByToken(jwt)
+        final Claims claims;
+        try {
+            claims = jwtService.parseClaims(jwt);
+        } catch (JwtException e) {
+            return;
+        }
+        if (claims.getId() == null) {
+            return;
+        }
+        final Token storedToken = tokenRepository.findByJtiHash(ListaRevocados.hash(claims.getId()))
                 .orElse(null);
         if (storedToken != null) {
             storedToken.setIsExpired(true);
             storedToken.setIsRevoked(true);
             tokenRepository.save(storedToken);
+            listaRevocados.revocar(storedToken.getJtiHash(), storedToken.getExpiresAt());
             SecurityContextHolder.clearContext();
         }
     }
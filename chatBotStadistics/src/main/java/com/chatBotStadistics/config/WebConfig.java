@@ -0,0 +1,27 @@
+package com.chatBotStadistics.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * WebConfig registers the Spring MVC interceptors of the application.
+ *
+ * Registered interceptors:
+ * - `PeticionCondicionalInterceptor`: answers conditional GETs on "/consultas/**" and "/prompt/*"
+ *   with 304 Not Modified when the data has not changed.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final PeticionCondicionalInterceptor peticionCondicionalInterceptor;
+
+    public WebConfig(PeticionCondicionalInterceptor peticionCondicionalInterceptor) {
+        this.peticionCondicionalInterceptor = peticionCondicionalInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(peticionCondicionalInterceptor).addPathPatterns("/consultas/**", "/consultas", "/prompt/*");
+    }
+}
@@ -4,9 +4,11 @@ import com.chatBotStadistics.dto.AuthRequest;
 import com.chatBotStadistics.dto.RegisterRequest;
 import com.chatBotStadistics.dto.TokenResponse;
 import com.chatBotStadistics.service.AuthService;
+import com.chatBotStadistics.service.LoginRechazadoException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,6 +19,10 @@ import org.springframework.web.bind.annotation.*;
  * The controller is annotated with {@code @RestController} to indicate that it is a RESTful web service
  * and maps requests to the base URI "/auth" using {@code @RequestMapping}.
  *
+ * Logins refused by the throttling ({@link LoginRechazadoException}) are answered with 429, or
+ * with 503 when the password hashing pool is saturated, both with a Retry-After header. A refresh
+ * with an access token, or with a refresh token that was revoked, is answered with 401.
+ *
  * Dependencies are injected into this controller using the {@code @RequiredArgsConstructor} annotation.
  */
 @RestController
@@ -31,21 +37,38 @@ public class AuthController {
 
     @PostMapping("/register")
     public ResponseEntity<TokenResponse> register(@RequestBody RegisterRequest request) {
-        final TokenResponse response = service.register(request);
-        return ResponseEntity.ok(response);
+        try {
+            final TokenResponse response = service.register(request);
+            return ResponseEntity.ok(response);
+        } catch (LoginRechazadoException e) {
+            return rechazado(e);
+        }
     }
 
     @PostMapping("/login")
     public ResponseEntity<TokenResponse> authenticate(@RequestBody AuthRequest request) {
-        final TokenResponse response = service.authenticate(request);
-        return ResponseEntity.ok(response);
+        try {
+            final TokenResponse response = service.authenticate(request);
+            return ResponseEntity.ok(response);
+        } catch (LoginRechazadoException e) {
+            return rechazado(e);
+        }
     }
 
     @PostMapping("/refresh-token")
-    public TokenResponse refreshToken(
+    public ResponseEntity<TokenResponse> refreshToken(
             @RequestHeader(HttpHeaders.AUTHORIZATION) final String authentication
     ) {
-        return service.refreshToken(authentication);
+        final TokenResponse response = service.refreshToken(authentication);
+        return response != null ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
 
+    private static ResponseEntity<TokenResponse> rechazado(LoginRechazadoException e) {
+        final HttpStatus status = e.getMotivo() == LoginRechazadoException.Motivo.SATURADO
+                ? HttpStatus.SERVICE_UNAVAILABLE
+                : HttpStatus.TOO_MANY_REQUESTS;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getReintentarEnSegundos()))
+                .build();
+    }
 }
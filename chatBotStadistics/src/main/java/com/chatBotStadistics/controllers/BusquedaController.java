@@ -0,0 +1,54 @@
+package com.chatBotStadistics.controllers;
+
+import com.chatBotStadistics.dto.PaginaBusquedaDTO;
+import com.chatBotStadistics.service.BusquedaService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * Controller for the full-text search over consultas and their respuestas.
+ *
+ * Maps requests under "/consultas/busqueda". A search returns the consultas whose message or
+ * respuesta contains every word of {@code q}, ignoring case and accents, newest first.
+ */
+@RestController
+@RequestMapping("/consultas/busqueda")
+public class BusquedaController {
+
+    private static final int TAMANO_PAGINA_MAXIMO = 100;
+
+    private final BusquedaService busquedaService;
+
+    public BusquedaController(BusquedaService busquedaService) {
+        this.busquedaService = busquedaService;
+    }
+
+    @GetMapping
+    public ResponseEntity<PaginaBusquedaDTO> buscar(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer temaId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "10") int tamano
+    ) {
+        if (q.isBlank() || pagina < 0 || tamano < 1 || tamano > TAMANO_PAGINA_MAXIMO
+                || (desde != null && hasta != null && hasta.isBefore(desde))) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(busquedaService.buscar(q, temaId, desde, hasta, pagina, tamano));
+    }
+
+    @PostMapping("/reconstruir")
+    public ResponseEntity<Void> reconstruirIndice() {
+        busquedaService.reconstruirIndice();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.chatBotStadistics.controllers;
+
+import com.chatBotStadistics.dto.ComparacionDTO;
+import com.chatBotStadistics.service.ComparacionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for the period-over-period comparison of the consulta statistics.
+ *
+ * Maps requests under "/consultas/comparacion". The period is a year, a month of a year, or a
+ * week of a month, and is compared with the previous period of the same granularity.
+ */
+@RestController
+@RequestMapping("/consultas/comparacion")
+public class ComparacionController {
+
+    private final ComparacionService comparacionService;
+
+    public ComparacionController(ComparacionService comparacionService) {
+        this.comparacionService = comparacionService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ComparacionDTO> obtenerComparacion(
+            @RequestParam Integer year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) Integer week
+    ) {
+        if ((month != null && (month < 1 || month > 12)) || (week != null && (month == null || week < 1))) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(comparacionService.getComparacion(year, month, week));
+    }
+}
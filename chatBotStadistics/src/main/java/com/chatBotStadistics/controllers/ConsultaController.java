@@ -1,15 +1,28 @@
 package com.chatBotStadistics.controllers;
 
+import com.chatBotStadistics.domain.Consulta;
 import com.chatBotStadistics.domain.Prompt;
+import com.chatBotStadistics.dto.CacheEstadisticasDTO;
+import com.chatBotStadistics.dto.ConsultaRequestDTO;
+import com.chatBotStadistics.dto.IntervaloSerie;
+import com.chatBotStadistics.dto.PaginaEstadisticasDTO;
+import com.chatBotStadistics.dto.PuntoSerieDTO;
+import com.chatBotStadistics.dto.ResumenConsultasDTO;
+import com.chatBotStadistics.dto.SubtemaEstadisticaDTO;
+import com.chatBotStadistics.dto.TemaEstadisticaDTO;
+import com.chatBotStadistics.dto.UsuariosAproximadosDTO;
 import com.chatBotStadistics.dto.PromptRequestDTO;
 import com.chatBotStadistics.service.ConsultaService;
 import com.chatBotStadistics.service.PromptService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -28,6 +41,9 @@ import java.util.Map;
 @RequestMapping("/consultas")
 public class ConsultaController {
 
+    private static final int TAMANO_PAGINA_MAXIMO = 100;
+    private static final int PAGINA_MAXIMA = 10_000;
+
     private final ConsultaService consultaService;
 
     public ConsultaController(ConsultaService consultaService) {
@@ -43,6 +59,31 @@ public class ConsultaController {
         return result;
     }
 
+    @GetMapping(value = "/tema", params = {"desde", "hasta"})
+    public ResponseEntity<Map<String, Double>> obtenerEstadisticasPorTemaEntre(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    ) {
+        if (hasta.isBefore(desde)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(consultaService.getEstadisticasPorTema(desde, hasta));
+    }
+
+    @GetMapping("/tema/top")
+    public ResponseEntity<PaginaEstadisticasDTO<TemaEstadisticaDTO>> obtenerTopTemas(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) Integer week,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "10") int tamano
+    ) {
+        if (pagina < 0 || pagina > PAGINA_MAXIMA || tamano < 1 || tamano > TAMANO_PAGINA_MAXIMO) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(consultaService.getTopTemas(year, month, week, pagina, tamano));
+    }
+
     @GetMapping("/subtema")
     public Map<String, Double> obtenerEstadisticasPorSubtema(
             @RequestParam(required = false) Integer year,
@@ -53,6 +94,31 @@ public class ConsultaController {
         return result;
     }
 
+    @GetMapping(value = "/subtema", params = {"desde", "hasta"})
+    public ResponseEntity<Map<String, Double>> obtenerEstadisticasPorSubtemaEntre(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    ) {
+        if (hasta.isBefore(desde)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(consultaService.getEstadisticasPorSubtema(desde, hasta));
+    }
+
+    @GetMapping("/subtema/top")
+    public ResponseEntity<PaginaEstadisticasDTO<SubtemaEstadisticaDTO>> obtenerTopSubtemas(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) Integer week,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "10") int tamano
+    ) {
+        if (pagina < 0 || pagina > PAGINA_MAXIMA || tamano < 1 || tamano > TAMANO_PAGINA_MAXIMO) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(consultaService.getTopSubtemas(year, month, week, pagina, tamano));
+    }
+
     @GetMapping
     public Long obtenerTotalConsultas(
             @RequestParam(required = false) Integer year,
@@ -62,6 +128,17 @@ public class ConsultaController {
         return consultaService.getConsultas(year, month, week);
     }
 
+    @GetMapping(params = {"desde", "hasta"})
+    public ResponseEntity<Long> obtenerTotalConsultasEntre(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    ) {
+        if (hasta.isBefore(desde)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(consultaService.getConsultas(desde, hasta));
+    }
+
     @GetMapping("/usuarios")
     public Long obtenerTotalUsuarios(
             @RequestParam(required = false) Integer year,
@@ -70,4 +147,78 @@ public class ConsultaController {
     ) {
         return consultaService.getUsuarios(year, month, week);
     }
+
+    @GetMapping(value = "/usuarios", params = {"desde", "hasta"})
+    public ResponseEntity<Long> obtenerTotalUsuariosEntre(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    ) {
+        if (hasta.isBefore(desde)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(consultaService.getUsuarios(desde, hasta));
+    }
+
+    @GetMapping(value = "/usuarios", params = "modo=aproximado")
+    public UsuariosAproximadosDTO obtenerTotalUsuariosAproximado(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) Integer week
+    ) {
+        return consultaService.getUsuariosAproximados(year, month, week);
+    }
+
+    @GetMapping("/resumen")
+    public ResumenConsultasDTO obtenerResumen(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) Integer week
+    ) {
+        return consultaService.getResumen(year, month, week);
+    }
+
+    @GetMapping("/serie")
+    public ResponseEntity<List<PuntoSerieDTO>> obtenerSerie(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "DIA") IntervaloSerie intervalo,
+            @RequestParam(defaultValue = "false") boolean porTema
+    ) {
+        if (hasta.isBefore(desde)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(consultaService.getSerie(desde, hasta, intervalo, porTema));
+        } catch (IllegalArgumentException e) {
+            // Demasiados intervalos para el rango pedido.
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/cache")
+    public CacheEstadisticasDTO obtenerEstadisticasCache() {
+        return consultaService.getEstadisticasCache();
+    }
+
+    @PostMapping
+    public ResponseEntity<Consulta> registrarConsulta(@Valid @RequestBody ConsultaRequestDTO consultaRequestDTO) {
+        Consulta consulta = consultaService.registrarConsulta(consultaRequestDTO);
+        return new ResponseEntity<>(consulta, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/agregados/reconstruir")
+    public ResponseEntity<Void> reconstruirAgregados() {
+        consultaService.reconstruirAgregados();
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/subtemas/completar")
+    public Integer completarSubtemas() {
+        return consultaService.completarSubtemas();
+    }
+
+    @PostMapping("/fechas/completar")
+    public Integer completarFechas() {
+        return consultaService.completarFechas();
+    }
 }
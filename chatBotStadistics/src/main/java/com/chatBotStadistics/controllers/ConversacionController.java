@@ -0,0 +1,41 @@
+package com.chatBotStadistics.controllers;
+
+import com.chatBotStadistics.dto.PaginaConversacionesDTO;
+import com.chatBotStadistics.service.ConversacionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for the conversation history.
+ *
+ * Maps requests under "/consultas/conversaciones". Pages are requested with the cursor
+ * returned in {@code siguiente} by the previous page, passed back as {@code antesDe}.
+ */
+@RestController
+@RequestMapping("/consultas/conversaciones")
+public class ConversacionController {
+
+    private static final int TAMANO_PAGINA_MAXIMO = 100;
+
+    private final ConversacionService conversacionService;
+
+    public ConversacionController(ConversacionService conversacionService) {
+        this.conversacionService = conversacionService;
+    }
+
+    @GetMapping
+    public ResponseEntity<PaginaConversacionesDTO> obtenerConversaciones(
+            @RequestParam(required = false) Integer usuarioId,
+            @RequestParam(required = false) Integer temaId,
+            @RequestParam(required = false) Integer antesDe,
+            @RequestParam(defaultValue = "20") int tamano
+    ) {
+        if ((antesDe != null && antesDe < 1) || tamano < 1 || tamano > TAMANO_PAGINA_MAXIMO) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(conversacionService.getConversaciones(usuarioId, temaId, antesDe, tamano));
+    }
+}
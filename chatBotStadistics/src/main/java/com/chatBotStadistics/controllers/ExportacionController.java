@@ -0,0 +1,63 @@
+package com.chatBotStadistics.controllers;
+
+import com.chatBotStadistics.dto.FormatoExportacion;
+import com.chatBotStadistics.service.ExportacionService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Controller for exporting the raw consultas and their respuestas.
+ *
+ * The rows are written straight to the servlet output stream while they are read from the
+ * database, so the response is sent in chunks and never held in memory. With {@code gzip=true}
+ * the file is compressed on the fly and served as a .gz download.
+ */
+@RestController
+@RequestMapping("/consultas/exportar")
+public class ExportacionController {
+
+    private final ExportacionService exportacionService;
+
+    public ExportacionController(ExportacionService exportacionService) {
+        this.exportacionService = exportacionService;
+    }
+
+    @GetMapping
+    public void exportar(
+            @RequestParam(defaultValue = "CSV") FormatoExportacion formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) Integer temaId,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response
+    ) throws IOException {
+        if (desde != null && hasta != null && hasta.isBefore(desde)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        String archivo = "consultas." + formato.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : formato.getTipoContenido() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archivo + "\"");
+
+        OutputStream salida = response.getOutputStream();
+        if (gzip) {
+            GZIPOutputStream comprimida = new GZIPOutputStream(salida, 64 * 1024);
+            exportacionService.exportar(formato, desde, hasta, temaId, comprimida);
+            comprimida.finish();
+        } else {
+            exportacionService.exportar(formato, desde, hasta, temaId, salida);
+        }
+        salida.flush();
+    }
+}
@@ -0,0 +1,58 @@
+package com.chatBotStadistics.controllers;
+
+import com.chatBotStadistics.dto.ColaIngestaDTO;
+import com.chatBotStadistics.dto.IngestaLoteDTO;
+import com.chatBotStadistics.dto.IngestaResultadoDTO;
+import com.chatBotStadistics.service.ColaIngesta;
+import com.chatBotStadistics.service.IngestaService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for the bulk ingestion of consultas and their respuestas.
+ *
+ * Accepts up to 5000 consulta+respuesta pairs per request and stores them with JDBC batching,
+ * so the chatbot can send conversations in batches instead of one request per consulta.
+ * With {@code modo=asincrono} the batch is only placed in the {@link ColaIngesta} and the
+ * request is acknowledged with 202 right away, or rejected with 503 when the queue is full.
+ */
+@RestController
+@RequestMapping("/consultas/lote")
+public class IngestaController {
+
+    private final IngestaService ingestaService;
+    private final ColaIngesta colaIngesta;
+
+    public IngestaController(IngestaService ingestaService, ColaIngesta colaIngesta) {
+        this.ingestaService = ingestaService;
+        this.colaIngesta = colaIngesta;
+    }
+
+    @PostMapping
+    public ResponseEntity<IngestaResultadoDTO> ingerir(@Valid @RequestBody IngestaLoteDTO ingestaLoteDTO) {
+        IngestaResultadoDTO resultado = ingestaService.ingerir(ingestaLoteDTO.consultas());
+        return new ResponseEntity<>(resultado, HttpStatus.CREATED);
+    }
+
+    @PostMapping(params = "modo=asincrono")
+    public ResponseEntity<ColaIngestaDTO> encolar(@Valid @RequestBody IngestaLoteDTO ingestaLoteDTO) {
+        if (!colaIngesta.encolar(ingestaLoteDTO.consultas())) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(colaIngesta.estadisticas());
+        }
+        return ResponseEntity.accepted().body(colaIngesta.estadisticas());
+    }
+
+    @GetMapping("/cola")
+    public ColaIngestaDTO obtenerEstadisticasCola() {
+        return colaIngesta.estadisticas();
+    }
+}
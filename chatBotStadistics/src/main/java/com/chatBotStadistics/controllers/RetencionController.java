@@ -0,0 +1,41 @@
+package com.chatBotStadistics.controllers;
+
+import com.chatBotStadistics.dto.RetencionDTO;
+import com.chatBotStadistics.service.RetencionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for the retention of usuarios across weekly cohorts.
+ *
+ * Maps requests under "/consultas/retencion". The matrix starts at the given week (by default
+ * the first week of the month, and January when no month is given) and covers up to 52 weeks.
+ */
+@RestController
+@RequestMapping("/consultas/retencion")
+public class RetencionController {
+
+    private static final int SEMANAS_MAXIMO = 52;
+
+    private final RetencionService retencionService;
+
+    public RetencionController(RetencionService retencionService) {
+        this.retencionService = retencionService;
+    }
+
+    @GetMapping
+    public ResponseEntity<RetencionDTO> obtenerRetencion(
+            @RequestParam Integer year,
+            @RequestParam(defaultValue = "1") int month,
+            @RequestParam(defaultValue = "1") int week,
+            @RequestParam(defaultValue = "12") int semanas
+    ) {
+        if (month < 1 || month > 12 || week < 1 || semanas < 1 || semanas > SEMANAS_MAXIMO) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(retencionService.getRetencion(year, month, week, semanas));
+    }
+}
@@ -0,0 +1,53 @@
+package com.chatBotStadistics.controllers;
+
+import com.chatBotStadistics.dto.LoginEstadisticasDTO;
+import com.chatBotStadistics.dto.TokensEstadisticasDTO;
+import com.chatBotStadistics.service.HashContrasenas;
+import com.chatBotStadistics.service.LimitadorLogin;
+import com.chatBotStadistics.service.PurgaTokens;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller exposing the counters of the authentication machinery to admins.
+ *
+ * Maps requests under "/seguridad", which, unlike "/auth", require a valid token.
+ */
+@RestController
+@RequestMapping("/seguridad")
+public class SeguridadController {
+
+    private final LimitadorLogin limitadorLogin;
+    private final HashContrasenas hashContrasenas;
+    private final PurgaTokens purgaTokens;
+
+    public SeguridadController(LimitadorLogin limitadorLogin, HashContrasenas hashContrasenas, PurgaTokens purgaTokens) {
+        this.limitadorLogin = limitadorLogin;
+        this.hashContrasenas = hashContrasenas;
+        this.purgaTokens = purgaTokens;
+    }
+
+    @GetMapping("/login")
+    public LoginEstadisticasDTO obtenerEstadisticasLogin() {
+        LimitadorLogin.Estadisticas intentos = limitadorLogin.estadisticas();
+        HashContrasenas.Estadisticas hash = hashContrasenas.estadisticas();
+        return new LoginEstadisticasDTO(intentos.intentos(), intentos.exitos(), intentos.fallos(),
+                intentos.rechazadosPorIp(), intentos.rechazadosPorCuenta(), hash.rechazados(),
+                intentos.ipsVigiladas(), intentos.cuentasVigiladas(), hash.coste(), hash.costeMedidoMs(),
+                hash.hilos(), hash.enCola(), hash.capacidadCola(), hash.hashes(),
+                hash.latenciaMediaMs(), hash.latenciaMaximaMs());
+    }
+
+    @GetMapping("/tokens")
+    public TokensEstadisticasDTO obtenerEstadisticasTokens() {
+        PurgaTokens.Estadisticas estadisticas = purgaTokens.estadisticas();
+        PurgaTokens.Ejecucion ultima = estadisticas.ultima();
+        return new TokensEstadisticasDTO(estadisticas.total(), estadisticas.revocados(), estadisticas.caducados(),
+                estadisticas.purgas(), estadisticas.lotes(), estadisticas.borradas(),
+                ultima != null ? ultima.inicio() : null,
+                ultima != null ? ultima.borradas() : null,
+                ultima != null ? ultima.duracionMs() : null,
+                ultima != null ? ultima.filasPorSegundo() : null);
+    }
+}
@@ -0,0 +1,43 @@
+package com.chatBotStadistics.controllers;
+
+import com.chatBotStadistics.dto.TendenciasDTO;
+import com.chatBotStadistics.service.TendenciaService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for the trending terms of consultas.
+ *
+ * Maps requests under "/consultas/tendencias". The period is a year, a month of a year, or a
+ * week of a month, and is compared with the previous period of the same granularity.
+ */
+@RestController
+@RequestMapping("/consultas/tendencias")
+public class TendenciaController {
+
+    private static final int LIMITE_MAXIMO = 100;
+
+    private final TendenciaService tendenciaService;
+
+    public TendenciaController(TendenciaService tendenciaService) {
+        this.tendenciaService = tendenciaService;
+    }
+
+    @GetMapping
+    public ResponseEntity<TendenciasDTO> obtenerTendencias(
+            @RequestParam Integer year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) Integer week,
+            @RequestParam(required = false) Integer temaId,
+            @RequestParam(defaultValue = "10") int limite
+    ) {
+        if ((month != null && (month < 1 || month > 12)) || (week != null && (month == null || week < 1))
+                || limite < 1 || limite > LIMITE_MAXIMO) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(tendenciaService.getTendencias(year, month, week, temaId, limite));
+    }
+}
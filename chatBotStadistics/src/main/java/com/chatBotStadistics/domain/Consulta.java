@@ -5,13 +5,15 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 /**
  * The Consulta class represents a query or consultation record in the system.
  * It is mapped to the "consultas" table in the database and is a JPA entity.
  *
  * This class contains the following attributes:
  * - id: The unique identifier for the consulta, generated automatically.
- * - subtema_id: The identifier of the associated subtema.
+ * - subtema: The associated subtema, stored in the "id_subtema" column.
  * - tema_id: The identifier of the associated tema.
  * - usuario_id: The identifier of the user performing the consulta.
  * - mensaje: The message or content of the consulta.
@@ -19,8 +21,26 @@ import lombok.NoArgsConstructor;
  * - month: The month of the consulta, represented as an integer.
  * - year: The year of the consulta, represented as an integer.
  * - week: The week of the consulta, represented as an integer.
+ * - fecha: The timestamp of the consulta, used for arbitrary date range queries.
+ * - agregada: TRUE when the consulta was stored through the API, which adds it to the rollups
+ *   in the same transaction. Rows inserted directly by other processes leave it NULL and are
+ *   added later by {@code AgregadoService#ponerAlDia}.
+ *
+ * The composite indexes on (year, month, week, id_tema), (year, month, week, id_subtema)
+ * and (year, month, week, id_usuario) back the period filtered statistics queries.
+ * The indexes led by fecha turn a date range filter into a single index range scan.
+ * The fecha column has no default: rows inserted without one keep it NULL, and are left out
+ * of date range statistics, until it is backfilled from year, month and day.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_consulta_periodo_tema", columnList = "year, month, week, id_tema"),
+        @Index(name = "idx_consulta_periodo_subtema", columnList = "year, month, week, id_subtema"),
+        @Index(name = "idx_consulta_periodo_usuario", columnList = "year, month, week, id_usuario"),
+        @Index(name = "idx_consulta_fecha_tema", columnList = "fecha, id_tema"),
+        @Index(name = "idx_consulta_fecha_subtema", columnList = "fecha, id_subtema"),
+        @Index(name = "idx_consulta_fecha_usuario", columnList = "fecha, id_usuario")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -40,10 +60,17 @@ public class Consulta {
     private Integer year;
     @Column(name = "week")
     private Integer week;
+    @Column(name = "fecha", columnDefinition = "DATETIME")
+    private LocalDateTime fecha;
+    @Column(name = "agregada")
+    private Boolean agregada;
     @ManyToOne
     @JoinColumn(name = "id_tema", referencedColumnName = "id")
     private Tema tema;
     @ManyToOne
+    @JoinColumn(name = "id_subtema", referencedColumnName = "id")
+    private Subtema subtema;
+    @ManyToOne
     @JoinColumn(name = "id_usuario", referencedColumnName = "id")
     private Usuario usuario;
 }
@@ -0,0 +1,44 @@
+package com.chatBotStadistics.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The ConsultaAgregado class represents a pre-aggregated rollup of consultas.
+ * It is mapped to the "consulta_agregado" table in the database and is a JPA entity.
+ *
+ * Each row holds the number of consultas for one (year, month, week, tema) combination,
+ * so statistics grow with the number of periods and temas instead of the number of consultas.
+ *
+ * This class contains the following attributes:
+ * - id: The unique identifier for the rollup row, generated automatically.
+ * - year, month, week: The period of the aggregated consultas (0 when the consulta had no value).
+ * - temaId: The identifier of the aggregated tema (0 when the consulta had no tema).
+ * - total: The number of consultas in the period for the tema.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "consulta_agregado",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_consulta_agregado_periodo_tema",
+                columnNames = {"year", "month", "week", "id_tema"}))
+public class ConsultaAgregado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    @Column(name = "year", nullable = false)
+    private Integer year;
+    @Column(name = "month", nullable = false)
+    private Integer month;
+    @Column(name = "week", nullable = false)
+    private Integer week;
+    @Column(name = "id_tema", nullable = false)
+    private Integer temaId;
+    @Column(name = "total", nullable = false)
+    private Long total;
+}
@@ -0,0 +1,39 @@
+package com.chatBotStadistics.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The EstadoAgregados class records how far the rollups have caught up with the consulta table.
+ * It is mapped to the "estado_agregados" table in the database and is a JPA entity with a
+ * single row.
+ *
+ * This class contains the following attributes:
+ * - id: Always {@link #ID}.
+ * - ultimaConsultaId: The highest consulta id checked for rows written by other processes.
+ *   Consultas with a higher id that were not stored through the API are still missing from the
+ *   rollups.
+ * - reconstruccionDesdeId: While a rebuild runs, the highest consulta id it has counted; null
+ *   when no rebuild is running.
+ * - reconstruccionHastaId: While a rebuild runs, the highest consulta id it will count.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "estado_agregados")
+public class EstadoAgregados {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+    @Column(name = "ultima_consulta_id", nullable = false)
+    private Integer ultimaConsultaId;
+    @Column(name = "reconstruccion_desde_id")
+    private Integer reconstruccionDesdeId;
+    @Column(name = "reconstruccion_hasta_id")
+    private Integer reconstruccionHastaId;
+}
@@ -0,0 +1,32 @@
+package com.chatBotStadistics.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The EstadoFechas class records whether the fecha of the historical consultas has been
+ * backfilled. It is mapped to the "estado_fechas" table in the database and is a JPA entity
+ * with a single row.
+ *
+ * This class contains the following attributes:
+ * - id: Always {@link #ID}.
+ * - completadas: Whether a full pass of the backfill finished. Once it has, the startup no
+ *   longer walks the consulta table; later rows without fecha get it when they are added to
+ *   the rollups.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "estado_fechas")
+public class EstadoFechas {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+    @Column(name = "completadas", nullable = false)
+    private Boolean completadas;
+}
@@ -1,10 +1,13 @@
 package com.chatBotStadistics.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 /**
  * The Prompt class represents a prompt entity in the system.
  *
@@ -12,6 +15,9 @@ import lombok.NoArgsConstructor;
  * This class contains the following attributes:
  * - id: The unique identifier for the prompt, generated automatically.
  * - content: The textual content of the prompt, stored as a long text and must not be null.
+ * - actualizado: When the prompt was last modified, or null if it never was. The database sets
+ *   it on every UPDATE, whoever runs it, so it also changes when the prompt is edited outside
+ *   the API; it is never written by the application nor sent in responses.
  */
 @Entity
 @Data
@@ -26,4 +32,13 @@ public class Prompt {
     @Column(name = "prompt", nullable = false, columnDefinition = "LONGTEXT")
     private String content;
 
+    @JsonIgnore
+    @Column(name = "actualizado", insertable = false, updatable = false,
+            columnDefinition = "DATETIME(6) NULL ON UPDATE CURRENT_TIMESTAMP(6)")
+    private LocalDateTime actualizado;
+
+    public Prompt(Integer id, String content) {
+        this.id = id;
+        this.content = content;
+    }
 }
@@ -0,0 +1,48 @@
+package com.chatBotStadistics.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The TerminoPeriodo class represents how often a term appears in the consultas of a period.
+ * It is mapped to the "termino_periodo" table in the database and is a JPA entity.
+ *
+ * Each row holds the number of consultas of one (year, month, week, tema) combination whose
+ * message contains a term or a pair of consecutive terms, so trends are computed from this
+ * rollup instead of from the raw messages.
+ *
+ * This class contains the following attributes:
+ * - id: The unique identifier for the row, generated automatically.
+ * - year, month, week: The period of the consultas (0 when the consulta had no value).
+ * - temaId: The identifier of the tema (0 when the consulta had no tema).
+ * - termino: The normalised term or pair of terms, as produced by the search tokenizer.
+ * - total: The number of consultas in the period and tema that contain the term.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "termino_periodo",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_termino_periodo",
+                columnNames = {"year", "month", "week", "id_tema", "termino"}))
+public class TerminoPeriodo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    @Column(name = "year", nullable = false)
+    private Integer year;
+    @Column(name = "month", nullable = false)
+    private Integer month;
+    @Column(name = "week", nullable = false)
+    private Integer week;
+    @Column(name = "id_tema", nullable = false)
+    private Integer temaId;
+    @Column(name = "termino", nullable = false, length = 101)
+    private String termino;
+    @Column(name = "total", nullable = false)
+    private Long total;
+}
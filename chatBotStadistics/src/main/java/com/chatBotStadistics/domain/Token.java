@@ -6,18 +6,24 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 /**
  * The Token class represents a token entity in the system.
  * It is mapped to the "tokens" table in the database and serves as a JPA entity.
  *
  * This class includes the following attributes:
  * - id: The unique identifier for the token, generated automatically.
- * - token: A unique string representing the token's value.
+ * - jtiHash: The SHA-256 of the token's id (jti claim) in hex, a unique fixed-size key instead
+ *   of the full JWT.
+ * - expiresAt: When the token expires, after which its row is no longer needed.
  * - tokenType: The type of token, represented as an enumeration (default is BEARER).
  * - isRevoked: A boolean indicating whether the token has been revoked.
  * - isExpired: A boolean indicating whether the token has expired.
  * - adminUser: A Many-to-One relationship associating the token with an AdminUser entity.
  *
+ * The index on expires_at lets the scheduled purge find the expired rows without a full scan.
+ *
  * Tokens are primarily used to manage authentication and authorization within the system.
  * Each token is uniquely associated with an AdminUser and can have a specific state
  * (e.g., revoked or expired) to manage its validity and usage.
@@ -27,14 +33,17 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_token_expires_at", columnList = "expires_at"))
 public final class Token {
 
     @Id
     @GeneratedValue
     private Integer id;
 
-    @Column(unique = true)
-    private String token;
+    @Column(unique = true, length = 64)
+    private String jtiHash;
+
+    private Instant expiresAt;
 
     @Enumerated(EnumType.STRING)
     @Builder.Default
@@ -0,0 +1,45 @@
+package com.chatBotStadistics.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The UsuarioPeriodo class records that a usuario was active in a given period.
+ * It is mapped to the "usuario_periodo" table in the database and is a JPA entity.
+ *
+ * Distinct users cannot be summed across rollup rows, so this table keeps one row per
+ * (year, month, week, usuario) and distinct counts are taken over it instead of over
+ * every consulta.
+ *
+ * This class contains the following attributes:
+ * - id: The unique identifier for the row, generated automatically.
+ * - year, month, week: The period of activity (0 when the consulta had no value).
+ * - usuarioId: The identifier of the active usuario. Consultas without usuario are not recorded.
+ * - total: The number of consultas made by the usuario in the period.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "usuario_periodo",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_usuario_periodo",
+                columnNames = {"year", "month", "week", "id_usuario"}))
+public class UsuarioPeriodo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    @Column(name = "year", nullable = false)
+    private Integer year;
+    @Column(name = "month", nullable = false)
+    private Integer month;
+    @Column(name = "week", nullable = false)
+    private Integer week;
+    @Column(name = "id_usuario", nullable = false)
+    private Integer usuarioId;
+    @Column(name = "total", nullable = false)
+    private Long total;
+}
@@ -0,0 +1,17 @@
+package com.chatBotStadistics.dto;
+
+/**
+ * Represents the counters of the in-process statistics cache.
+ *
+ * This record exposes the number of hits and misses since startup, the number of
+ * invalidated entries, and the current and maximum number of cached results, so the
+ * effectiveness of the cache can be checked.
+ */
+public record CacheEstadisticasDTO(
+        long hits,
+        long misses,
+        long invalidaciones,
+        int size,
+        int maxSize
+) {
+}
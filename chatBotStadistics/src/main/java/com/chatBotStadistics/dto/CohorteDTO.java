@@ -0,0 +1,20 @@
+package com.chatBotStadistics.dto;
+
+import java.util.List;
+
+/**
+ * Represents one row of the retention matrix: the usuarios active in a week (the cohort).
+ *
+ * This record carries the week, the size of the cohort, and for each following week (the
+ * first element is the next week) how many of its usuarios came back and what percentage of
+ * the cohort that is.
+ */
+public record CohorteDTO(
+        Integer year,
+        Integer month,
+        Integer week,
+        Long usuarios,
+        List<Long> retenidos,
+        List<Double> porcentajes
+) {
+}
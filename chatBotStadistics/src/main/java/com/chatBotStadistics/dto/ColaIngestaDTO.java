@@ -0,0 +1,23 @@
+package com.chatBotStadistics.dto;
+
+/**
+ * Represents the state and counters of the asynchronous ingestion queue.
+ *
+ * - pendientes: Consultas waiting in the queue.
+ * - capacidad: Maximum number of consultas the queue can hold.
+ * - aceptadas: Consultas accepted into the queue.
+ * - rechazadas: Consultas rejected because the queue was full or shutting down.
+ * - escritas: Consultas stored in the database.
+ * - descartadas: Consultas that could not be stored and were dropped.
+ * - lotes: Group commits performed.
+ */
+public record ColaIngestaDTO(
+        int pendientes,
+        int capacidad,
+        long aceptadas,
+        long rechazadas,
+        long escritas,
+        long descartadas,
+        long lotes
+) {
+}
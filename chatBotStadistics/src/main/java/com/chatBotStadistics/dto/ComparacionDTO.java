@@ -0,0 +1,23 @@
+package com.chatBotStadistics.dto;
+
+import java.util.List;
+
+/**
+ * Represents the statistics of a period next to those of the previous period.
+ *
+ * This record carries the requested period and the period it was compared with (only the
+ * fields of the requested granularity are set), the total consultas and distinct usuarios of
+ * both, and the comparison per tema ordered by the current count.
+ */
+public record ComparacionDTO(
+        Integer year,
+        Integer month,
+        Integer week,
+        Integer yearAnterior,
+        Integer monthAnterior,
+        Integer weekAnterior,
+        ValorComparadoDTO consultas,
+        ValorComparadoDTO usuarios,
+        List<ComparacionTemaDTO> temas
+) {
+}
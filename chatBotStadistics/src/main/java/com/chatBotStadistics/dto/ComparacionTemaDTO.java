@@ -0,0 +1,19 @@
+package com.chatBotStadistics.dto;
+
+/**
+ * Represents the consultas of one tema in a period compared with the previous period.
+ *
+ * This record carries the tema name, its count in both periods with their difference and
+ * percentage change, and its share of the consultas with tema in each period, as returned
+ * by the per-tema statistics.
+ */
+public record ComparacionTemaDTO(
+        String tema,
+        Long actual,
+        Long anterior,
+        Long diferencia,
+        Double variacion,
+        Double porcentaje,
+        Double porcentajeAnterior
+) {
+}
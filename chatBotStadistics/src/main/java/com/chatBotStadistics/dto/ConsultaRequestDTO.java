@@ -0,0 +1,26 @@
+package com.chatBotStadistics.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Represents a data transfer object for registering a new consulta.
+ *
+ * This record carries the message of the consulta, the identifiers of its tema, subtema
+ * and usuario, and the period (day, month, year and week) in which it was made.
+ * When only the subtema is given, the tema is taken from it.
+ */
+public record ConsultaRequestDTO(
+        String mensaje,
+        Integer temaId,
+        Integer subtemaId,
+        Integer usuarioId,
+        @NotNull(message = "Day cannot be null")
+        Integer day,
+        @NotNull(message = "Month cannot be null")
+        Integer month,
+        @NotNull(message = "Year cannot be null")
+        Integer year,
+        @NotNull(message = "Week cannot be null")
+        Integer week
+) {
+}
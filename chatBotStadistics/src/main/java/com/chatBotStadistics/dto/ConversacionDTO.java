@@ -0,0 +1,23 @@
+package com.chatBotStadistics.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents one conversation: a consulta together with the respuesta it received.
+ *
+ * This record carries the identifier and timestamp of the consulta, its tema (identifier and
+ * name) and subtema name, the identifier of the usuario, the message of the consulta, and the
+ * identifier and message of its respuesta, null when it has none.
+ */
+public record ConversacionDTO(
+        Integer consultaId,
+        LocalDateTime fecha,
+        Integer temaId,
+        String tema,
+        String subtema,
+        Integer usuarioId,
+        String mensaje,
+        Integer respuestaId,
+        String respuesta
+) {
+}
@@ -0,0 +1,28 @@
+package com.chatBotStadistics.dto;
+
+/**
+ * Output format of a consultas export.
+ *
+ * Each value knows the content type it is served with and the extension of the
+ * downloaded file.
+ */
+public enum FormatoExportacion {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String tipoContenido;
+    private final String extension;
+
+    FormatoExportacion(String tipoContenido, String extension) {
+        this.tipoContenido = tipoContenido;
+        this.extension = extension;
+    }
+
+    public String getTipoContenido() {
+        return tipoContenido;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,27 @@
+package com.chatBotStadistics.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Represents one consulta and its respuesta in a bulk ingestion request.
+ *
+ * The usuario can be given by id or by phone number; phone numbers that do not exist yet
+ * are registered as new usuarios. When only the subtema is given, the tema is taken from it.
+ */
+public record IngestaConsultaDTO(
+        String mensaje,
+        String respuesta,
+        Integer temaId,
+        Integer subtemaId,
+        Integer usuarioId,
+        String numeroCelular,
+        @NotNull(message = "Day cannot be null")
+        Integer day,
+        @NotNull(message = "Month cannot be null")
+        Integer month,
+        @NotNull(message = "Year cannot be null")
+        Integer year,
+        @NotNull(message = "Week cannot be null")
+        Integer week
+) {
+}
@@ -0,0 +1,18 @@
+package com.chatBotStadistics.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Represents a bulk ingestion request with up to 5000 consultas and their respuestas.
+ */
+public record IngestaLoteDTO(
+        @NotEmpty(message = "Consultas cannot be empty")
+        @Size(max = 5000, message = "Consultas cannot exceed 5000 elements")
+        List<@Valid @NotNull IngestaConsultaDTO> consultas
+) {
+}
@@ -0,0 +1,12 @@
+package com.chatBotStadistics.dto;
+
+/**
+ * Represents the outcome of a bulk ingestion: how many consultas, respuestas and new
+ * usuarios were stored.
+ */
+public record IngestaResultadoDTO(
+        int consultas,
+        int respuestas,
+        int usuariosCreados
+) {
+}
@@ -0,0 +1,70 @@
+package com.chatBotStadistics.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket size of a consultas time series.
+ *
+ * Each value knows how to find the first day of the bucket that contains a date and the
+ * first day of the following bucket, and how many buckets a date range spans. Weeks start on
+ * Monday (ISO-8601).
+ */
+public enum IntervaloSerie {
+    DIA {
+        @Override
+        public LocalDate inicio(LocalDate fecha) {
+            return fecha;
+        }
+
+        @Override
+        public LocalDate siguiente(LocalDate inicio) {
+            return inicio.plusDays(1);
+        }
+
+        @Override
+        public long contar(LocalDate desde, LocalDate hasta) {
+            return ChronoUnit.DAYS.between(desde, hasta) + 1;
+        }
+    },
+    SEMANA {
+        @Override
+        public LocalDate inicio(LocalDate fecha) {
+            return fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate siguiente(LocalDate inicio) {
+            return inicio.plusWeeks(1);
+        }
+
+        @Override
+        public long contar(LocalDate desde, LocalDate hasta) {
+            return ChronoUnit.WEEKS.between(inicio(desde), inicio(hasta)) + 1;
+        }
+    },
+    MES {
+        @Override
+        public LocalDate inicio(LocalDate fecha) {
+            return fecha.withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDate siguiente(LocalDate inicio) {
+            return inicio.plusMonths(1);
+        }
+
+        @Override
+        public long contar(LocalDate desde, LocalDate hasta) {
+            return ChronoUnit.MONTHS.between(inicio(desde), inicio(hasta)) + 1;
+        }
+    };
+
+    public abstract LocalDate inicio(LocalDate fecha);
+
+    public abstract LocalDate siguiente(LocalDate inicio);
+
+    public abstract long contar(LocalDate desde, LocalDate hasta);
+}
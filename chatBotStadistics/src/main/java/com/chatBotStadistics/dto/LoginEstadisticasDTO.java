@@ -0,0 +1,32 @@
+package com.chatBotStadistics.dto;
+
+/**
+ * Represents the counters of login throttling and of the password hashing pool.
+ *
+ * - intentos / exitos / fallos: Login attempts since startup and how they ended.
+ * - rechazadosPorIp / rechazadosPorCuenta: Attempts refused by the per-IP or per-account limit.
+ * - rechazadosPorSaturacion: Hashes refused because the pool and its queue were full or too slow.
+ * - ipsVigiladas / cuentasVigiladas: IPs and (account, IP) pairs with an open throttling window.
+ * - costeBcrypt / costeMedidoMs: Configured BCrypt cost and the time one hash took at startup.
+ * - hilos / enCola / capacidadCola: Hashing threads and the hashes waiting for one.
+ * - hashes / latenciaMediaMs / latenciaMaximaMs: Hashes computed and their latency, queue wait included.
+ */
+public record LoginEstadisticasDTO(
+        long intentos,
+        long exitos,
+        long fallos,
+        long rechazadosPorIp,
+        long rechazadosPorCuenta,
+        long rechazadosPorSaturacion,
+        int ipsVigiladas,
+        int cuentasVigiladas,
+        int costeBcrypt,
+        long costeMedidoMs,
+        int hilos,
+        int enCola,
+        int capacidadCola,
+        long hashes,
+        double latenciaMediaMs,
+        double latenciaMaximaMs
+) {
+}
@@ -0,0 +1,17 @@
+package com.chatBotStadistics.dto;
+
+import java.util.List;
+
+/**
+ * Represents one page of full-text search results, newest consulta first.
+ *
+ * This record carries the results of the requested page, the page number and size, and
+ * the total number of consultas that match the search.
+ */
+public record PaginaBusquedaDTO(
+        List<ResultadoBusquedaDTO> resultados,
+        int pagina,
+        int tamano,
+        int total
+) {
+}
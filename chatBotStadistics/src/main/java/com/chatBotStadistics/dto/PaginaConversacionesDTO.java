@@ -0,0 +1,17 @@
+package com.chatBotStadistics.dto;
+
+import java.util.List;
+
+/**
+ * Represents one page of conversations, newest first.
+ *
+ * This record carries the conversations of the page, the requested page size, and the cursor
+ * of the following page: the value to pass as {@code antesDe} to continue, or null when this
+ * is the last page.
+ */
+public record PaginaConversacionesDTO(
+        List<ConversacionDTO> conversaciones,
+        int tamano,
+        Integer siguiente
+) {
+}
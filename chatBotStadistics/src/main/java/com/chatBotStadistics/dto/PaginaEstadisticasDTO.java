@@ -0,0 +1,19 @@
+package com.chatBotStadistics.dto;
+
+import java.util.List;
+
+/**
+ * Represents one page of a ranking of statistics, ordered from the largest count down.
+ *
+ * This record carries the elements of the requested page, the page number and size,
+ * whether a following page exists, and the total number of consultations used to
+ * compute the percentages of every element.
+ */
+public record PaginaEstadisticasDTO<T>(
+        List<T> elementos,
+        int pagina,
+        int tamano,
+        boolean haySiguiente,
+        Long totalConsultas
+) {
+}
@@ -0,0 +1,18 @@
+package com.chatBotStadistics.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Represents one bucket of a consultas time series.
+ *
+ * This record holds the first day of the bucket, the number of consultas in it and,
+ * when the series is split by tema, the number of consultas of every tema in the range
+ * (zero when the tema had none in this bucket).
+ */
+public record PuntoSerieDTO(
+        LocalDate inicio,
+        Long total,
+        Map<String, Long> porTema
+) {
+}
@@ -0,0 +1,19 @@
+package com.chatBotStadistics.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents one consulta matched by a full-text search.
+ *
+ * This record carries the identifier and timestamp of the consulta, the names of its tema
+ * and subtema, its message and the message of its respuesta, when it has one.
+ */
+public record ResultadoBusquedaDTO(
+        Integer consultaId,
+        LocalDateTime fecha,
+        String tema,
+        String subtema,
+        String mensaje,
+        String respuesta
+) {
+}
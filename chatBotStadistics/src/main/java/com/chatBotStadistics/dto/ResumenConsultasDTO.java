@@ -0,0 +1,18 @@
+package com.chatBotStadistics.dto;
+
+import java.util.Map;
+
+/**
+ * Represents the dashboard summary of consultas for a period.
+ *
+ * This record groups the percentage distribution by tema and by subtema together with
+ * the total number of consultas and of distinct usuarios, all read from the same
+ * database snapshot so the four values are mutually consistent.
+ */
+public record ResumenConsultasDTO(
+        Map<String, Double> temas,
+        Map<String, Double> subtemas,
+        Long consultas,
+        Long usuarios
+) {
+}
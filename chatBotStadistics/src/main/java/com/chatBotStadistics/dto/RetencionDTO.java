@@ -0,0 +1,15 @@
+package com.chatBotStadistics.dto;
+
+import java.util.List;
+
+/**
+ * Represents a retention matrix of weekly usuario cohorts.
+ *
+ * This record carries the number of weeks covered and one cohort per week, starting with
+ * the requested week. Each cohort has one retention value per later week in the matrix.
+ */
+public record RetencionDTO(
+        Integer semanas,
+        List<CohorteDTO> cohortes
+) {
+}
@@ -5,10 +5,12 @@ package com.chatBotStadistics.dto;
  *
  * This record encapsulates the data related to a specific subtopic,
  * including its name and the count of related occurrences or events.
+ * The percentage is relative to all consultations with a subtopic in the same period.
  * It is commonly used in statistics reporting or analysis contexts.
  */
 public record SubtemaEstadisticaDTO(
         String nombreSubtema,
-        Long count
+        Long count,
+        Double porcentaje
 ) {
 }
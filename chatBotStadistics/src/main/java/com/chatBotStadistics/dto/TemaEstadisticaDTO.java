@@ -5,10 +5,12 @@ package com.chatBotStadistics.dto;
  *
  * This record encapsulates the data related to a specific topic,
  * including its name and the count of associated occurrences or events.
+ * The percentage is relative to all consultations with a topic in the same period.
  * It is commonly used in contexts of statistical reporting or analysis.
  */
 public record TemaEstadisticaDTO(
         String nombreTema,
-        Long count
+        Long count,
+        Double porcentaje
 ) {
 }
@@ -0,0 +1,16 @@
+package com.chatBotStadistics.dto;
+
+/**
+ * Represents a term whose frequency rose from the previous period to the requested one.
+ *
+ * This record carries the term (a word or a pair of consecutive words, normalised without
+ * accents), the number of consultas that contain it in both periods, and its growth: the
+ * ratio between its share of the consultas in the period and in the previous period.
+ */
+public record TendenciaDTO(
+        String termino,
+        Long total,
+        Long totalAnterior,
+        Double crecimiento
+) {
+}
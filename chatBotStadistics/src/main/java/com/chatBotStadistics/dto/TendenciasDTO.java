@@ -0,0 +1,23 @@
+package com.chatBotStadistics.dto;
+
+import java.util.List;
+
+/**
+ * Represents the trending terms of a period compared with the previous one.
+ *
+ * This record carries the requested period and the period it was compared with (only the
+ * fields of the requested granularity are set), the number of consultas in each, and the
+ * rising terms ordered from the largest growth down.
+ */
+public record TendenciasDTO(
+        Integer year,
+        Integer month,
+        Integer week,
+        Integer yearAnterior,
+        Integer monthAnterior,
+        Integer weekAnterior,
+        Long consultas,
+        Long consultasAnterior,
+        List<TendenciaDTO> terminos
+) {
+}
@@ -0,0 +1,25 @@
+package com.chatBotStadistics.dto;
+
+import java.time.Instant;
+
+/**
+ * Represents the size of the token table and the counters of its scheduled purge.
+ *
+ * - total / revocados / caducados: Rows in the table, revoked ones, and expired ones waiting for the purge.
+ * - purgas / lotes / borradas: Purge runs since startup, delete batches and rows deleted.
+ * - ultimaPurga / ultimaBorradas / ultimaDuracionMs / ultimaFilasPorSegundo: The last run, or null
+ *   before the first one.
+ */
+public record TokensEstadisticasDTO(
+        long total,
+        long revocados,
+        long caducados,
+        long purgas,
+        long lotes,
+        long borradas,
+        Instant ultimaPurga,
+        Long ultimaBorradas,
+        Long ultimaDuracionMs,
+        Double ultimaFilasPorSegundo
+) {
+}
@@ -0,0 +1,15 @@
+package com.chatBotStadistics.dto;
+
+/**
+ * Represents an approximate count of distinct usuarios.
+ *
+ * This record holds the HyperLogLog estimate together with its relative standard error
+ * and the bounds of the roughly 95% interval (two standard errors) around the estimate.
+ */
+public record UsuariosAproximadosDTO(
+        long estimacion,
+        double errorRelativo,
+        long limiteInferior,
+        long limiteSuperior
+) {
+}
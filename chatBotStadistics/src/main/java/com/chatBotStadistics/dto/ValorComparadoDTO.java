@@ -0,0 +1,16 @@
+package com.chatBotStadistics.dto;
+
+/**
+ * Represents a count in a period next to the same count in the period it is compared with.
+ *
+ * This record carries both values, their difference (actual minus anterior) and the change
+ * as a percentage of the previous value, rounded to two decimals (null when the previous
+ * value is zero).
+ */
+public record ValorComparadoDTO(
+        Long actual,
+        Long anterior,
+        Long diferencia,
+        Double variacion
+) {
+}
@@ -0,0 +1,43 @@
+package com.chatBotStadistics.repository;
+
+import com.chatBotStadistics.domain.ConsultaAgregado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * ConsultaAgregadoRepository is a repository interface for managing ConsultaAgregado entities.
+ * It maintains the (year, month, week, tema) rollup of consultas and answers the
+ * statistics that used to scan the whole consulta table.
+ *
+ * Methods:
+ * - incrementar: Adds one consulta to the rollup row of its period and tema, creating it if needed.
+ * - vaciar: Removes every rollup row before a rebuild.
+ * - findUltimaSemana: Returns the highest week recorded for a month, or null when it has no consultas.
+ * - countConsultasByCategoria: Retrieves the count of consultations grouped by theme.
+ * - countConsultas: Counts the consultations recorded for the given period.
+ *
+ * The statistics queries are provided by {@link ConsultaAgregadoRepositoryCustom}.
+ * Missing period values or temas are stored as 0 so the unique key can be used for upserts.
+ */
+@Repository
+public interface ConsultaAgregadoRepository extends JpaRepository<ConsultaAgregado, Integer>, ConsultaAgregadoRepositoryCustom {
+
+    @Modifying
+    @Query(value = "INSERT INTO consulta_agregado (year, month, week, id_tema, total) " +
+            "VALUES (:year, :month, :week, :temaId, 1) " +
+            "ON DUPLICATE KEY UPDATE total = total + 1", nativeQuery = true)
+    int incrementar(@Param("year") int year,
+                    @Param("month") int month,
+                    @Param("week") int week,
+                    @Param("temaId") int temaId);
+
+    @Modifying
+    @Query(value = "DELETE FROM consulta_agregado", nativeQuery = true)
+    int vaciar();
+
+    @Query("SELECT MAX(a.week) FROM ConsultaAgregado a WHERE a.year = :year AND a.month = :month")
+    Integer findUltimaSemana(@Param("year") int year, @Param("month") int month);
+}
@@ -0,0 +1,33 @@
+package com.chatBotStadistics.repository;
+
+import java.util.List;
+
+/**
+ * Statistics queries over the consulta_agregado rollup that are built with the
+ * Criteria API, emitting only the period filters that were supplied.
+ *
+ * Methods:
+ * - countConsultasByCategoria: Retrieves the count of consultations grouped by theme.
+ * - countConsultas: Counts the consultations recorded for the given period.
+ * - countConsultasByTemaId: Retrieves the count of consultations grouped by tema id, including
+ *   the consultations without tema (id 0), so totals and distributions come from one read.
+ * - findTopTemas: Retrieves one page of the themes ordered by count, sorted and limited in the database.
+ * - countConsultasConTema: Counts the consultations of the given period that have a theme.
+ * - countConsultasComparadas: Retrieves, in one grouped read of both periods, the count of consultations
+ *   per tema id (with its name, null for id 0) in the given period and in the period it is compared with.
+ */
+public interface ConsultaAgregadoRepositoryCustom {
+
+    List<Object[]> countConsultasByCategoria(Integer year, Integer month, Integer week);
+
+    Long countConsultas(Integer year, Integer month, Integer week);
+
+    List<Object[]> countConsultasByTemaId(Integer year, Integer month, Integer week);
+
+    List<Object[]> findTopTemas(Integer year, Integer month, Integer week, int offset, int limite);
+
+    Long countConsultasConTema(Integer year, Integer month, Integer week);
+
+    List<Object[]> countConsultasComparadas(Integer year, Integer month, Integer week,
+                                            Integer yearAnterior, Integer monthAnterior, Integer weekAnterior);
+}
@@ -0,0 +1,131 @@
+package com.chatBotStadistics.repository;
+
+import com.chatBotStadistics.domain.ConsultaAgregado;
+import com.chatBotStadistics.domain.Tema;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.JpaEntityJoin;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.sqm.tree.SqmJoinType;
+
+import java.util.List;
+
+/**
+ * Criteria based implementation of {@link ConsultaAgregadoRepositoryCustom}.
+ *
+ * The supplied period filters are matched against the (year, month, week, id_tema)
+ * unique key of the rollup, which doubles as its lookup index.
+ */
+public class ConsultaAgregadoRepositoryCustomImpl implements ConsultaAgregadoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> countConsultasByCategoria(Integer year, Integer month, Integer week) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<ConsultaAgregado> agregado = query.from(ConsultaAgregado.class);
+        Root<Tema> tema = query.from(Tema.class);
+
+        List<Predicate> predicates = PeriodoPredicates.of(cb, agregado, year, month, week);
+        predicates.add(cb.equal(tema.get("id"), agregado.get("temaId")));
+        query.multiselect(tema.get("nombre"), cb.sum(agregado.<Long>get("total")))
+                .where(predicates.toArray(Predicate[]::new))
+                .groupBy(tema.get("nombre"));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public Long countConsultas(Integer year, Integer month, Integer week) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<ConsultaAgregado> agregado = query.from(ConsultaAgregado.class);
+
+        List<Predicate> predicates = PeriodoPredicates.of(cb, agregado, year, month, week);
+        query.select(cb.sum(agregado.<Long>get("total")))
+                .where(predicates.toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<Object[]> countConsultasByTemaId(Integer year, Integer month, Integer week) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<ConsultaAgregado> agregado = query.from(ConsultaAgregado.class);
+
+        List<Predicate> predicates = PeriodoPredicates.of(cb, agregado, year, month, week);
+        query.multiselect(agregado.get("temaId"), cb.sum(agregado.<Long>get("total")))
+                .where(predicates.toArray(Predicate[]::new))
+                .groupBy(agregado.get("temaId"));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /*
+     * El orden incluye el nombre como desempate para que las páginas sean estables
+     * cuando varios temas tienen el mismo total.
+     */
+    @Override
+    public List<Object[]> findTopTemas(Integer year, Integer month, Integer week, int offset, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<ConsultaAgregado> agregado = query.from(ConsultaAgregado.class);
+        Root<Tema> tema = query.from(Tema.class);
+
+        List<Predicate> predicates = PeriodoPredicates.of(cb, agregado, year, month, week);
+        predicates.add(cb.equal(tema.get("id"), agregado.get("temaId")));
+        Expression<Long> total = cb.sum(agregado.<Long>get("total"));
+        query.multiselect(tema.get("nombre"), total)
+                .where(predicates.toArray(Predicate[]::new))
+                .groupBy(tema.get("nombre"))
+                .orderBy(cb.desc(total), cb.asc(tema.get("nombre")));
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public Long countConsultasConTema(Integer year, Integer month, Integer week) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<ConsultaAgregado> agregado = query.from(ConsultaAgregado.class);
+        Root<Tema> tema = query.from(Tema.class);
+
+        List<Predicate> predicates = PeriodoPredicates.of(cb, agregado, year, month, week);
+        predicates.add(cb.equal(tema.get("id"), agregado.get("temaId")));
+        query.select(cb.sum(agregado.<Long>get("total")))
+                .where(predicates.toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /*
+     * Una sola lectura del rollup cubre los dos periodos: cada fila suma su total en la columna
+     * del periodo al que pertenece. El tema se une con LEFT JOIN para conservar el id 0 en los totales.
+     */
+    @Override
+    public List<Object[]> countConsultasComparadas(Integer year, Integer month, Integer week,
+                                                   Integer yearAnterior, Integer monthAnterior, Integer weekAnterior) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        JpaRoot<ConsultaAgregado> agregado = (JpaRoot<ConsultaAgregado>) query.from(ConsultaAgregado.class);
+        JpaEntityJoin<Tema> tema = agregado.join(Tema.class, SqmJoinType.LEFT);
+        tema.on(cb.equal(tema.get("id"), agregado.get("temaId")));
+
+        Predicate actual = cb.and(PeriodoPredicates.of(cb, agregado, year, month, week).toArray(Predicate[]::new));
+        Predicate anterior = cb.and(PeriodoPredicates.of(cb, agregado, yearAnterior, monthAnterior, weekAnterior)
+                .toArray(Predicate[]::new));
+        Expression<Long> total = agregado.get("total");
+        query.multiselect(agregado.get("temaId"), tema.get("nombre"),
+                        cb.sum(cb.<Long>selectCase().when(actual, total).otherwise(0L)),
+                        cb.sum(cb.<Long>selectCase().when(anterior, total).otherwise(0L)))
+                .where(cb.or(actual, anterior))
+                .groupBy(agregado.get("temaId"), tema.get("nombre"));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
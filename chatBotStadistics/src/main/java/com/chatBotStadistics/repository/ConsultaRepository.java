@@ -1,14 +1,19 @@
 package com.chatBotStadistics.repository;
 
 import com.chatBotStadistics.domain.Consulta;
-import com.chatBotStadistics.dto.SubtemaEstadisticaDTO;
-import com.chatBotStadistics.dto.TemaEstadisticaDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * ConsultaRepository is a repository interface for managing Consulta entities.
@@ -32,56 +37,66 @@ import java.util.List;
  * - countUsuariosConsultasF: Counts the number of unique users who made consultations,
  *   filtered by year, month, and/or week.
  *
+ * - completarSubtemaUnico: Backfills id_subtema on historical consultas whose tema has exactly
+ *   one subtema, the only case where the subtema can be derived without guessing.
+ * - completarFechas: Backfills fecha from day, month and year for the consultas whose id falls
+ *   in the given range, so large tables can be migrated in short transactions.
+ * - findMaxId: Returns the highest consulta id, the upper bound for the backfill.
+ * - findSinAgregar: Returns, ordered by id, up to {@code limite} consultas in an id range that were
+ *   inserted by other processes and are not in the rollups yet.
+ * - findParaReconstruir: Returns, ordered by id, up to {@code limite} (id, year, month, week, temaId,
+ *   usuarioId, mensaje) rows in an id range, so the rollups are rebuilt page by page.
+ * - streamColumnas: Streams the integer columns and fecha of every consulta, ordered by id, to load
+ *   the in-memory statistics engine; it must be consumed inside a transaction.
+ *
+ * The statistics queries are provided by {@link ConsultaRepositoryCustom}, which builds them
+ * with the Criteria API so that only the supplied filters reach the database.
+ *
  * This repository is annotated as a Spring Repository to facilitate the integration
  * with Spring's persistence framework and dependency injection.
  */
 @Repository
-public interface ConsultaRepository extends JpaRepository<Consulta, Integer> {
+public interface ConsultaRepository extends JpaRepository<Consulta, Integer>, ConsultaRepositoryCustom {
 
-    @Query("SELECT c.tema.nombre, COUNT(c) " +
-            "FROM Consulta c " +
-            "WHERE c.tema IS NOT NULL " +
-            "  AND (:year IS NULL OR c.year = :year) " +
-            "  AND (:month IS NULL OR c.month = :month) " +
-            "  AND (:week IS NULL OR c.week = :week) " +
-            "GROUP BY c.tema.nombre")
-    List<Object[]> countConsultasByCategoria(@Param("year") Integer year,
-                                             @Param("month") Integer month,
-                                             @Param("week") Integer week);
+    @Modifying
+    @Query(value = "UPDATE consulta c " +
+            "JOIN (SELECT s.tema_id, MIN(s.id) AS id FROM subtema s " +
+            "      GROUP BY s.tema_id HAVING COUNT(*) = 1) unico ON unico.tema_id = c.id_tema " +
+            "SET c.id_subtema = unico.id " +
+            "WHERE c.id_subtema IS NULL", nativeQuery = true)
+    int completarSubtemaUnico();
 
     /*
-     * Aquí unimos Subtema s con Consulta c por la relación lógica:
-     *   s.tema = c.tema
-     * Esto funciona cuando Subtema tiene: @ManyToOne Tema tema;
-     * y Consulta tiene: @ManyToOne Tema tema;
+     * MAKEDATE + INTERVAL no genera avisos con fechas inválidas (30 de febrero), por eso se
+     * descartan antes comparando el día con LAST_DAY. Solo se tocan las filas cuya fecha falta
+     * o cae en otro día, así se conserva la hora de las consultas ya registradas con fecha.
      */
-    @Query("SELECT s.nombre, COUNT(c) " +
-            "FROM Consulta c, Subtema s " +
-            "WHERE c.tema IS NOT NULL " +
-            "  AND s.tema = c.tema " +
-            "  AND (:year IS NULL OR c.year = :year) " +
-            "  AND (:month IS NULL OR c.month = :month) " +
-            "  AND (:week IS NULL OR c.week = :week) " +
-            "GROUP BY s.nombre")
-    List<Object[]> countConsultasBySubtema(@Param("year") Integer year,
-                                           @Param("month") Integer month,
-                                           @Param("week") Integer week);
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE consulta c " +
+            "SET c.fecha = MAKEDATE(c.year, 1) + INTERVAL (c.month - 1) MONTH + INTERVAL (c.day - 1) DAY " +
+            "WHERE c.id BETWEEN :desdeId AND :hastaId " +
+            "AND c.year > 0 AND c.month BETWEEN 1 AND 12 AND c.day >= 1 " +
+            "AND c.day <= DAY(LAST_DAY(MAKEDATE(c.year, 1) + INTERVAL (c.month - 1) MONTH)) " +
+            "AND (c.fecha IS NULL OR DATE(c.fecha) <> MAKEDATE(c.year, 1) + INTERVAL (c.month - 1) MONTH + INTERVAL (c.day - 1) DAY)",
+            nativeQuery = true)
+    int completarFechas(@Param("desdeId") int desdeId, @Param("hastaId") int hastaId);
+
+    @Query("SELECT MAX(c.id) FROM Consulta c")
+    Integer findMaxId();
+
+    @Query("SELECT c FROM Consulta c LEFT JOIN FETCH c.tema LEFT JOIN FETCH c.subtema LEFT JOIN FETCH c.usuario " +
+            "WHERE c.id > :desdeId AND c.id <= :hastaId AND c.agregada IS NULL ORDER BY c.id")
+    List<Consulta> findSinAgregar(@Param("desdeId") int desdeId, @Param("hastaId") int hastaId, Limit limite);
 
-    @Query("SELECT COUNT(c) " +
-            "FROM Consulta c " +
-            "WHERE (:year IS NULL OR c.year = :year) " +
-            "  AND (:month IS NULL OR c.month = :month) " +
-            "  AND (:week IS NULL OR c.week = :week)")
-    Long countConsultas(@Param("year") Integer year,
-                        @Param("month") Integer month,
-                        @Param("week") Integer week);
+    @Query("SELECT c.id, c.year, c.month, c.week, t.id, u.id, c.mensaje FROM Consulta c LEFT JOIN c.tema t LEFT JOIN c.usuario u " +
+            "WHERE c.id > :desdeId AND c.id <= :hastaId ORDER BY c.id")
+    List<Object[]> findParaReconstruir(@Param("desdeId") int desdeId, @Param("hastaId") int hastaId, Limit limite);
 
-    @Query("SELECT COUNT(DISTINCT c.usuario.id) " +
-            "FROM Consulta c " +
-            "WHERE (:year IS NULL OR c.year = :year) " +
-            "  AND (:month IS NULL OR c.month = :month) " +
-            "  AND (:week IS NULL OR c.week = :week)")
-    Long countUsuarios(@Param("year") Integer year,
-                       @Param("month") Integer month,
-                       @Param("week") Integer week);
-}
\ No newline at end of file
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.id, c.year, c.month, c.week, c.tema.id, c.subtema.id, c.usuario.id, c.fecha FROM Consulta c ORDER BY c.id")
+    Stream<Object[]> streamColumnas();
+}
@@ -0,0 +1,63 @@
+package com.chatBotStadistics.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Statistics queries over the consulta table that are built with the Criteria API,
+ * emitting only the period filters that were supplied.
+ *
+ * Each statistic also has a variant bounded by a half-open [desde, hasta) range on the
+ * fecha column.
+ *
+ * Methods:
+ * - countConsultasByCategoria: Retrieves the count of consultations grouped by theme.
+ * - countConsultasBySubtema: Retrieves the count of consultations grouped by subtheme.
+ * - countConsultas: Counts the consultations recorded for the given period.
+ * - countUsuarios: Counts the distinct users who made consultations in the given period.
+ * - countConsultasPorDia: Retrieves the count of consultations per day (and optionally per theme)
+ *   within the given range.
+ * - findTopSubtemas: Retrieves one page of the subthemes ordered by count, sorted and limited in the database.
+ * - countConsultasConSubtema: Counts the consultations of the given period that have a subtheme.
+ * - streamExportacion: Streams every consulta with its respuesta, optionally filtered by date
+ *   range and tema, through a MySQL server-side cursor; it must be consumed inside a transaction.
+ * - streamTextos: Streams the messages of the consultas after the given id, ordered by id, with a
+ *   MySQL server-side cursor; it must be consumed inside a transaction.
+ * - findResultadosBusqueda: Retrieves the consultas with the given ids and their respuestas.
+ * - findConversaciones: Retrieves one page of consultas with their respuesta, newest first,
+ *   optionally for one usuario and/or tema, starting below the given id (keyset pagination).
+ */
+public interface ConsultaRepositoryCustom {
+
+    List<Object[]> countConsultasByCategoria(Integer year, Integer month, Integer week);
+
+    List<Object[]> countConsultasByCategoria(LocalDateTime desde, LocalDateTime hasta);
+
+    List<Object[]> countConsultasBySubtema(Integer year, Integer month, Integer week);
+
+    List<Object[]> countConsultasBySubtema(LocalDateTime desde, LocalDateTime hasta);
+
+    Long countConsultas(Integer year, Integer month, Integer week);
+
+    Long countConsultas(LocalDateTime desde, LocalDateTime hasta);
+
+    Long countUsuarios(Integer year, Integer month, Integer week);
+
+    Long countUsuarios(LocalDateTime desde, LocalDateTime hasta);
+
+    List<Object[]> countConsultasPorDia(LocalDateTime desde, LocalDateTime hasta, boolean porTema);
+
+    List<Object[]> findTopSubtemas(Integer year, Integer month, Integer week, int offset, int limite);
+
+    Long countConsultasConSubtema(Integer year, Integer month, Integer week);
+
+    Stream<Object[]> streamExportacion(LocalDateTime desde, LocalDateTime hasta, Integer temaId);
+
+    Stream<Object[]> streamTextos(int desdeId);
+
+    List<Object[]> findResultadosBusqueda(Collection<Integer> ids);
+
+    List<Object[]> findConversaciones(Integer usuarioId, Integer temaId, Integer antesDeId, int limite);
+}
@@ -0,0 +1,313 @@
+package com.chatBotStadistics.repository;
+
+import com.chatBotStadistics.domain.Consulta;
+import com.chatBotStadistics.domain.Respuesta;
+import com.chatBotStadistics.domain.Subtema;
+import com.chatBotStadistics.domain.Tema;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.criteria.JpaEntityJoin;
+import org.hibernate.query.criteria.JpaExpression;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.sqm.tree.SqmJoinType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Criteria based implementation of {@link ConsultaRepositoryCustom}.
+ *
+ * Every query starts from the supplied period filters only, so each filter combination
+ * produces its own statement that can use the (year, month, week, id_tema),
+ * (year, month, week, id_subtema) and (year, month, week, id_usuario) indexes declared
+ * on {@link Consulta}. The date range variants filter on the fecha column alone, so the
+ * indexes led by fecha resolve them with a single range scan.
+ */
+public class ConsultaRepositoryCustomImpl implements ConsultaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> countConsultasByCategoria(Integer year, Integer month, Integer week) {
+        return contarPorTema((cb, consulta) -> PeriodoPredicates.of(cb, consulta, year, month, week));
+    }
+
+    @Override
+    public List<Object[]> countConsultasByCategoria(LocalDateTime desde, LocalDateTime hasta) {
+        return contarPorTema((cb, consulta) -> rango(cb, consulta, desde, hasta));
+    }
+
+    /*
+     * Cada consulta guarda su propio subtema (id_subtema), así que se cuenta una sola vez
+     * con un GROUP BY directo en lugar de cruzarla con todos los subtemas de su tema.
+     */
+    @Override
+    public List<Object[]> countConsultasBySubtema(Integer year, Integer month, Integer week) {
+        return contarPorSubtema((cb, consulta) -> PeriodoPredicates.of(cb, consulta, year, month, week));
+    }
+
+    @Override
+    public List<Object[]> countConsultasBySubtema(LocalDateTime desde, LocalDateTime hasta) {
+        return contarPorSubtema((cb, consulta) -> rango(cb, consulta, desde, hasta));
+    }
+
+    @Override
+    public Long countConsultas(Integer year, Integer month, Integer week) {
+        return contar((cb, consulta) -> PeriodoPredicates.of(cb, consulta, year, month, week));
+    }
+
+    @Override
+    public Long countConsultas(LocalDateTime desde, LocalDateTime hasta) {
+        return contar((cb, consulta) -> rango(cb, consulta, desde, hasta));
+    }
+
+    @Override
+    public Long countUsuarios(Integer year, Integer month, Integer week) {
+        return contarUsuarios((cb, consulta) -> PeriodoPredicates.of(cb, consulta, year, month, week));
+    }
+
+    @Override
+    public Long countUsuarios(LocalDateTime desde, LocalDateTime hasta) {
+        return contarUsuarios((cb, consulta) -> rango(cb, consulta, desde, hasta));
+    }
+
+    /*
+     * Devuelve filas [fecha, count] o [fecha, nombreTema, count], agrupadas por el día de fecha.
+     * El rango se resuelve con un solo recorrido de los índices que empiezan por fecha;
+     * la agrupación en semanas o meses se hace sobre estas filas ya agrupadas por día.
+     */
+    @Override
+    public List<Object[]> countConsultasPorDia(LocalDateTime desde, LocalDateTime hasta, boolean porTema) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Consulta> consulta = query.from(Consulta.class);
+
+        List<Expression<?>> grupos = new ArrayList<>(List.of(((JpaExpression<LocalDateTime>) consulta.<LocalDateTime>get("fecha")).cast(LocalDate.class)));
+        if (porTema) {
+            grupos.add(consulta.join("tema", JoinType.LEFT).get("nombre"));
+        }
+        List<Selection<?>> columnas = new ArrayList<>(grupos);
+        columnas.add(cb.count(consulta));
+
+        query.multiselect(columnas)
+                .where(rango(cb, consulta, desde, hasta).toArray(Predicate[]::new))
+                .groupBy(grupos);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /*
+     * El orden incluye el nombre como desempate para que las páginas sean estables
+     * cuando varios subtemas tienen el mismo total.
+     */
+    @Override
+    public List<Object[]> findTopSubtemas(Integer year, Integer month, Integer week, int offset, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Consulta> consulta = query.from(Consulta.class);
+        Join<Consulta, Subtema> subtema = consulta.join("subtema");
+
+        Expression<Long> total = cb.count(consulta);
+        query.multiselect(subtema.get("nombre"), total)
+                .where(PeriodoPredicates.of(cb, consulta, year, month, week).toArray(Predicate[]::new))
+                .groupBy(subtema.get("nombre"))
+                .orderBy(cb.desc(total), cb.asc(subtema.get("nombre")));
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public Long countConsultasConSubtema(Integer year, Integer month, Integer week) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Consulta> consulta = query.from(Consulta.class);
+
+        query.select(cb.count(consulta))
+                .where(cb.and(PeriodoPredicates.of(cb, consulta, year, month, week).toArray(Predicate[]::new)),
+                        cb.isNotNull(consulta.get("subtema")));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /*
+     * Devuelve filas [id, fecha, day, month, year, week, nombreTema, nombreSubtema, idUsuario,
+     * mensaje, idRespuesta, mensajeRespuesta]. Con Integer.MIN_VALUE como fetch size el driver de
+     * MySQL lee fila a fila desde un cursor del servidor en lugar de cargar el resultado completo,
+     * y al proyectar columnas no queda ninguna entidad en el contexto de persistencia.
+     */
+    @Override
+    public Stream<Object[]> streamExportacion(LocalDateTime desde, LocalDateTime hasta, Integer temaId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        JpaRoot<Consulta> consulta = (JpaRoot<Consulta>) query.from(Consulta.class);
+        Join<Consulta, Tema> tema = consulta.join("tema", JoinType.LEFT);
+        Join<Consulta, Subtema> subtema = consulta.join("subtema", JoinType.LEFT);
+        JpaEntityJoin<Respuesta> respuesta = consulta.join(Respuesta.class, SqmJoinType.LEFT);
+        respuesta.on(cb.equal(respuesta.get("consulta"), consulta));
+
+        List<Predicate> predicates = new ArrayList<>(3);
+        if (desde != null) {
+            predicates.add(cb.greaterThanOrEqualTo(consulta.get("fecha"), desde));
+        }
+        if (hasta != null) {
+            predicates.add(cb.lessThan(consulta.get("fecha"), hasta));
+        }
+        if (temaId != null) {
+            predicates.add(cb.equal(tema.get("id"), temaId));
+        }
+        query.multiselect(consulta.get("id"), consulta.get("fecha"), consulta.get("day"), consulta.get("month"),
+                        consulta.get("year"), consulta.get("week"), tema.get("nombre"), subtema.get("nombre"),
+                        consulta.get("usuario").get("id"), consulta.get("mensaje"), respuesta.get("id"), respuesta.get("mensaje"))
+                .where(predicates.toArray(Predicate[]::new));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /*
+     * Devuelve filas [id, idTema, fecha, mensaje, mensajeRespuesta] ordenadas por id; una consulta
+     * con varias respuestas aparece en filas consecutivas.
+     */
+    @Override
+    public Stream<Object[]> streamTextos(int desdeId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        JpaRoot<Consulta> consulta = (JpaRoot<Consulta>) query.from(Consulta.class);
+        JpaEntityJoin<Respuesta> respuesta = consulta.join(Respuesta.class, SqmJoinType.LEFT);
+        respuesta.on(cb.equal(respuesta.get("consulta"), consulta));
+
+        query.multiselect(consulta.get("id"), consulta.get("tema").get("id"), consulta.get("fecha"),
+                        consulta.get("mensaje"), respuesta.get("mensaje"))
+                .where(cb.greaterThan(consulta.get("id"), desdeId))
+                .orderBy(cb.asc(consulta.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    // Devuelve filas [id, fecha, nombreTema, nombreSubtema, mensaje, mensajeRespuesta].
+    @Override
+    public List<Object[]> findResultadosBusqueda(Collection<Integer> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        JpaRoot<Consulta> consulta = (JpaRoot<Consulta>) query.from(Consulta.class);
+        Join<Consulta, Tema> tema = consulta.join("tema", JoinType.LEFT);
+        Join<Consulta, Subtema> subtema = consulta.join("subtema", JoinType.LEFT);
+        JpaEntityJoin<Respuesta> respuesta = consulta.join(Respuesta.class, SqmJoinType.LEFT);
+        respuesta.on(cb.equal(respuesta.get("consulta"), consulta));
+
+        query.multiselect(consulta.get("id"), consulta.get("fecha"), tema.get("nombre"), subtema.get("nombre"),
+                        consulta.get("mensaje"), respuesta.get("mensaje"))
+                .where(consulta.get("id").in(ids));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /*
+     * Devuelve filas [id, fecha, idTema, tema, subtema, idUsuario, mensaje, idRespuesta, mensajeRespuesta].
+     * La página se recorre por id descendente desde el cursor, así MySQL lee solo las filas de la
+     * página en el índice de la clave foránea (id_usuario o id_tema, que incluye el id) o en la
+     * clave primaria, sin importar cuántas páginas haya antes. La clave única de respuesta.consulta_id
+     * (relación uno a uno) garantiza una sola fila por consulta dentro del LIMIT.
+     */
+    @Override
+    public List<Object[]> findConversaciones(Integer usuarioId, Integer temaId, Integer antesDeId, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        JpaRoot<Consulta> consulta = (JpaRoot<Consulta>) query.from(Consulta.class);
+        Join<Consulta, Tema> tema = consulta.join("tema", JoinType.LEFT);
+        Join<Consulta, Subtema> subtema = consulta.join("subtema", JoinType.LEFT);
+        JpaEntityJoin<Respuesta> respuesta = consulta.join(Respuesta.class, SqmJoinType.LEFT);
+        respuesta.on(cb.equal(respuesta.get("consulta"), consulta));
+
+        List<Predicate> predicates = new ArrayList<>(3);
+        if (usuarioId != null) {
+            predicates.add(cb.equal(consulta.get("usuario").get("id"), usuarioId));
+        }
+        if (temaId != null) {
+            predicates.add(cb.equal(consulta.get("tema").get("id"), temaId));
+        }
+        if (antesDeId != null) {
+            predicates.add(cb.lessThan(consulta.get("id"), antesDeId));
+        }
+        query.multiselect(consulta.get("id"), consulta.get("fecha"), tema.get("id"), tema.get("nombre"), subtema.get("nombre"),
+                        consulta.get("usuario").get("id"), consulta.get("mensaje"), respuesta.get("id"), respuesta.get("mensaje"))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(consulta.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    private List<Object[]> contarPorTema(Filtro filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Consulta> consulta = query.from(Consulta.class);
+        Join<Consulta, Tema> tema = consulta.join("tema");
+
+        query.multiselect(tema.get("nombre"), cb.count(consulta))
+                .where(filtro.de(cb, consulta).toArray(Predicate[]::new))
+                .groupBy(tema.get("nombre"));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private List<Object[]> contarPorSubtema(Filtro filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Consulta> consulta = query.from(Consulta.class);
+        Join<Consulta, Subtema> subtema = consulta.join("subtema");
+
+        query.multiselect(subtema.get("nombre"), cb.count(consulta))
+                .where(filtro.de(cb, consulta).toArray(Predicate[]::new))
+                .groupBy(subtema.get("nombre"));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private Long contar(Filtro filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Consulta> consulta = query.from(Consulta.class);
+
+        query.select(cb.count(consulta))
+                .where(filtro.de(cb, consulta).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Long contarUsuarios(Filtro filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Consulta> consulta = query.from(Consulta.class);
+
+        query.select(cb.countDistinct(consulta.get("usuario").get("id")))
+                .where(filtro.de(cb, consulta).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // Rango semiabierto [desde, hasta): fecha >= desde AND fecha < hasta.
+    private static List<Predicate> rango(CriteriaBuilder cb, Root<Consulta> consulta, LocalDateTime desde, LocalDateTime hasta) {
+        return List.of(
+                cb.greaterThanOrEqualTo(consulta.get("fecha"), desde),
+                cb.lessThan(consulta.get("fecha"), hasta));
+    }
+
+    @FunctionalInterface
+    private interface Filtro {
+        List<Predicate> de(CriteriaBuilder cb, Root<Consulta> consulta);
+    }
+}
@@ -0,0 +1,26 @@
+package com.chatBotStadistics.repository;
+
+import com.chatBotStadistics.domain.EstadoAgregados;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * EstadoAgregadosRepository is a repository interface for managing the EstadoAgregados row.
+ *
+ * Methods:
+ * - bloquear: Reads the row with SELECT ... FOR UPDATE, so the catch-up and the rebuild of the
+ *   rollups never run at the same time, even on different instances.
+ */
+@Repository
+public interface EstadoAgregadosRepository extends JpaRepository<EstadoAgregados, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EstadoAgregados e WHERE e.id = :id")
+    Optional<EstadoAgregados> bloquear(@Param("id") int id);
+}
@@ -0,0 +1,13 @@
+package com.chatBotStadistics.repository;
+
+import com.chatBotStadistics.domain.EstadoFechas;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * EstadoFechasRepository is a repository interface for managing the EstadoFechas row, which
+ * marks the backfill of fecha as done.
+ */
+@Repository
+public interface EstadoFechasRepository extends JpaRepository<EstadoFechas, Integer> {
+}
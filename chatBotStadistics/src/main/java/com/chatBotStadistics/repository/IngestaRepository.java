@@ -0,0 +1,183 @@
+package com.chatBotStadistics.repository;
+
+import com.chatBotStadistics.domain.Consulta;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch writes used by the bulk ingestion of consultas.
+ *
+ * The consulta, respuesta and usuario tables use IDENTITY keys, which stop Hibernate from
+ * batching inserts, so these statements go through {@link JdbcTemplate#batchUpdate} instead.
+ * With {@code rewriteBatchedStatements=true} on the MySQL URL each batch is sent as a single
+ * multi-row INSERT, and the generated ids are read back from the same round trip.
+ *
+ * Methods:
+ * - insertarConsultas: Inserts the consultas, marked as already added to the rollups, and sets the
+ *   generated id on each of them.
+ * - insertarRespuestas: Inserts the respuestas of the given consulta ids.
+ * - insertarUsuarios: Inserts usuarios by phone number and returns their generated ids in order.
+ * - incrementarAgregados: Adds counts to the consulta_agregado rollup, one upsert per row.
+ * - incrementarUsuariosPeriodo: Adds counts to the usuario_periodo rollup, one upsert per row.
+ * - incrementarTerminos: Adds counts to the termino_periodo rollup, one upsert per row.
+ */
+@Repository
+public class IngestaRepository {
+
+    private static final String INSERT_CONSULTA = "INSERT INTO consulta " +
+            "(mensaje, day, month, year, week, fecha, id_tema, id_subtema, id_usuario, agregada) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE)";
+    private static final String INSERT_RESPUESTA = "INSERT INTO respuesta (consulta_id, mensaje) VALUES (?, ?)";
+    private static final String INSERT_USUARIO = "INSERT INTO usuario (numero_celular) VALUES (?)";
+    private static final String INCREMENTAR_AGREGADO = "INSERT INTO consulta_agregado (year, month, week, id_tema, total) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE total = total + VALUES(total)";
+    private static final String INCREMENTAR_USUARIO_PERIODO = "INSERT INTO usuario_periodo (year, month, week, id_usuario, total) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE total = total + VALUES(total)";
+    private static final String INCREMENTAR_TERMINO = "INSERT INTO termino_periodo (year, month, week, id_tema, termino, total) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE total = total + VALUES(total)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IngestaRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertarConsultas(List<Consulta> consultas) {
+        List<Integer> ids = insertarConClaves(INSERT_CONSULTA, consultas.size(), (ps, i) -> {
+            Consulta consulta = consultas.get(i);
+            ps.setString(1, consulta.getMensaje());
+            setEntero(ps, 2, consulta.getDay());
+            setEntero(ps, 3, consulta.getMonth());
+            setEntero(ps, 4, consulta.getYear());
+            setEntero(ps, 5, consulta.getWeek());
+            ps.setTimestamp(6, consulta.getFecha() != null ? Timestamp.valueOf(consulta.getFecha()) : null);
+            setEntero(ps, 7, consulta.getTema() != null ? consulta.getTema().getId() : null);
+            setEntero(ps, 8, consulta.getSubtema() != null ? consulta.getSubtema().getId() : null);
+            setEntero(ps, 9, consulta.getUsuario() != null ? consulta.getUsuario().getId() : null);
+        });
+        for (int i = 0; i < consultas.size(); i++) {
+            consultas.get(i).setId(ids.get(i));
+        }
+    }
+
+    public void insertarRespuestas(List<Integer> consultaIds, List<String> mensajes) {
+        jdbcTemplate.batchUpdate(INSERT_RESPUESTA, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setInt(1, consultaIds.get(i));
+                ps.setString(2, mensajes.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return consultaIds.size();
+            }
+        });
+    }
+
+    public List<Integer> insertarUsuarios(List<String> numerosCelular) {
+        return insertarConClaves(INSERT_USUARIO, numerosCelular.size(),
+                (ps, i) -> ps.setString(1, numerosCelular.get(i)));
+    }
+
+    /*
+     * Cada fila es [year, month, week, temaId, cantidad]. Las filas deben llegar ordenadas por
+     * clave para que dos lotes concurrentes bloqueen las filas del rollup en el mismo orden.
+     */
+    public void incrementarAgregados(List<int[]> filas) {
+        incrementar(INCREMENTAR_AGREGADO, filas);
+    }
+
+    // Cada fila es [year, month, week, usuarioId, cantidad], ordenadas por clave.
+    public void incrementarUsuariosPeriodo(List<int[]> filas) {
+        incrementar(INCREMENTAR_USUARIO_PERIODO, filas);
+    }
+
+    // Cada fila es [year, month, week, temaId, termino, cantidad], ordenadas por clave.
+    public void incrementarTerminos(List<Object[]> filas) {
+        jdbcTemplate.batchUpdate(INCREMENTAR_TERMINO, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Object[] fila = filas.get(i);
+                ps.setInt(1, (Integer) fila[0]);
+                ps.setInt(2, (Integer) fila[1]);
+                ps.setInt(3, (Integer) fila[2]);
+                ps.setInt(4, (Integer) fila[3]);
+                ps.setString(5, (String) fila[4]);
+                ps.setInt(6, (Integer) fila[5]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return filas.size();
+            }
+        });
+    }
+
+    private void incrementar(String sql, List<int[]> filas) {
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                int[] fila = filas.get(i);
+                for (int columna = 0; columna < fila.length; columna++) {
+                    ps.setInt(columna + 1, fila[columna]);
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return filas.size();
+            }
+        });
+    }
+
+    private List<Integer> insertarConClaves(String sql, int filas, ParametrosFila parametros) {
+        KeyHolder claves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        parametros.asignar(ps, i);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return filas;
+                    }
+                }, claves);
+
+        List<Integer> ids = new ArrayList<>(filas);
+        for (Map<String, Object> clave : claves.getKeyList()) {
+            ids.add(((Number) clave.values().iterator().next()).intValue());
+        }
+        if (ids.size() != filas) {
+            throw new IllegalStateException("Expected " + filas + " generated keys but got " + ids.size());
+        }
+        return ids;
+    }
+
+    private static void setEntero(PreparedStatement ps, int indice, Integer valor) throws SQLException {
+        if (valor != null) {
+            ps.setInt(indice, valor);
+        } else {
+            ps.setNull(indice, Types.INTEGER);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ParametrosFila {
+        void asignar(PreparedStatement ps, int i) throws SQLException;
+    }
+}
@@ -0,0 +1,35 @@
+package com.chatBotStadistics.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the optional (year, month, week) filters shared by the statistics queries.
+ *
+ * Only the values that were actually supplied become predicates, so MySQL receives
+ * plain equality conditions it can match against the composite period indexes instead
+ * of the {@code (:param IS NULL OR column = :param)} pattern, which forces a full scan.
+ */
+final class PeriodoPredicates {
+
+    private PeriodoPredicates() {
+    }
+
+    static List<Predicate> of(CriteriaBuilder cb, Root<?> root, Integer year, Integer month, Integer week) {
+        List<Predicate> predicates = new ArrayList<>(3);
+        if (year != null) {
+            predicates.add(cb.equal(root.get("year"), year));
+        }
+        if (month != null) {
+            predicates.add(cb.equal(root.get("month"), month));
+        }
+        if (week != null) {
+            predicates.add(cb.equal(root.get("week"), week));
+        }
+        return predicates;
+    }
+}
@@ -2,6 +2,11 @@ package com.chatBotStadistics.repository;
 
 import com.chatBotStadistics.domain.Prompt;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * PromptRepository is a repository interface for managing Prompt entities.
@@ -10,10 +15,15 @@ import org.springframework.data.jpa.repository.JpaRepository;
  *
  * Key functionality includes:
  * - Default CRUD operations (save, find, delete, etc.) provided by JpaRepository.
+ * - findActualizado: Reads only the modification time of a prompt, without its content. The
+ *   list is empty when the prompt does not exist and holds a null when it was never modified.
  *
  * PromptRepository operates on the Prompt entity, with the primary key type as Integer.
  * It serves as a bridge between the application and the database, enabling seamless
  * interaction with the "prompts" table.
  */
 public interface PromptRepository extends JpaRepository<Prompt, Integer> {
+
+    @Query("SELECT p.actualizado FROM Prompt p WHERE p.id = :id")
+    List<LocalDateTime> findActualizado(@Param("id") Integer id);
 }
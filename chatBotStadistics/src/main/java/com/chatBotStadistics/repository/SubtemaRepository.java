@@ -0,0 +1,12 @@
+package com.chatBotStadistics.repository;
+
+import com.chatBotStadistics.domain.Subtema;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * SubtemaRepository is a repository interface for managing Subtema entities.
+ * It provides the default CRUD operations of JpaRepository and is used to
+ * resolve the subtema of incoming consultas.
+ */
+public interface SubtemaRepository extends JpaRepository<Subtema, Integer> {
+}
@@ -0,0 +1,12 @@
+package com.chatBotStadistics.repository;
+
+import com.chatBotStadistics.domain.Tema;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * TemaRepository is a repository interface for managing Tema entities.
+ * It provides the default CRUD operations of JpaRepository and is used to
+ * resolve the tema of incoming consultas.
+ */
+public interface TemaRepository extends JpaRepository<Tema, Integer> {
+}
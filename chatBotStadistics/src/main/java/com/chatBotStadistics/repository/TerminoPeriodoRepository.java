@@ -0,0 +1,27 @@
+package com.chatBotStadistics.repository;
+
+import com.chatBotStadistics.domain.TerminoPeriodo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * TerminoPeriodoRepository is a repository interface for managing TerminoPeriodo entities.
+ * It holds the (year, month, week, tema, term) rollup used for trend analysis.
+ *
+ * Methods:
+ * - vaciar: Removes every row before a rebuild.
+ * - findTerminos / countTerminos: Read the term counts of a period
+ *   (provided by {@link TerminoPeriodoRepositoryCustom}).
+ *
+ * Rows are added through {@link IngestaRepository#incrementarTerminos}, since the terms are
+ * extracted from the messages in Java and cannot be recomputed with a single statement.
+ */
+@Repository
+public interface TerminoPeriodoRepository extends JpaRepository<TerminoPeriodo, Integer>, TerminoPeriodoRepositoryCustom {
+
+    @Modifying
+    @Query(value = "DELETE FROM termino_periodo", nativeQuery = true)
+    int vaciar();
+}
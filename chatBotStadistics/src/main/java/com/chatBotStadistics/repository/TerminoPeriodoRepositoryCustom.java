@@ -0,0 +1,20 @@
+package com.chatBotStadistics.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queries over the termino_periodo rollup that are built with the Criteria API, emitting only
+ * the period and tema filters that were supplied.
+ *
+ * Methods:
+ * - findTerminos: Retrieves the most frequent terms of a period with at least the given count,
+ *   ordered by count, as [termino, total] rows.
+ * - countTerminos: Retrieves the counts of the given terms in a period, as [termino, total] rows.
+ */
+public interface TerminoPeriodoRepositoryCustom {
+
+    List<Object[]> findTerminos(Integer year, Integer month, Integer week, Integer temaId, long minimo, int limite);
+
+    List<Object[]> countTerminos(Integer year, Integer month, Integer week, Integer temaId, Collection<String> terminos);
+}
@@ -0,0 +1,68 @@
+package com.chatBotStadistics.repository;
+
+import com.chatBotStadistics.domain.TerminoPeriodo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Criteria based implementation of {@link TerminoPeriodoRepositoryCustom}.
+ *
+ * The supplied period and tema filters are matched against the leading columns of the
+ * (year, month, week, id_tema, termino) unique key, which doubles as its lookup index.
+ */
+public class TerminoPeriodoRepositoryCustomImpl implements TerminoPeriodoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> findTerminos(Integer year, Integer month, Integer week, Integer temaId, long minimo, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<TerminoPeriodo> termino = query.from(TerminoPeriodo.class);
+
+        Expression<Long> total = cb.sum(termino.<Long>get("total"));
+        query.multiselect(termino.get("termino"), total)
+                .where(filtros(cb, termino, year, month, week, temaId).toArray(Predicate[]::new))
+                .groupBy(termino.get("termino"))
+                .having(cb.ge(total, minimo))
+                .orderBy(cb.desc(total), cb.asc(termino.get("termino")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public List<Object[]> countTerminos(Integer year, Integer month, Integer week, Integer temaId, Collection<String> terminos) {
+        if (terminos.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<TerminoPeriodo> termino = query.from(TerminoPeriodo.class);
+
+        List<Predicate> predicates = filtros(cb, termino, year, month, week, temaId);
+        predicates.add(termino.get("termino").in(terminos));
+        query.multiselect(termino.get("termino"), cb.sum(termino.<Long>get("total")))
+                .where(predicates.toArray(Predicate[]::new))
+                .groupBy(termino.get("termino"));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private static List<Predicate> filtros(CriteriaBuilder cb, Root<TerminoPeriodo> termino,
+                                           Integer year, Integer month, Integer week, Integer temaId) {
+        List<Predicate> predicates = PeriodoPredicates.of(cb, termino, year, month, week);
+        if (temaId != null) {
+            predicates.add(cb.equal(termino.get("temaId"), temaId));
+        }
+        return predicates;
+    }
+}
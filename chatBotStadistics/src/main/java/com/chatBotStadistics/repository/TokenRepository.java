@@ -1,10 +1,13 @@
 package com.chatBotStadistics.repository;
 
-import com.chatBotStadistics.domain.AdminUser;
 import com.chatBotStadistics.domain.Token;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,12 +18,19 @@ import java.util.Optional;
  *
  * Key functionality includes:
  * - Fetching all valid tokens associated with a specific AdminUser.
- * - Finding a token entity by its unique token value.
+ * - Finding a token entity by the hash of its id.
+ * - Listing the revoked tokens that have not expired yet, to rebuild the revocation denylist.
+ * - Finding and deleting expired tokens in small batches, and counting rows by state.
  *
  * Methods:
  * - `findAllValidTokenByUser(Integer id)`: Retrieves a list of tokens associated with
  *   a specific AdminUser, filtered to include only tokens that are not expired or revoked.
- * - `findByToken(String token)`: Finds and returns an optional Token entity based on its unique value.
+ * - `findByJtiHash(String jtiHash)`: Finds and returns an optional Token entity based on the hash of its id.
+ * - `findRevocadosVigentes(Instant ahora)`: Returns [jtiHash, expiresAt] of the revoked tokens still unexpired.
+ * - `findIdsCaducados(Instant ahora, Limit limite)`: Returns up to `limite` ids of expired tokens, or of
+ *   tokens without expiration (issued before token ids existed).
+ * - `deleteByIds(List<Integer> ids)`: Deletes the given tokens in its own short transaction.
+ * - `contarPorEstado(Instant ahora)`: Returns one row [total, revoked, expired].
  *
  * The repository facilitates integration with Spring's persistence framework and
  * supports dependency injection for transactional operations.
@@ -33,7 +43,30 @@ public interface TokenRepository extends JpaRepository<Token, Integer> {
       """)
     List<Token> findAllValidTokenByUser(Integer id);
 
-    Optional<Token> findByToken(String token);
+    Optional<Token> findByJtiHash(String jtiHash);
 
-    List<Token> findByAdminUser(AdminUser adminUser);
+    @Query("""
+      select t.jtiHash, t.expiresAt from Token t
+      where t.isRevoked = true and t.jtiHash is not null and t.expiresAt > :ahora
+      """)
+    List<Object[]> findRevocadosVigentes(Instant ahora);
+
+    @Query("""
+      select t.id from Token t
+      where t.expiresAt is null or t.expiresAt < :ahora
+      """)
+    List<Integer> findIdsCaducados(Instant ahora, Limit limite);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Token t where t.id in :ids")
+    int deleteByIds(List<Integer> ids);
+
+    @Query("""
+      select count(t),
+             coalesce(sum(case when t.isRevoked = true then 1 else 0 end), 0),
+             coalesce(sum(case when t.expiresAt is null or t.expiresAt < :ahora then 1 else 0 end), 0)
+      from Token t
+      """)
+    List<Object[]> contarPorEstado(Instant ahora);
 }
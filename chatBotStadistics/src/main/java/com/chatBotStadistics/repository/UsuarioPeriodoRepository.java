@@ -0,0 +1,56 @@
+package com.chatBotStadistics.repository;
+
+import com.chatBotStadistics.domain.UsuarioPeriodo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+/**
+ * UsuarioPeriodoRepository is a repository interface for managing UsuarioPeriodo entities.
+ * It keeps one row per usuario and period so that distinct-user counts read a table that
+ * grows with active users instead of with consultas.
+ *
+ * Methods:
+ * - incrementar: Records one consulta of a usuario in a period, creating the row if needed.
+ * - vaciar: Removes every row before a rebuild.
+ * - streamActividad: Streams every (year, month, week, usuarioId) row with a MySQL server-side
+ *   cursor; it must be consumed inside a transaction.
+ * - streamActividadDesde: Streams the (id, year, month, week, usuarioId) rows with an id greater than
+ *   the given one, ordered by id, with a MySQL server-side cursor; it must be consumed inside a transaction.
+ * - countUsuarios: Counts the distinct usuarios active in the given period
+ *   (provided by {@link UsuarioPeriodoRepositoryCustom}).
+ */
+@Repository
+public interface UsuarioPeriodoRepository extends JpaRepository<UsuarioPeriodo, Integer>, UsuarioPeriodoRepositoryCustom {
+
+    @Modifying
+    @Query(value = "INSERT INTO usuario_periodo (year, month, week, id_usuario, total) " +
+            "VALUES (:year, :month, :week, :usuarioId, 1) " +
+            "ON DUPLICATE KEY UPDATE total = total + 1", nativeQuery = true)
+    int incrementar(@Param("year") int year,
+                    @Param("month") int month,
+                    @Param("week") int week,
+                    @Param("usuarioId") int usuarioId);
+
+    @Modifying
+    @Query(value = "DELETE FROM usuario_periodo", nativeQuery = true)
+    int vaciar();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT u.year, u.month, u.week, u.usuarioId FROM UsuarioPeriodo u")
+    Stream<Object[]> streamActividad();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.id, u.year, u.month, u.week, u.usuarioId FROM UsuarioPeriodo u WHERE u.id > :desdeId ORDER BY u.id")
+    Stream<Object[]> streamActividadDesde(@Param("desdeId") int desdeId);
+}
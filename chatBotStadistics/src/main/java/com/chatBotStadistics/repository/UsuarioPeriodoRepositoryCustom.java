@@ -0,0 +1,18 @@
+package com.chatBotStadistics.repository;
+
+/**
+ * Distinct-user queries over the usuario_periodo table that are built with the
+ * Criteria API, emitting only the period filters that were supplied.
+ *
+ * Methods:
+ * - countUsuarios: Counts the distinct usuarios active in the given period.
+ * - countUsuariosComparados: Counts, in one read of both periods, the distinct usuarios active in the
+ *   given period and in the period it is compared with, returned as {actual, anterior}.
+ */
+public interface UsuarioPeriodoRepositoryCustom {
+
+    Long countUsuarios(Integer year, Integer month, Integer week);
+
+    Object[] countUsuariosComparados(Integer year, Integer month, Integer week,
+                                     Integer yearAnterior, Integer monthAnterior, Integer weekAnterior);
+}
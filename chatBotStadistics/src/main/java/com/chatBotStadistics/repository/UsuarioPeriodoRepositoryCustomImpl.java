@@ -0,0 +1,54 @@
+package com.chatBotStadistics.repository;
+
+import com.chatBotStadistics.domain.UsuarioPeriodo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+
+/**
+ * Criteria based implementation of {@link UsuarioPeriodoRepositoryCustom}.
+ *
+ * The supplied period filters are matched against the (year, month, week, id_usuario)
+ * unique key of the table, which doubles as its lookup index.
+ */
+public class UsuarioPeriodoRepositoryCustomImpl implements UsuarioPeriodoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Long countUsuarios(Integer year, Integer month, Integer week) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<UsuarioPeriodo> usuarioPeriodo = query.from(UsuarioPeriodo.class);
+
+        List<Predicate> predicates = PeriodoPredicates.of(cb, usuarioPeriodo, year, month, week);
+        query.select(cb.countDistinct(usuarioPeriodo.get("usuarioId")))
+                .where(predicates.toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public Object[] countUsuariosComparados(Integer year, Integer month, Integer week,
+                                            Integer yearAnterior, Integer monthAnterior, Integer weekAnterior) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<UsuarioPeriodo> usuarioPeriodo = query.from(UsuarioPeriodo.class);
+
+        Predicate actual = cb.and(PeriodoPredicates.of(cb, usuarioPeriodo, year, month, week).toArray(Predicate[]::new));
+        Predicate anterior = cb.and(PeriodoPredicates.of(cb, usuarioPeriodo, yearAnterior, monthAnterior, weekAnterior)
+                .toArray(Predicate[]::new));
+        Expression<Integer> usuarioId = usuarioPeriodo.get("usuarioId");
+        query.multiselect(
+                        cb.countDistinct(cb.<Integer>selectCase().when(actual, usuarioId).otherwise(cb.nullLiteral(Integer.class))),
+                        cb.countDistinct(cb.<Integer>selectCase().when(anterior, usuarioId).otherwise(cb.nullLiteral(Integer.class))))
+                .where(cb.or(actual, anterior));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,23 @@
+package com.chatBotStadistics.repository;
+
+import com.chatBotStadistics.domain.Usuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * UsuarioRepository is a repository interface for managing Usuario entities.
+ * It provides the default CRUD operations of JpaRepository and is used to
+ * resolve the usuario of incoming consultas.
+ *
+ * Methods:
+ * - findByNumerosCelular: Retrieves the usuarios with any of the given phone numbers in one query.
+ */
+public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
+
+    @Query("SELECT u FROM Usuario u WHERE u.numero_celular IN :numeros")
+    List<Usuario> findByNumerosCelular(@Param("numeros") Collection<String> numeros);
+}
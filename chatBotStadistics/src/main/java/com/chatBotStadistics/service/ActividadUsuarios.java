@@ -0,0 +1,276 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.repository.UsuarioPeriodoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps one {@link MapaBits} of active usuario ids per week, for retention and cohort analysis.
+ *
+ * The bitmaps mirror the usuario_periodo rollup: a usuario is set in the bitmap of a
+ * (year, month, week) when it makes a consulta that week. Consultas without year, month or
+ * week are left out. They are persisted to {@code application.retencion.ruta} together with the
+ * highest usuario_periodo id read. On startup the snapshot is loaded and the newer rows are read
+ * in the background; from then on every consulta stored through the API is added after its
+ * transaction commits. The snapshot is rewritten every {@code guardar-cada-ms} when it
+ * changed, and on shutdown.
+ *
+ * Retention is computed with bitmap intersections between weeks, so its cost depends on the
+ * number of weeks and active usuarios, never on the number of consultas.
+ */
+@Component
+public class ActividadUsuarios {
+
+    private static final Logger log = LoggerFactory.getLogger(ActividadUsuarios.class);
+    private static final int FORMATO = 0x41435431;
+
+    private final UsuarioPeriodoRepository usuarioPeriodoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path ruta;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<Semana, MapaBits> semanas = new TreeMap<>();
+    private int ultimoId;
+    private volatile boolean cargado;
+    private volatile boolean modificado;
+
+    public ActividadUsuarios(UsuarioPeriodoRepository usuarioPeriodoRepository, TransactionTemplate transactionTemplate,
+                             @Value("${application.retencion.ruta:data/actividad-usuarios.bin}") String ruta) {
+        this.usuarioPeriodoRepository = usuarioPeriodoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ruta = Paths.get(ruta);
+    }
+
+    /**
+     * A week of a month, ordered chronologically.
+     */
+    public record Semana(int year, int month, int week) implements Comparable<Semana> {
+
+        @Override
+        public int compareTo(Semana otra) {
+            if (year != otra.year) {
+                return Integer.compare(year, otra.year);
+            }
+            if (month != otra.month) {
+                return Integer.compare(month, otra.month);
+            }
+            return Integer.compare(week, otra.week);
+        }
+    }
+
+    /**
+     * Retention matrix: for cohort i (the usuarios active in semanas[i]), usuarios[i] is its
+     * size and retenidos[i][k - 1] how many of them were also active in semanas[i + k].
+     */
+    public record Retencion(List<Semana> semanas, long[] usuarios, long[][] retenidos) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarEnSegundoPlano() {
+        Thread carga = new Thread(this::cargar, "actividad-usuarios-carga");
+        carga.setDaemon(true);
+        carga.start();
+    }
+
+    public void registrar(int year, int month, int week, int usuarioId) {
+        if (year <= 0 || month <= 0 || week <= 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (semanas.computeIfAbsent(new Semana(year, month, week), semana -> new MapaBits()).agregar(usuarioId)) {
+                modificado = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Cohortes de las semanas con actividad a partir de la indicada, hasta numeroSemanas. La
+     * semana siguiente de una cohorte es la siguiente semana con consultas registradas.
+     */
+    public Retencion retencion(int year, int month, int week, int numeroSemanas) {
+        cargar();
+        lock.readLock().lock();
+        try {
+            List<Semana> cohortes = new ArrayList<>(numeroSemanas);
+            List<MapaBits> mapas = new ArrayList<>(numeroSemanas);
+            for (Map.Entry<Semana, MapaBits> entrada : semanas.tailMap(new Semana(year, month, week), true).entrySet()) {
+                if (cohortes.size() == numeroSemanas) {
+                    break;
+                }
+                cohortes.add(entrada.getKey());
+                mapas.add(entrada.getValue());
+            }
+            long[] usuarios = new long[cohortes.size()];
+            long[][] retenidos = new long[cohortes.size()][];
+            for (int i = 0; i < cohortes.size(); i++) {
+                MapaBits cohorte = mapas.get(i);
+                usuarios[i] = cohorte.cardinalidad();
+                retenidos[i] = new long[cohortes.size() - i - 1];
+                for (int k = 1; i + k < cohortes.size(); k++) {
+                    retenidos[i][k - 1] = cohorte.cardinalidadComun(mapas.get(i + k));
+                }
+            }
+            return new Retencion(List.copyOf(cohortes), usuarios, retenidos);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void reconstruir() {
+        lock.writeLock().lock();
+        try {
+            semanas = new TreeMap<>();
+            ultimoId = 0;
+            ponerAlDia();
+            cargado = true;
+            modificado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        guardarSiHayCambios();
+    }
+
+    @Scheduled(fixedDelayString = "${application.retencion.guardar-cada-ms:60000}")
+    public void guardarSiHayCambios() {
+        if (!cargado || !modificado) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            modificado = false;
+            guardar();
+        } catch (IOException e) {
+            modificado = true;
+            log.warn("Could not save the usuario activity bitmaps to {}: {}", ruta, e.getMessage());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        guardarSiHayCambios();
+    }
+
+    private void cargar() {
+        if (cargado) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (cargado) {
+                return;
+            }
+            // Como en el índice de búsqueda, se descarta lo registrado antes de cargar: ponerAlDia lo vuelve a leer.
+            semanas = new TreeMap<>();
+            ultimoId = 0;
+            if (Files.exists(ruta)) {
+                try (InputStream archivo = Files.newInputStream(ruta);
+                     DataInputStream entrada = new DataInputStream(new BufferedInputStream(archivo, 64 * 1024))) {
+                    leer(entrada);
+                } catch (IOException e) {
+                    log.warn("Could not read the usuario activity bitmaps from {}, rebuilding them: {}", ruta, e.getMessage());
+                    semanas = new TreeMap<>();
+                    ultimoId = 0;
+                }
+            }
+            if (ponerAlDia() > 0) {
+                modificado = true;
+            }
+            cargado = true;
+            log.info("Usuario activity bitmaps loaded: {} weeks", semanas.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Lee las filas de usuario_periodo posteriores a la última leída. Una fila nueva aparece la
+     * primera vez que un usuario consulta en un periodo, que es justo cuando cambia el bitmap.
+     */
+    private int ponerAlDia() {
+        Integer leidas = transactionTemplate.execute(status -> {
+            int[] total = {0};
+            try (Stream<Object[]> filas = usuarioPeriodoRepository.streamActividadDesde(ultimoId)) {
+                filas.forEach(fila -> {
+                    ultimoId = Math.max(ultimoId, (Integer) fila[0]);
+                    int year = (Integer) fila[1];
+                    int month = (Integer) fila[2];
+                    int week = (Integer) fila[3];
+                    if (year > 0 && month > 0 && week > 0) {
+                        semanas.computeIfAbsent(new Semana(year, month, week), semana -> new MapaBits())
+                                .agregar((Integer) fila[4]);
+                        total[0]++;
+                    }
+                });
+            }
+            return total[0];
+        });
+        return leidas != null ? leidas : 0;
+    }
+
+    private void leer(DataInputStream entrada) throws IOException {
+        if (entrada.readInt() != FORMATO) {
+            throw new IOException("Unknown bitmap file format");
+        }
+        int id = entrada.readInt();
+        int total = entrada.readInt();
+        NavigableMap<Semana, MapaBits> leidas = new TreeMap<>();
+        for (int i = 0; i < total; i++) {
+            Semana semana = new Semana(entrada.readInt(), entrada.readInt(), entrada.readInt());
+            leidas.put(semana, MapaBits.leer(entrada));
+        }
+        semanas = leidas;
+        ultimoId = id;
+    }
+
+    private void guardar() throws IOException {
+        Path directorio = ruta.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (OutputStream archivo = Files.newOutputStream(temporal);
+             DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(archivo, 64 * 1024))) {
+            salida.writeInt(FORMATO);
+            salida.writeInt(ultimoId);
+            salida.writeInt(semanas.size());
+            for (Map.Entry<Semana, MapaBits> entrada : semanas.entrySet()) {
+                salida.writeInt(entrada.getKey().year());
+                salida.writeInt(entrada.getKey().month());
+                salida.writeInt(entrada.getKey().week());
+                entrada.getValue().escribir(salida);
+            }
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,25 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.domain.Consulta;
+
+import java.util.List;
+
+/**
+ * Service interface for maintaining the pre-aggregated statistics of consultas.
+ *
+ * Methods:
+ * - registrar: Adds a newly stored consulta to the rollups, including the terms of its message.
+ * - registrarLote: Adds a batch of newly stored consultas to the rollups with one upsert per
+ *   distinct period and tema (or period and usuario) instead of one per consulta.
+ * - reconstruir: Rebuilds every rollup from the consulta table (backfill of existing data).
+ * - ponerAlDia: Adds the consultas inserted directly into the database by other processes since
+ *   the last run and returns how many were added.
+ */
+public interface AgregadoService {
+
+    void registrar(Consulta consulta);
+    void registrarLote(List<Consulta> consultas);
+    void reconstruir();
+    int ponerAlDia();
+
+}
@@ -0,0 +1,348 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.domain.Consulta;
+import com.chatBotStadistics.domain.EstadoAgregados;
+import com.chatBotStadistics.repository.ConsultaAgregadoRepository;
+import com.chatBotStadistics.repository.ConsultaRepository;
+import com.chatBotStadistics.repository.EstadoAgregadosRepository;
+import com.chatBotStadistics.repository.IngestaRepository;
+import com.chatBotStadistics.repository.TerminoPeriodoRepository;
+import com.chatBotStadistics.repository.UsuarioPeriodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Implementation of the AgregadoService interface.
+ *
+ * Keeps the consulta_agregado, usuario_periodo and termino_periodo rollups in step with the
+ * consulta table. New consultas are added with single-row upserts and batches of consultas with
+ * one batched upsert per distinct rollup row. The terms and pairs of terms of each message
+ * ({@link Tokenizador#ngramas}) are counted once per consulta in termino_periodo.
+ *
+ * The rebuild empties the three rollups and counts every consulta up to the highest id at that
+ * moment again, which also picks up rows written to the consulta table by other processes. It
+ * reads the consultas in pages of {@value #LOTE_RECONSTRUCCION} by id and adds each page to the
+ * rollups in its own transaction, with the same batched upserts as a batch from the API, so no
+ * statement scans or locks the whole consulta table and new consultas keep being registered
+ * meanwhile. Until it finishes, statistics that are not cached only cover the pages counted.
+ *
+ * Consultas inserted straight into the database by other processes (the chatbot) have a NULL
+ * {@code agregada} flag. Every {@code application.estadisticas.agregados.poner-al-dia-ms} they are
+ * read by id above the mark kept in estado_agregados, in pages of
+ * {@code application.estadisticas.agregados.lote}, given a fecha from year, month and day when
+ * they have none, and added like a batch from the API; the mark then moves past them. A row that commits after a higher id has already been checked is only
+ * picked up by the rebuild.
+ *
+ * Committed consultas are also appended to the {@link MotorEstadisticas} and their usuarios to
+ * the {@link ActividadUsuarios} bitmaps; both are reloaded after a rebuild.
+ */
+@Service
+public class AgregadoServiceImpl implements AgregadoService {
+
+    private static final Comparator<List<Integer>> ORDEN_CLAVE = (a, b) -> {
+        for (int i = 0; i < a.size(); i++) {
+            int comparacion = Integer.compare(a.get(i), b.get(i));
+            if (comparacion != 0) {
+                return comparacion;
+            }
+        }
+        return 0;
+    };
+
+    private static final Logger log = LoggerFactory.getLogger(AgregadoServiceImpl.class);
+
+    static final int LOTE_RECONSTRUCCION = 5_000;
+
+    private final ConsultaAgregadoRepository consultaAgregadoRepository;
+    private final UsuarioPeriodoRepository usuarioPeriodoRepository;
+    private final EstadisticasCache estadisticasCache;
+    private final SketchUsuarios sketchUsuarios;
+    private final IngestaRepository ingestaRepository;
+    private final ConsultaRepository consultaRepository;
+    private final TerminoPeriodoRepository terminoPeriodoRepository;
+    private final MotorEstadisticas motorEstadisticas;
+    private final ActividadUsuarios actividadUsuarios;
+    private final EstadoAgregadosRepository estadoAgregadosRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int loteAlDia;
+
+    public AgregadoServiceImpl(ConsultaAgregadoRepository consultaAgregadoRepository, UsuarioPeriodoRepository usuarioPeriodoRepository, EstadisticasCache estadisticasCache, SketchUsuarios sketchUsuarios, IngestaRepository ingestaRepository, ConsultaRepository consultaRepository, TerminoPeriodoRepository terminoPeriodoRepository, MotorEstadisticas motorEstadisticas, ActividadUsuarios actividadUsuarios,
+                               EstadoAgregadosRepository estadoAgregadosRepository, TransactionTemplate transactionTemplate,
+                               @Value("${application.estadisticas.agregados.lote:1000}") int loteAlDia) {
+        this.consultaAgregadoRepository = consultaAgregadoRepository;
+        this.usuarioPeriodoRepository = usuarioPeriodoRepository;
+        this.estadisticasCache = estadisticasCache;
+        this.sketchUsuarios = sketchUsuarios;
+        this.ingestaRepository = ingestaRepository;
+        this.consultaRepository = consultaRepository;
+        this.terminoPeriodoRepository = terminoPeriodoRepository;
+        this.motorEstadisticas = motorEstadisticas;
+        this.actividadUsuarios = actividadUsuarios;
+        this.estadoAgregadosRepository = estadoAgregadosRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.loteAlDia = loteAlDia;
+    }
+
+    @Override
+    @Transactional
+    public void registrar(Consulta consulta) {
+        final int year = valorOCero(consulta.getYear());
+        final int month = valorOCero(consulta.getMonth());
+        final int week = valorOCero(consulta.getWeek());
+
+        final int temaId = consulta.getTema() != null ? valorOCero(consulta.getTema().getId()) : 0;
+        consultaAgregadoRepository.incrementar(year, month, week, temaId);
+        Map<ClaveTermino, Integer> terminos = new TreeMap<>();
+        contarTerminos(terminos, year, month, week, temaId, consulta.getMensaje());
+        if (!terminos.isEmpty()) {
+            ingestaRepository.incrementarTerminos(filasTerminos(terminos));
+        }
+        if (consulta.getUsuario() != null && consulta.getUsuario().getId() != null) {
+            final int usuarioId = consulta.getUsuario().getId();
+            usuarioPeriodoRepository.incrementar(year, month, week, usuarioId);
+            Transacciones.despuesDeConfirmar(() -> {
+                sketchUsuarios.registrar(year, month, week, usuarioId);
+                actividadUsuarios.registrar(year, month, week, usuarioId);
+            });
+        }
+        Transacciones.despuesDeConfirmar(() -> motorEstadisticas.agregar(consulta));
+        estadisticasCache.invalidarAlConfirmar(consulta.getYear(), consulta.getMonth(), consulta.getWeek());
+    }
+
+    /*
+     * Los conteos se agrupan en memoria por clave del rollup y se aplican en un solo lote de
+     * upserts ordenados por clave, así dos lotes concurrentes no se bloquean en orden inverso.
+     */
+    @Override
+    @Transactional
+    public void registrarLote(List<Consulta> consultas) {
+        Map<List<Integer>, Integer> porTema = new TreeMap<>(ORDEN_CLAVE);
+        Map<List<Integer>, Integer> porUsuario = new TreeMap<>(ORDEN_CLAVE);
+        Map<ClaveTermino, Integer> terminos = new TreeMap<>();
+        Set<List<Integer>> periodos = new HashSet<>();
+        for (Consulta consulta : consultas) {
+            int year = valorOCero(consulta.getYear());
+            int month = valorOCero(consulta.getMonth());
+            int week = valorOCero(consulta.getWeek());
+            int temaId = consulta.getTema() != null ? valorOCero(consulta.getTema().getId()) : 0;
+            porTema.merge(List.of(year, month, week, temaId), 1, Integer::sum);
+            contarTerminos(terminos, year, month, week, temaId, consulta.getMensaje());
+            if (consulta.getUsuario() != null && consulta.getUsuario().getId() != null) {
+                porUsuario.merge(List.of(year, month, week, consulta.getUsuario().getId()), 1, Integer::sum);
+            }
+            periodos.add(Arrays.asList(consulta.getYear(), consulta.getMonth(), consulta.getWeek()));
+        }
+
+        ingestaRepository.incrementarAgregados(filas(porTema));
+        if (!terminos.isEmpty()) {
+            ingestaRepository.incrementarTerminos(filasTerminos(terminos));
+        }
+        if (!porUsuario.isEmpty()) {
+            ingestaRepository.incrementarUsuariosPeriodo(filas(porUsuario));
+            Transacciones.despuesDeConfirmar(() -> porUsuario.keySet().forEach(clave -> {
+                sketchUsuarios.registrar(clave.get(0), clave.get(1), clave.get(2), clave.get(3));
+                actividadUsuarios.registrar(clave.get(0), clave.get(1), clave.get(2), clave.get(3));
+            }));
+        }
+        Transacciones.despuesDeConfirmar(() -> motorEstadisticas.agregarTodas(consultas));
+        periodos.forEach(periodo -> estadisticasCache.invalidarAlConfirmar(periodo.get(0), periodo.get(1), periodo.get(2)));
+    }
+
+    private static List<int[]> filas(Map<List<Integer>, Integer> conteos) {
+        List<int[]> filas = new ArrayList<>(conteos.size());
+        conteos.forEach((clave, cantidad) ->
+                filas.add(new int[]{clave.get(0), clave.get(1), clave.get(2), clave.get(3), cantidad}));
+        return filas;
+    }
+
+    private static void contarTerminos(Map<ClaveTermino, Integer> terminos, int year, int month, int week, int temaId, String mensaje) {
+        for (String termino : Tokenizador.ngramas(mensaje)) {
+            terminos.merge(new ClaveTermino(year, month, week, temaId, termino), 1, Integer::sum);
+        }
+    }
+
+    private static List<Object[]> filasTerminos(Map<ClaveTermino, Integer> conteos) {
+        List<Object[]> filas = new ArrayList<>(conteos.size());
+        conteos.forEach((clave, cantidad) ->
+                filas.add(new Object[]{clave.year(), clave.month(), clave.week(), clave.temaId(), clave.termino(), cantidad}));
+        return filas;
+    }
+
+    /*
+     * Cada página va en su propia transacción, con la marca bloqueada hasta confirmar; si una
+     * página falla, la siguiente ejecución la vuelve a leer desde la misma marca.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${application.estadisticas.agregados.poner-al-dia-ms:60000}",
+            fixedDelayString = "${application.estadisticas.agregados.poner-al-dia-ms:60000}")
+    public int ponerAlDia() {
+        int total = 0;
+        while (true) {
+            Integer agregadas = transactionTemplate.execute(status -> ponerAlDiaPagina());
+            if (agregadas == null || agregadas < 0) {
+                break;
+            }
+            total += agregadas;
+        }
+        if (total > 0) {
+            log.info("Added {} consultas written by other processes to the rollups", total);
+        }
+        return total;
+    }
+
+    // Devuelve cuántas consultas agregó, o -1 cuando la marca ya alcanzó el id más alto.
+    private int ponerAlDiaPagina() {
+        EstadoAgregados estado = estadoBloqueado();
+        Integer maxId = consultaRepository.findMaxId();
+        if (maxId == null || maxId <= estado.getUltimaConsultaId()) {
+            return -1;
+        }
+        List<Consulta> consultas = consultaRepository.findSinAgregar(estado.getUltimaConsultaId(), maxId, Limit.of(loteAlDia));
+        consultas.forEach(AgregadoServiceImpl::completarFecha);
+        if (!consultas.isEmpty()) {
+            registrarLote(consultas);
+        }
+        estado.setUltimaConsultaId(consultas.size() < loteAlDia ? maxId : consultas.get(consultas.size() - 1).getId());
+        estadoAgregadosRepository.save(estado);
+        return consultas.size();
+    }
+
+    /*
+     * Las filas insertadas sin fecha la toman de year, month y day, como en completarFechas, y la
+     * entidad gestionada la guarda al confirmar; si esos valores no forman una fecha válida se
+     * deja vacía.
+     */
+    private static void completarFecha(Consulta consulta) {
+        if (consulta.getFecha() != null || consulta.getYear() == null || consulta.getYear() < 1
+                || consulta.getMonth() == null || consulta.getDay() == null) {
+            return;
+        }
+        try {
+            consulta.setFecha(LocalDate.of(consulta.getYear(), consulta.getMonth(), consulta.getDay()).atStartOfDay());
+        } catch (DateTimeException e) {
+            // Fecha inválida (por ejemplo, 30 de febrero): queda sin fecha.
+        }
+    }
+
+    /*
+     * La primera vez se supone que los rollups ya cubren todas las consultas existentes, que es
+     * lo que deja la reconstrucción.
+     */
+    private EstadoAgregados estadoBloqueado() {
+        return estadoAgregadosRepository.bloquear(EstadoAgregados.ID).orElseGet(() -> {
+            Integer maxId = consultaRepository.findMaxId();
+            return estadoAgregadosRepository.saveAndFlush(new EstadoAgregados(EstadoAgregados.ID, valorOCero(maxId), null, null));
+        });
+    }
+
+    /*
+     * La primera transacción vacía los rollups y fija hasta qué id se cuenta; las consultas
+     * posteriores las suman registrar o ponerAlDia como siempre. El cursor se guarda en
+     * estado_agregados y cada página lo comprueba con la fila bloqueada: si otra reconstrucción
+     * empezó mientras tanto, esta se detiene en lugar de contar dos veces. Una consulta de la
+     * API que se confirma justo después de vaciar los rollups con un id menor que el tope (porque
+     * otra con id mayor se confirmó antes) se cuenta dos veces; es la misma ventana que deja
+     * ponerAlDia con las filas que se confirman tarde.
+     */
+    @Override
+    public void reconstruir() {
+        transactionTemplate.executeWithoutResult(status -> iniciarReconstruccion());
+        int desdeId = 0;
+        while (desdeId >= 0) {
+            final int desde = desdeId;
+            Integer siguiente = transactionTemplate.execute(status -> reconstruirPagina(desde));
+            desdeId = siguiente != null ? siguiente : -1;
+        }
+        estadisticasCache.invalidarTodo();
+        sketchUsuarios.reconstruir();
+        actividadUsuarios.reconstruir();
+        motorEstadisticas.recargar();
+    }
+
+    private void iniciarReconstruccion() {
+        EstadoAgregados estado = estadoBloqueado();
+        int hastaId = valorOCero(consultaRepository.findMaxId());
+        estado.setUltimaConsultaId(hastaId);
+        estado.setReconstruccionDesdeId(0);
+        estado.setReconstruccionHastaId(hastaId);
+        estadoAgregadosRepository.save(estado);
+        consultaAgregadoRepository.vaciar();
+        usuarioPeriodoRepository.vaciar();
+        terminoPeriodoRepository.vaciar();
+    }
+
+    // Devuelve el último id contado, o -1 cuando la reconstrucción terminó o la sustituyó otra.
+    private int reconstruirPagina(int desdeId) {
+        EstadoAgregados estado = estadoBloqueado();
+        if (estado.getReconstruccionDesdeId() == null || estado.getReconstruccionDesdeId() != desdeId) {
+            return -1;
+        }
+        int hastaId = estado.getReconstruccionHastaId();
+        List<Object[]> pagina = consultaRepository.findParaReconstruir(desdeId, hastaId, Limit.of(LOTE_RECONSTRUCCION));
+        Map<List<Integer>, Integer> porTema = new TreeMap<>(ORDEN_CLAVE);
+        Map<List<Integer>, Integer> porUsuario = new TreeMap<>(ORDEN_CLAVE);
+        Map<ClaveTermino, Integer> terminos = new TreeMap<>();
+        for (Object[] fila : pagina) {
+            int year = valorOCero((Integer) fila[1]);
+            int month = valorOCero((Integer) fila[2]);
+            int week = valorOCero((Integer) fila[3]);
+            int temaId = valorOCero((Integer) fila[4]);
+            porTema.merge(List.of(year, month, week, temaId), 1, Integer::sum);
+            if (fila[5] != null) {
+                porUsuario.merge(List.of(year, month, week, (Integer) fila[5]), 1, Integer::sum);
+            }
+            contarTerminos(terminos, year, month, week, temaId, (String) fila[6]);
+        }
+        if (!porTema.isEmpty()) {
+            ingestaRepository.incrementarAgregados(filas(porTema));
+        }
+        if (!porUsuario.isEmpty()) {
+            ingestaRepository.incrementarUsuariosPeriodo(filas(porUsuario));
+        }
+        if (!terminos.isEmpty()) {
+            ingestaRepository.incrementarTerminos(filasTerminos(terminos));
+        }
+
+        boolean ultima = pagina.size() < LOTE_RECONSTRUCCION;
+        int ultimoId = ultima ? hastaId : (Integer) pagina.get(pagina.size() - 1)[0];
+        estado.setReconstruccionDesdeId(ultima ? null : ultimoId);
+        estado.setReconstruccionHastaId(ultima ? null : hastaId);
+        estadoAgregadosRepository.save(estado);
+        return ultima ? -1 : ultimoId;
+    }
+
+    private static int valorOCero(Integer valor) {
+        return valor != null ? valor : 0;
+    }
+
+    private record ClaveTermino(int year, int month, int week, int temaId, String termino) implements Comparable<ClaveTermino> {
+
+        private static final Comparator<ClaveTermino> ORDEN = Comparator.comparingInt(ClaveTermino::year)
+                .thenComparingInt(ClaveTermino::month)
+                .thenComparingInt(ClaveTermino::week)
+                .thenComparingInt(ClaveTermino::temaId)
+                .thenComparing(ClaveTermino::termino);
+
+        @Override
+        public int compareTo(ClaveTermino otra) {
+            return ORDEN.compare(this, otra);
+        }
+    }
+}
@@ -7,9 +7,13 @@ import com.chatBotStadistics.dto.RegisterRequest;
 import com.chatBotStadistics.dto.TokenResponse;
 import com.chatBotStadistics.repository.TokenRepository;
 import com.chatBotStadistics.repository.AdminUserRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -36,14 +40,23 @@ import java.util.List;
  * - PasswordEncoder: Encodes user passwords before saving them in the database.
  * - JwtService: Provides utilities for generating and validating JSON Web Tokens (JWT).
  * - AuthenticationManager: Handles the authentication of user credentials during login.
+ * - CacheAutenticacion: Cached principals, dropped when a user's tokens are revoked.
+ * - ListaRevocados: In-memory denylist that revoked token ids are added to.
+ * - LimitadorLogin: Per-IP and per-(account, IP) throttling checked before the password is verified.
  *
  * Methods:
  * - register(): Registers a new admin user and generates JWT tokens for authentication.
- * - authenticate(): Authenticates a user with their credentials and issues authentication tokens.
- * - saveUserToken(): Saves or persists a token entity for a specific user in the database.
- * - revokeAllUserTokens(): Revokes all active tokens associated with a user, marking them as expired and invalid.
+ * - authenticate(): Authenticates a user with their credentials and issues authentication tokens,
+ *   unless the IP or the account is throttled.
+ * - saveUserToken(): Saves the hash of a token's id and its expiration for a specific user in the database.
+ * - revokeAllUserTokens(): Revokes all active tokens associated with a user, marking them as expired and invalid
+ *   and adding them to the denylist.
  * - refreshToken(): Refreshes the user's authentication tokens by validating the refresh token
- *   and issuing a new access token.
+ *   and issuing a new access token and a new refresh token. Only refresh tokens that have not
+ *   been revoked are accepted.
+ *
+ * Refresh tokens get a row like access tokens, so logging out, logging in again or refreshing
+ * revokes them too and a revoked refresh token cannot mint new tokens.
  *
  * This class is annotated with @Service, making it a Spring-managed service component
  * that can be injected into other components where authentication-related operations are required.
@@ -51,20 +64,28 @@ import java.util.List;
 @Service
 public class AuthServiceImpl implements AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthServiceImpl.class);
+
     private final AdminUserRepository repository;
     private final TokenRepository tokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final AdminUserService adminUserService;
+    private final CacheAutenticacion cacheAutenticacion;
+    private final ListaRevocados listaRevocados;
+    private final LimitadorLogin limitadorLogin;
 
-    public AuthServiceImpl(AdminUserRepository repository, TokenRepository tokenRepository, PasswordEncoder passwordEncoder, JwtService jwtService, AuthenticationManager authenticationManager, AdminUserService adminUserService) {
+    public AuthServiceImpl(AdminUserRepository repository, TokenRepository tokenRepository, PasswordEncoder passwordEncoder, JwtService jwtService, AuthenticationManager authenticationManager, AdminUserService adminUserService, CacheAutenticacion cacheAutenticacion, ListaRevocados listaRevocados, LimitadorLogin limitadorLogin) {
         this.repository = repository;
         this.tokenRepository = tokenRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
         this.adminUserService = adminUserService;
+        this.cacheAutenticacion = cacheAutenticacion;
+        this.listaRevocados = listaRevocados;
+        this.limitadorLogin = limitadorLogin;
     }
 
     @Override
@@ -80,12 +101,15 @@ public class AuthServiceImpl implements AuthService {
         final String refreshToken = jwtService.generateRefreshToken(savedAdminUser);
 
         saveUserToken(savedAdminUser, jwtToken);
+        saveUserToken(savedAdminUser, refreshToken);
         return new TokenResponse(jwtToken, refreshToken);
     }
 
     @Override
     public TokenResponse authenticate(final AuthRequest request) {
-        System.out.println("Attempting login with email: " + request.email() + ", password: " + request.password());
+        final String ip = LimitadorLogin.ipActual();
+        // Antes de calcular ningún hash: lanza LoginRechazadoException si la IP o la cuenta superan su límite.
+        limitadorLogin.comprobar(ip, request.email());
         try {
             authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -94,24 +118,33 @@ public class AuthServiceImpl implements AuthService {
                     )
             );
         } catch (AuthenticationException e) {
-            System.out.println("Authentication failed:");
-            e.printStackTrace();
+            limitadorLogin.registrarFallo(ip, request.email());
+            // Una contraseña incorrecta es lo normal en un ataque: se registra sin traza para no inundar el log.
+            if (e instanceof BadCredentialsException) {
+                log.info("Login failed for {} from {}: bad credentials", request.email(), ip);
+            } else {
+                log.warn("Login failed for {} from {}", request.email(), ip, e);
+            }
             throw e;
         }
+        limitadorLogin.registrarExito(ip, request.email());
         final AdminUser adminUser = adminUserService.findByEmail(request.email())
                 .orElseThrow();
         final String accessToken = jwtService.generateToken(adminUser);
         final String refreshToken = jwtService.generateRefreshToken(adminUser);
         revokeAllUserTokens(adminUser);
         saveUserToken(adminUser, accessToken);
+        saveUserToken(adminUser, refreshToken);
         return new TokenResponse(accessToken, refreshToken);
     }
 
     @Override
     public void saveUserToken(AdminUser adminUser, String jwtToken) {
+        final Claims claims = jwtService.parseClaims(jwtToken);
         final Token token = Token.builder()
                 .adminUser(adminUser)
-                .token(jwtToken)
+                .jtiHash(ListaRevocados.hash(claims.getId()))
+                .expiresAt(claims.getExpiration().toInstant())
                 .tokenType(Token.TokenType.BEARER)
                 .isExpired(false)
                 .isRevoked(false)
@@ -122,13 +155,20 @@ public class AuthServiceImpl implements AuthService {
     @Override
     @Transactional // Asegúrate de que este método o el que lo llama tenga @Transactional
     public void revokeAllUserTokens(final AdminUser adminUser) {
-        // Encuentra TODOS los tokens de ese usuario, activos o inactivos.
-        // Esto es más seguro para evitar duplicados si un token "viejo" que no era "valid" causó el problema.
-        final List<Token> allUserTokens = tokenRepository.findByAdminUser(adminUser); // Necesitarías este método en tu TokenRepository
-
-        if (!allUserTokens.isEmpty()) {
-            tokenRepository.deleteAll(allUserTokens); // <-- Elimina todos los tokens anteriores del usuario
+        // Los tokens se marcan como revocados en lugar de borrarse: la lista de revocados se
+        // reconstruye desde estas filas y un token sin fila revocada se considera válido.
+        final List<Token> validUserTokens = tokenRepository.findAllValidTokenByUser(adminUser.getId());
+        if (!validUserTokens.isEmpty()) {
+            validUserTokens.forEach(token -> {
+                token.setIsExpired(true);
+                token.setIsRevoked(true);
+            });
+            tokenRepository.saveAll(validUserTokens);
+            listaRevocados.revocarAlConfirmar(
+                    validUserTokens.stream().map(Token::getJtiHash).toList(),
+                    validUserTokens.stream().map(Token::getExpiresAt).toList());
         }
+        cacheAutenticacion.invalidarAdminAlConfirmar(adminUser.getEmail());
     }
     @Override
     public TokenResponse refreshToken(@NotNull final String authentication) {
@@ -137,21 +177,27 @@ public class AuthServiceImpl implements AuthService {
             throw new IllegalArgumentException("Invalid auth header");
         }
         final String refreshToken = authentication.substring(7);
-        final String userEmail = jwtService.extractUsername(refreshToken);
-        if (userEmail == null) {
+        final Claims claims = jwtService.parseClaims(refreshToken);
+        final String userEmail = claims.getSubject();
+        // Un token de acceso no sirve aunque no haya caducado, ni un refresh token revocado por
+        // logout, por un nuevo login o por un refresh anterior.
+        if (userEmail == null || !jwtService.isRefreshToken(claims) || claims.getId() == null
+                || listaRevocados.revocado(claims.getId())) {
             return null;
         }
 
         final AdminUser adminUser = this.adminUserService.findByEmail(userEmail).orElseThrow();
-        final boolean isTokenValid = jwtService.isTokenValid(refreshToken, adminUser);
+        final boolean isTokenValid = jwtService.isTokenValid(claims, adminUser);
         if (!isTokenValid) {
             return null;
         }
 
-        final String accessToken = jwtService.generateRefreshToken(adminUser);
+        final String accessToken = jwtService.generateToken(adminUser);
+        final String nuevoRefreshToken = jwtService.generateRefreshToken(adminUser);
         revokeAllUserTokens(adminUser);
         saveUserToken(adminUser, accessToken);
+        saveUserToken(adminUser, nuevoRefreshToken);
 
-        return new TokenResponse(accessToken, refreshToken);
+        return new TokenResponse(accessToken, nuevoRefreshToken);
     }
 }
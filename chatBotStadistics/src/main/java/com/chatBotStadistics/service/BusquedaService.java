@@ -0,0 +1,20 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.PaginaBusquedaDTO;
+
+import java.time.LocalDate;
+
+/**
+ * Service interface for the full-text search over consultas and their respuestas.
+ *
+ * Methods:
+ * - buscar: Returns one page of the consultas whose message or respuesta contains every term
+ *   of the text, optionally filtered by tema and by an inclusive range of dates.
+ * - reconstruirIndice: Rebuilds the search index from the consulta and respuesta tables.
+ */
+public interface BusquedaService {
+
+    PaginaBusquedaDTO buscar(String texto, Integer temaId, LocalDate desde, LocalDate hasta, int pagina, int tamano);
+
+    void reconstruirIndice();
+}
@@ -0,0 +1,69 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.PaginaBusquedaDTO;
+import com.chatBotStadistics.dto.ResultadoBusquedaDTO;
+import com.chatBotStadistics.repository.ConsultaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service implementation for the full-text search over consultas and their respuestas.
+ *
+ * The matching and the ordering are answered by the in-memory {@link IndiceBusqueda}, which
+ * returns only the consulta ids of the requested page. Those ids are then read from the
+ * database in a single query, so the cost of a search does not grow with the table.
+ */
+@Service
+public class BusquedaServiceImpl implements BusquedaService {
+
+    private final IndiceBusqueda indiceBusqueda;
+    private final ConsultaRepository consultaRepository;
+
+    public BusquedaServiceImpl(IndiceBusqueda indiceBusqueda, ConsultaRepository consultaRepository) {
+        this.indiceBusqueda = indiceBusqueda;
+        this.consultaRepository = consultaRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaBusquedaDTO buscar(String texto, Integer temaId, LocalDate desde, LocalDate hasta, int pagina, int tamano) {
+        int offset = (int) Math.min((long) pagina * tamano, Integer.MAX_VALUE);
+        IndiceTexto.Resultado resultado = indiceBusqueda.buscar(texto, temaId, desde, hasta, offset, tamano);
+        if (resultado.ids().length == 0) {
+            return new PaginaBusquedaDTO(List.of(), pagina, tamano, resultado.total());
+        }
+        List<Integer> ids = new ArrayList<>(resultado.ids().length);
+        for (int id : resultado.ids()) {
+            ids.add(id);
+        }
+
+        /* Una consulta con varias respuestas aparece en varias filas; se conserva la primera. */
+        Map<Integer, ResultadoBusquedaDTO> porId = new HashMap<>();
+        for (Object[] fila : consultaRepository.findResultadosBusqueda(ids)) {
+            porId.putIfAbsent((Integer) fila[0], new ResultadoBusquedaDTO((Integer) fila[0], (LocalDateTime) fila[1],
+                    (String) fila[2], (String) fila[3], (String) fila[4], (String) fila[5]));
+        }
+
+        /* Se respeta el orden del índice; las consultas borradas desde la indexación se omiten. */
+        List<ResultadoBusquedaDTO> resultados = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            ResultadoBusquedaDTO encontrado = porId.get(id);
+            if (encontrado != null) {
+                resultados.add(encontrado);
+            }
+        }
+        return new PaginaBusquedaDTO(resultados, pagina, tamano, resultado.total());
+    }
+
+    @Override
+    public void reconstruirIndice() {
+        indiceBusqueda.reconstruir();
+    }
+}
@@ -0,0 +1,99 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.domain.AdminUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived in-memory cache of the admin principal of each email, which JwtAuthenticationFilter
+ * would otherwise read from the database on every request. Whether the token itself was revoked
+ * is answered by {@link ListaRevocados}.
+ *
+ * Entries live for {@code application.security.auth-cache.ttl-ms} and at most
+ * {@code max-size} are kept, the least recently used being evicted first. Revoking the tokens
+ * of an admin (on login and refresh) drops its principal once the transaction commits. As in
+ * {@link EstadisticasCache}, a generation counter keeps a read that was running during an
+ * invalidation from caching its possibly stale result. The TTL bounds how long a change made
+ * outside these paths (or by another instance) can go unnoticed.
+ */
+@Component
+public class CacheAutenticacion {
+
+    private final long ttl;
+    private final int maxSize;
+    private final Map<String, Entrada<PrincipalAdmin>> principales;
+    private long generacion;
+
+    public CacheAutenticacion(@Value("${application.security.auth-cache.ttl-ms:30000}") long ttl,
+                              @Value("${application.security.auth-cache.max-size:1000}") int maxSize) {
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.principales = mapaAcotado();
+    }
+
+    /**
+     * An admin as the filter needs it: the entity to validate tokens against and the details
+     * to build the authentication with.
+     */
+    public record PrincipalAdmin(AdminUser adminUser, UserDetails userDetails) {
+    }
+
+    private record Entrada<T>(T valor, long expira) {
+    }
+
+    /*
+     * Un email sin admin no se guarda: el filtro no autentica y no hace falta recordarlo.
+     */
+    public Optional<PrincipalAdmin> principal(String email, Supplier<Optional<PrincipalAdmin>> cargar) {
+        long generacionInicial;
+        synchronized (this) {
+            Entrada<PrincipalAdmin> entrada = vigente(principales, email);
+            if (entrada != null) {
+                return Optional.of(entrada.valor());
+            }
+            generacionInicial = generacion;
+        }
+        Optional<PrincipalAdmin> principal = cargar.get();
+        principal.ifPresent(valor -> guardar(principales, email, valor, generacionInicial));
+        return principal;
+    }
+
+    public synchronized void invalidarAdmin(String email) {
+        generacion++;
+        principales.remove(email);
+    }
+
+    public void invalidarAdminAlConfirmar(String email) {
+        Transacciones.despuesDeConfirmar(() -> invalidarAdmin(email));
+    }
+
+    private <T> Entrada<T> vigente(Map<String, Entrada<T>> mapa, String clave) {
+        Entrada<T> entrada = mapa.get(clave);
+        if (entrada != null && entrada.expira() <= System.currentTimeMillis()) {
+            mapa.remove(clave);
+            return null;
+        }
+        return entrada;
+    }
+
+    private synchronized <T> void guardar(Map<String, Entrada<T>> mapa, String clave, T valor, long generacionInicial) {
+        if (generacion == generacionInicial) {
+            mapa.put(clave, new Entrada<>(valor, System.currentTimeMillis() + ttl));
+        }
+    }
+
+    private <T> Map<String, Entrada<T>> mapaAcotado() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada<T>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.ColaIngestaDTO;
+import com.chatBotStadistics.dto.IngestaConsultaDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory queue that decouples consulta ingestion from the database.
+ *
+ * Producers enqueue whole batches without touching MySQL; a single writer thread drains the
+ * queue in group commits through {@link IngestaService#ingerir}, flushing as soon as a group
+ * reaches {@code tamano-lote} consultas or {@code intervalo-ms} has passed since its first one.
+ *
+ * Backpressure: a batch that does not fit in the remaining capacity is rejected as a whole,
+ * so callers can retry later instead of blocking. On shutdown the queue stops accepting new
+ * batches and the writer flushes everything still pending before the context closes.
+ *
+ * If a group commit fails, its consultas are retried one by one so a single invalid consulta
+ * does not drop the rest; the ones that still fail are logged and counted as discarded.
+ */
+@Component
+public class ColaIngesta {
+
+    private static final Logger log = LoggerFactory.getLogger(ColaIngesta.class);
+    private static final long ESPERA_CIERRE_MS = 30_000;
+    private static final long ESPERA_VACIA_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final IngestaService ingestaService;
+    private final BlockingQueue<IngestaConsultaDTO> cola;
+    private final int capacidad;
+    private final int tamanoLote;
+    private final long intervaloNanos;
+    private final AtomicLong aceptadas = new AtomicLong();
+    private final AtomicLong rechazadas = new AtomicLong();
+    private final AtomicLong escritas = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private volatile boolean activa;
+    private Thread escritor;
+
+    public ColaIngesta(IngestaService ingestaService,
+                       @Value("${application.ingesta.cola.capacidad:10000}") int capacidad,
+                       @Value("${application.ingesta.cola.tamano-lote:500}") int tamanoLote,
+                       @Value("${application.ingesta.cola.intervalo-ms:200}") long intervaloMs) {
+        this.ingestaService = ingestaService;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.capacidad = capacidad;
+        this.tamanoLote = tamanoLote;
+        this.intervaloNanos = TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+    }
+
+    @PostConstruct
+    public synchronized void iniciar() {
+        activa = true;
+        escritor = new Thread(this::escribir, "ingesta-cola");
+        escritor.start();
+    }
+
+    /*
+     * El escritor es el único consumidor, así que mientras se tiene el monitor la capacidad
+     * libre solo puede crecer y el lote completo cabe o se rechaza entero.
+     */
+    public synchronized boolean encolar(List<IngestaConsultaDTO> consultas) {
+        if (!activa || cola.remainingCapacity() < consultas.size()) {
+            rechazadas.addAndGet(consultas.size());
+            return false;
+        }
+        cola.addAll(consultas);
+        aceptadas.addAndGet(consultas.size());
+        return true;
+    }
+
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        Thread hilo;
+        synchronized (this) {
+            activa = false;
+            hilo = escritor;
+        }
+        if (hilo != null) {
+            hilo.join(ESPERA_CIERRE_MS);
+            if (hilo.isAlive()) {
+                log.warn("Ingestion queue closed with {} consultas still pending", cola.size());
+            }
+        }
+    }
+
+    public ColaIngestaDTO estadisticas() {
+        return new ColaIngestaDTO(cola.size(), capacidad, aceptadas.get(), rechazadas.get(),
+                escritas.get(), descartadas.get(), lotes.get());
+    }
+
+    private void escribir() {
+        List<IngestaConsultaDTO> lote = new ArrayList<>(tamanoLote);
+        while (activa || !cola.isEmpty()) {
+            try {
+                // Espera corta con la cola vacía para notar pronto el cierre.
+                IngestaConsultaDTO primera = cola.poll(ESPERA_VACIA_NANOS, TimeUnit.NANOSECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                long limite = System.nanoTime() + intervaloNanos;
+                while (lote.size() < tamanoLote) {
+                    cola.drainTo(lote, tamanoLote - lote.size());
+                    long restante = limite - System.nanoTime();
+                    if (lote.size() >= tamanoLote || restante <= 0 || !activa) {
+                        break;
+                    }
+                    IngestaConsultaDTO siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                }
+            } catch (InterruptedException e) {
+                // Se sigue vaciando la cola sin esperar: el bucle termina cuando queda vacía.
+                activa = false;
+            }
+            if (!lote.isEmpty()) {
+                confirmar(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    private void confirmar(List<IngestaConsultaDTO> lote) {
+        try {
+            ingestaService.ingerir(new ArrayList<>(lote));
+            escritas.addAndGet(lote.size());
+            lotes.incrementAndGet();
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} consultas failed, retrying one by one: {}", lote.size(), e.getMessage());
+        }
+        for (IngestaConsultaDTO consulta : lote) {
+            try {
+                ingestaService.ingerir(List.of(consulta));
+                escritas.incrementAndGet();
+            } catch (RuntimeException e) {
+                descartadas.incrementAndGet();
+                log.error("Discarded queued consulta: {}", e.getMessage());
+            }
+        }
+        lotes.incrementAndGet();
+    }
+}
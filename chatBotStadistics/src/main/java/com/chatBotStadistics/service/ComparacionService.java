@@ -0,0 +1,15 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.ComparacionDTO;
+
+/**
+ * Service interface for the period-over-period comparison of the consulta statistics.
+ *
+ * Methods:
+ * - getComparacion: Returns the consultas per tema, the total consultas and the distinct usuarios
+ *   of the given period (a year, a month or a week) next to those of the previous period.
+ */
+public interface ComparacionService {
+
+    ComparacionDTO getComparacion(Integer year, Integer month, Integer week);
+}
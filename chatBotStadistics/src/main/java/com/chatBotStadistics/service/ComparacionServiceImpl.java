@@ -0,0 +1,97 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.ComparacionDTO;
+import com.chatBotStadistics.dto.ComparacionTemaDTO;
+import com.chatBotStadistics.dto.ValorComparadoDTO;
+import com.chatBotStadistics.repository.ConsultaAgregadoRepository;
+import com.chatBotStadistics.repository.UsuarioPeriodoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service implementation for the period-over-period comparison of the consulta statistics.
+ *
+ * Both periods are read from the rollups in two grouped queries, one over consulta_agregado
+ * for the counts per tema (whose sum, including the consultas without tema, is the total) and
+ * one over usuario_periodo for the distinct usuarios, instead of running every statistic once
+ * per period. The previous period is chosen as in the trends (see {@link PeriodoAnterior}).
+ */
+@Service
+public class ComparacionServiceImpl implements ComparacionService {
+
+    private final ConsultaAgregadoRepository consultaAgregadoRepository;
+    private final UsuarioPeriodoRepository usuarioPeriodoRepository;
+
+    public ComparacionServiceImpl(ConsultaAgregadoRepository consultaAgregadoRepository, UsuarioPeriodoRepository usuarioPeriodoRepository) {
+        this.consultaAgregadoRepository = consultaAgregadoRepository;
+        this.usuarioPeriodoRepository = usuarioPeriodoRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ComparacionDTO getComparacion(Integer year, Integer month, Integer week) {
+        PeriodoAnterior anterior = PeriodoAnterior.de(year, month, week, consultaAgregadoRepository);
+        List<Object[]> filas = consultaAgregadoRepository.countConsultasComparadas(year, month, week,
+                anterior.year(), anterior.month(), anterior.week());
+        Object[] usuarios = usuarioPeriodoRepository.countUsuariosComparados(year, month, week,
+                anterior.year(), anterior.month(), anterior.week());
+
+        long consultas = 0;
+        long consultasAnterior = 0;
+        long conTema = 0;
+        long conTemaAnterior = 0;
+        // Como en las estadísticas por tema, los temas con el mismo nombre se cuentan juntos.
+        Map<String, long[]> porTema = new HashMap<>();
+        for (Object[] fila : filas) {
+            long actual = numero(fila[2]);
+            long previo = numero(fila[3]);
+            consultas += actual;
+            consultasAnterior += previo;
+            String nombre = (String) fila[1];
+            if (nombre != null) {
+                conTema += actual;
+                conTemaAnterior += previo;
+                long[] conteos = porTema.computeIfAbsent(nombre, clave -> new long[2]);
+                conteos[0] += actual;
+                conteos[1] += previo;
+            }
+        }
+
+        List<ComparacionTemaDTO> temas = new ArrayList<>(porTema.size());
+        for (Map.Entry<String, long[]> entrada : porTema.entrySet()) {
+            long actual = entrada.getValue()[0];
+            long previo = entrada.getValue()[1];
+            temas.add(new ComparacionTemaDTO(entrada.getKey(), actual, previo, actual - previo, variacion(actual, previo),
+                    porcentaje(actual, conTema), porcentaje(previo, conTemaAnterior)));
+        }
+        temas.sort(Comparator.comparing(ComparacionTemaDTO::actual).reversed()
+                .thenComparing(Comparator.comparing(ComparacionTemaDTO::anterior).reversed())
+                .thenComparing(ComparacionTemaDTO::tema));
+
+        return new ComparacionDTO(year, month, week, anterior.year(), anterior.month(), anterior.week(),
+                comparar(consultas, consultasAnterior), comparar(numero(usuarios[0]), numero(usuarios[1])), temas);
+    }
+
+    private static ValorComparadoDTO comparar(long actual, long anterior) {
+        return new ValorComparadoDTO(actual, anterior, actual - anterior, variacion(actual, anterior));
+    }
+
+    private static Double variacion(long actual, long anterior) {
+        return anterior == 0 ? null : Math.round((actual - anterior) * 10_000.0 / anterior) / 100.0;
+    }
+
+    private static double porcentaje(long cantidad, long total) {
+        return total == 0 ? 0.0 : (double) cantidad / total * 100;
+    }
+
+    private static long numero(Object valor) {
+        return valor != null ? ((Number) valor).longValue() : 0;
+    }
+}
@@ -1,15 +1,28 @@
 package com.chatBotStadistics.service;
 
+import com.chatBotStadistics.domain.Consulta;
+import com.chatBotStadistics.dto.CacheEstadisticasDTO;
+import com.chatBotStadistics.dto.ConsultaRequestDTO;
+import com.chatBotStadistics.dto.IntervaloSerie;
+import com.chatBotStadistics.dto.PaginaEstadisticasDTO;
+import com.chatBotStadistics.dto.PuntoSerieDTO;
+import com.chatBotStadistics.dto.ResumenConsultasDTO;
+import com.chatBotStadistics.dto.SubtemaEstadisticaDTO;
+import com.chatBotStadistics.dto.TemaEstadisticaDTO;
+import com.chatBotStadistics.dto.UsuariosAproximadosDTO;
 import org.springframework.stereotype.Service;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Service interface for managing statistical data and counts related to "consultas."
  *
  * This interface defines methods for obtaining statistics and counts categorized
- * by themes, subthemes, and temporal aspects such as year, month, and week.
+ * by themes, subthemes, and temporal aspects such as year, month, and week,
+ * or by an inclusive range of dates.
  * It serves as the contract for implementing statistical functionality
  * in the application.
  */
@@ -18,6 +31,20 @@ public interface ConsultaService {
     //New Services
     Map<String, Double> getEstadisticasPorTema(@Param("year") Integer year, @Param("month") Integer month, @Param("week") Integer week);
     Map<String, Double> getEstadisticasPorSubtema(@Param("year") Integer year, @Param("month") Integer month, @Param("week") Integer week);
+    PaginaEstadisticasDTO<TemaEstadisticaDTO> getTopTemas(Integer year, Integer month, Integer week, int pagina, int tamano);
+    PaginaEstadisticasDTO<SubtemaEstadisticaDTO> getTopSubtemas(Integer year, Integer month, Integer week, int pagina, int tamano);
     Long getConsultas(@Param("year") Integer year, @Param("month") Integer month, @Param("week") Integer week);
     Long getUsuarios(@Param("year") Integer year, @Param("month") Integer month, @Param("week") Integer week);
+    Map<String, Double> getEstadisticasPorTema(LocalDate desde, LocalDate hasta);
+    Map<String, Double> getEstadisticasPorSubtema(LocalDate desde, LocalDate hasta);
+    Long getConsultas(LocalDate desde, LocalDate hasta);
+    Long getUsuarios(LocalDate desde, LocalDate hasta);
+    UsuariosAproximadosDTO getUsuariosAproximados(@Param("year") Integer year, @Param("month") Integer month, @Param("week") Integer week);
+    ResumenConsultasDTO getResumen(@Param("year") Integer year, @Param("month") Integer month, @Param("week") Integer week);
+    List<PuntoSerieDTO> getSerie(LocalDate desde, LocalDate hasta, IntervaloSerie intervalo, boolean porTema);
+    Consulta registrarConsulta(ConsultaRequestDTO consultaRequestDTO);
+    void reconstruirAgregados();
+    int completarSubtemas();
+    int completarFechas();
+    CacheEstadisticasDTO getEstadisticasCache();
 }
@@ -1,13 +1,49 @@
 package com.chatBotStadistics.service;
 
+import com.chatBotStadistics.domain.Consulta;
+import com.chatBotStadistics.domain.EstadoFechas;
+import com.chatBotStadistics.domain.Subtema;
+import com.chatBotStadistics.domain.Tema;
+import com.chatBotStadistics.dto.CacheEstadisticasDTO;
+import com.chatBotStadistics.dto.ConsultaRequestDTO;
+import com.chatBotStadistics.dto.IntervaloSerie;
+import com.chatBotStadistics.dto.PaginaEstadisticasDTO;
+import com.chatBotStadistics.dto.PuntoSerieDTO;
+import com.chatBotStadistics.dto.ResumenConsultasDTO;
+import com.chatBotStadistics.dto.SubtemaEstadisticaDTO;
+import com.chatBotStadistics.dto.TemaEstadisticaDTO;
+import com.chatBotStadistics.dto.UsuariosAproximadosDTO;
+import com.chatBotStadistics.repository.ConsultaAgregadoRepository;
 import com.chatBotStadistics.repository.ConsultaRepository;
+import com.chatBotStadistics.repository.EstadoFechasRepository;
+import com.chatBotStadistics.repository.SubtemaRepository;
+import com.chatBotStadistics.repository.TemaRepository;
+import com.chatBotStadistics.repository.UsuarioPeriodoRepository;
+import com.chatBotStadistics.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 /**
  * Service implementation for managing and retrieving statistics related to consultations.
@@ -29,9 +65,25 @@ import java.util.Map;
  * - countConsultas(): Returns the total number of consultations recorded in the system.
  * - countConsultas(Integer year, Integer month): Counts consultations filtered by year and month.
  * - countConsultasPorYearMonthWeek(Integer year, Integer month, Integer week): Counts unique user consultations filtered by year, month, and week.
+ * - registrarConsulta(ConsultaRequestDTO): Stores a new consulta and adds it to the rollups and the search index.
+ * - reconstruirAgregados(): Rebuilds the rollups from the consulta table.
+ * - getUsuariosAproximados(Integer year, Integer month, Integer week): Estimates distinct users by merging HyperLogLog sketches.
+ * - getSerie(LocalDate desde, LocalDate hasta, IntervaloSerie intervalo, boolean porTema): Returns a dense, zero-filled time series.
+ * - getResumen(Integer year, Integer month, Integer week): Returns the four statistics together from one snapshot.
+ * - completarSubtemas(): Backfills the subtema of historical consultas where it can be derived.
+ * - getEstadisticasPorTema/getEstadisticasPorSubtema/getConsultas/getUsuarios(LocalDate desde, LocalDate hasta):
+ *   The same statistics over an inclusive range of dates, read from the consulta table by fecha.
+ * - getTopTemas/getTopSubtemas(Integer year, Integer month, Integer week, int pagina, int tamano):
+ *   Returns one page of themes or subthemes ordered by count, with counts and percentages.
+ * - completarFechas(): Backfills fecha from day, month and year, in batches of consulta ids. It also
+ *   runs once in the background on startup, until a full pass is recorded in `EstadoFechas`.
  *
- * This implementation relies on the `ConsultaRepository` to perform database operations
- * and obtain raw data required for analysis.
+ * Theme, total and user statistics are answered from the pre-aggregated rollups
+ * (`ConsultaAgregadoRepository` and `UsuarioPeriodoRepository`), which are kept up to date
+ * through the `AgregadoService`. Subtheme statistics still rely on the `ConsultaRepository`.
+ * Every statistics result goes through the `EstadisticasCache`, keyed by method and period.
+ * When the in-memory `MotorEstadisticas` is enabled and loaded, every statistic is answered
+ * from it instead, without going through the cache or the database.
  *
  * Dependency Injection:
  * - The class uses the ConsultaRepository for repository operations, injected using the `@Autowired` annotation.
@@ -42,42 +94,452 @@ import java.util.Map;
 @Service
 public class ConsultaServiceImpl implements ConsultaService {
 
+    private static final Logger log = LoggerFactory.getLogger(ConsultaServiceImpl.class);
+
     private final ConsultaRepository consultaRepository;
+    private final ConsultaAgregadoRepository consultaAgregadoRepository;
+    private final UsuarioPeriodoRepository usuarioPeriodoRepository;
+    private final TemaRepository temaRepository;
+    private final SubtemaRepository subtemaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final AgregadoService agregadoService;
+    private final EstadisticasCache estadisticasCache;
+    private final SketchUsuarios sketchUsuarios;
+    private final IndiceBusqueda indiceBusqueda;
+    private final MotorEstadisticas motorEstadisticas;
+    private final EstadoFechasRepository estadoFechasRepository;
+    private final TaskExecutor taskExecutor;
+    private final int maximoIntervalosSerie;
+
+    private static final int LOTE_COMPLETAR_FECHAS = 10_000;
+    private static final int TOP_EN_CACHE = 100;
 
-    public ConsultaServiceImpl(ConsultaRepository consultaRepository) {
+    public ConsultaServiceImpl(ConsultaRepository consultaRepository, ConsultaAgregadoRepository consultaAgregadoRepository, UsuarioPeriodoRepository usuarioPeriodoRepository, TemaRepository temaRepository, SubtemaRepository subtemaRepository, UsuarioRepository usuarioRepository, AgregadoService agregadoService, EstadisticasCache estadisticasCache, SketchUsuarios sketchUsuarios, IndiceBusqueda indiceBusqueda, MotorEstadisticas motorEstadisticas,
+                               EstadoFechasRepository estadoFechasRepository, @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                               @Value("${application.estadisticas.serie.max-intervalos:1000}") int maximoIntervalosSerie) {
         this.consultaRepository = consultaRepository;
+        this.consultaAgregadoRepository = consultaAgregadoRepository;
+        this.usuarioPeriodoRepository = usuarioPeriodoRepository;
+        this.temaRepository = temaRepository;
+        this.subtemaRepository = subtemaRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.agregadoService = agregadoService;
+        this.estadisticasCache = estadisticasCache;
+        this.sketchUsuarios = sketchUsuarios;
+        this.indiceBusqueda = indiceBusqueda;
+        this.motorEstadisticas = motorEstadisticas;
+        this.estadoFechasRepository = estadoFechasRepository;
+        this.taskExecutor = taskExecutor;
+        this.maximoIntervalosSerie = maximoIntervalosSerie;
     }
 
     //New Services.
     @Override
     public Map<String, Double> getEstadisticasPorTema(Integer year, Integer month, Integer week) {
-        List<Object[]> resultados = consultaRepository.countConsultasByCategoria(year, month, week);
+        if (motorEstadisticas.activo()) {
+            return calcularPorcentajes(motorEstadisticas.contarPorTema(year, month, week));
+        }
+        return estadisticasCache.obtener("tema", year, month, week,
+                () -> calcularEstadisticasPorTema(year, month, week));
+    }
 
-        if (resultados.isEmpty()) {
-            return Collections.emptyMap();
+    private Map<String, Double> calcularEstadisticasPorTema(Integer year, Integer month, Integer week) {
+        return calcularPorcentajes(consultaAgregadoRepository.countConsultasByCategoria(year, month, week));
+    }
+
+    @Override
+    public Map<String, Double> getEstadisticasPorSubtema(Integer year, Integer month, Integer week) {
+        if (motorEstadisticas.activo()) {
+            return calcularPorcentajes(motorEstadisticas.contarPorSubtema(year, month, week));
         }
+        return estadisticasCache.obtener("subtema", year, month, week,
+                () -> calcularEstadisticasPorSubtema(year, month, week));
+    }
 
-        long totalConsultas = resultados.stream()
-                .mapToLong(row -> ((Number) row[1]).longValue())
-                .sum();
+    private Map<String, Double> calcularEstadisticasPorSubtema(Integer year, Integer month, Integer week) {
+        return calcularPorcentajes(consultaRepository.countConsultasBySubtema(year, month, week));
+    }
 
-        Map<String, Double> estadisticas = new HashMap<>();
+    /*
+     * La página y el total con el que se calculan los porcentajes se leen de la misma instantánea.
+     * Se pide un elemento más que el tamaño de página para saber si existe una página siguiente
+     * sin tener que contar los grupos.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public PaginaEstadisticasDTO<TemaEstadisticaDTO> getTopTemas(Integer year, Integer month, Integer week, int pagina, int tamano) {
+        if (motorEstadisticas.activo()) {
+            return paginar(motorEstadisticas.contarPorTema(year, month, week), pagina, tamano, TemaEstadisticaDTO::new);
+        }
+        return top("tema-top", year, month, week, pagina, tamano, (offset, limite) -> {
+            Long total = consultaAgregadoRepository.countConsultasConTema(year, month, week);
+            return new Ranking(consultaAgregadoRepository.findTopTemas(year, month, week, offset, limite),
+                    total != null ? total : 0L);
+        }, TemaEstadisticaDTO::new);
+    }
 
-        for (Object[] resultado : resultados) {
-            String nombreCategoria = (String) resultado[0];
-            Long count = ((Number) resultado[1]).longValue();
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public PaginaEstadisticasDTO<SubtemaEstadisticaDTO> getTopSubtemas(Integer year, Integer month, Integer week, int pagina, int tamano) {
+        if (motorEstadisticas.activo()) {
+            return paginar(motorEstadisticas.contarPorSubtema(year, month, week), pagina, tamano, SubtemaEstadisticaDTO::new);
+        }
+        return top("subtema-top", year, month, week, pagina, tamano, (offset, limite) -> {
+            Long total = consultaRepository.countConsultasConSubtema(year, month, week);
+            return new Ranking(consultaRepository.findTopSubtemas(year, month, week, offset, limite),
+                    total != null ? total : 0L);
+        }, SubtemaEstadisticaDTO::new);
+    }
 
-            double porcentaje = (double) count / totalConsultas * 100;
-            estadisticas.put(nombreCategoria, porcentaje);
+    /*
+     * Solo se guarda en la caché la cabeza del ranking, una entrada por periodo con los
+     * TOP_EN_CACHE primeros elementos, y las páginas que caben en ella se recortan de ahí. Las
+     * demás van siempre a la base de datos, así recorrer páginas no desplaza otras entradas.
+     */
+    private <T> PaginaEstadisticasDTO<T> top(String metodo, Integer year, Integer month, Integer week, int pagina, int tamano,
+                                             LectorRanking lector, ElementoEstadistica<T> elemento) {
+        long offset = (long) pagina * tamano;
+        Ranking ranking;
+        long desde;
+        if (offset + tamano <= TOP_EN_CACHE) {
+            ranking = estadisticasCache.obtener(metodo, year, month, week, () -> lector.leer(0, TOP_EN_CACHE + 1));
+            desde = offset;
+        } else {
+            ranking = lector.leer(Math.toIntExact(offset), tamano + 1);
+            desde = 0;
         }
+        List<T> elementos = ranking.filas().stream()
+                .skip(desde)
+                .limit(tamano)
+                .map(fila -> {
+                    long cantidad = ((Number) fila[1]).longValue();
+                    return elemento.de((String) fila[0], cantidad, porcentaje(cantidad, ranking.totalConsultas()));
+                })
+                .toList();
+        return new PaginaEstadisticasDTO<>(elementos, pagina, tamano, ranking.filas().size() > desde + tamano,
+                ranking.totalConsultas());
+    }
 
-        return estadisticas;
+    // Filas [nombre, cantidad] de una parte del ranking y el total de consultas del periodo.
+    private record Ranking(List<Object[]> filas, long totalConsultas) {
+    }
+
+    @FunctionalInterface
+    private interface LectorRanking {
+        Ranking leer(int offset, int limite);
+    }
+
+    /*
+     * Ordena y pagina en memoria las filas [nombre, cantidad] del motor con el mismo criterio
+     * que las consultas SQL: cantidad descendente y nombre como desempate.
+     */
+    private static <T> PaginaEstadisticasDTO<T> paginar(List<Object[]> filas, int pagina, int tamano, ElementoEstadistica<T> elemento) {
+        long totalConsultas = filas.stream().mapToLong(fila -> ((Number) fila[1]).longValue()).sum();
+        List<T> elementos = filas.stream()
+                .sorted(Comparator.<Object[]>comparingLong(fila -> ((Number) fila[1]).longValue()).reversed()
+                        .thenComparing(fila -> (String) fila[0]))
+                .skip((long) pagina * tamano)
+                .limit(tamano)
+                .map(fila -> {
+                    long cantidad = ((Number) fila[1]).longValue();
+                    return elemento.de((String) fila[0], cantidad, porcentaje(cantidad, totalConsultas));
+                })
+                .toList();
+        return new PaginaEstadisticasDTO<>(elementos, pagina, tamano, filas.size() > (long) (pagina + 1) * tamano, totalConsultas);
+    }
+
+    @FunctionalInterface
+    private interface ElementoEstadistica<T> {
+        T de(String nombre, Long cantidad, Double porcentaje);
+    }
+
+    private static double porcentaje(long cantidad, long total) {
+        return total == 0 ? 0.0 : (double) cantidad / total * 100;
     }
 
     @Override
-    public Map<String, Double> getEstadisticasPorSubtema(Integer year, Integer month, Integer week) {
-        List<Object[]> resultados = consultaRepository.countConsultasBySubtema(year, month, week);
+    public Long getConsultas(Integer year, Integer month, Integer week) {
+        if (motorEstadisticas.activo()) {
+            return motorEstadisticas.contar(year, month, week);
+        }
+        return estadisticasCache.obtener("consultas", year, month, week, () -> {
+            Long count = consultaAgregadoRepository.countConsultas(year, month, week);
+            return count != null ? count : 0L;
+        });
+    }
+
+    @Override
+    public Long getUsuarios(Integer year, Integer month, Integer week) {
+        if (motorEstadisticas.activo()) {
+            return motorEstadisticas.contarUsuarios(year, month, week);
+        }
+        return estadisticasCache.obtener("usuarios", year, month, week,
+                () -> calcularUsuarios(year, month, week));
+    }
+
+    private Long calcularUsuarios(Integer year, Integer month, Integer week) {
+        Long count = usuarioPeriodoRepository.countUsuarios(year, month, week);
+        return count != null ? count : 0L;
+    }
+
+    /*
+     * Los rangos de fechas son arbitrarios y no coinciden con los periodos del rollup ni de la
+     * caché, así que se resuelven sobre consulta con un rango semiabierto sobre fecha.
+     */
+    @Override
+    public Map<String, Double> getEstadisticasPorTema(LocalDate desde, LocalDate hasta) {
+        if (motorEstadisticas.activo()) {
+            return calcularPorcentajes(motorEstadisticas.contarPorTema(desde, hasta));
+        }
+        return calcularPorcentajes(consultaRepository.countConsultasByCategoria(inicioDe(desde), finDe(hasta)));
+    }
+
+    @Override
+    public Map<String, Double> getEstadisticasPorSubtema(LocalDate desde, LocalDate hasta) {
+        if (motorEstadisticas.activo()) {
+            return calcularPorcentajes(motorEstadisticas.contarPorSubtema(desde, hasta));
+        }
+        return calcularPorcentajes(consultaRepository.countConsultasBySubtema(inicioDe(desde), finDe(hasta)));
+    }
+
+    @Override
+    public Long getConsultas(LocalDate desde, LocalDate hasta) {
+        if (motorEstadisticas.activo()) {
+            return motorEstadisticas.contar(desde, hasta);
+        }
+        Long count = consultaRepository.countConsultas(inicioDe(desde), finDe(hasta));
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public Long getUsuarios(LocalDate desde, LocalDate hasta) {
+        if (motorEstadisticas.activo()) {
+            return motorEstadisticas.contarUsuarios(desde, hasta);
+        }
+        Long count = consultaRepository.countUsuarios(inicioDe(desde), finDe(hasta));
+        return count != null ? count : 0L;
+    }
+
+    private static LocalDateTime inicioDe(LocalDate desde) {
+        return desde.atStartOfDay();
+    }
+
+    private static LocalDateTime finDe(LocalDate hasta) {
+        return hasta.plusDays(1).atStartOfDay();
+    }
+
+    @Override
+    public UsuariosAproximadosDTO getUsuariosAproximados(Integer year, Integer month, Integer week) {
+        return sketchUsuarios.estimar(year, month, week);
+    }
+
+    /*
+     * Las cuatro estadísticas se leen en una sola transacción de solo lectura con REPEATABLE READ,
+     * así InnoDB usa la misma conexión y la misma instantánea para todas las consultas.
+     * El total y la distribución por tema salen de una única lectura del rollup agrupada por id_tema.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ResumenConsultasDTO getResumen(Integer year, Integer month, Integer week) {
+        if (motorEstadisticas.activo()) {
+            return new ResumenConsultasDTO(
+                    calcularPorcentajes(motorEstadisticas.contarPorTema(year, month, week)),
+                    calcularPorcentajes(motorEstadisticas.contarPorSubtema(year, month, week)),
+                    motorEstadisticas.contar(year, month, week),
+                    motorEstadisticas.contarUsuarios(year, month, week));
+        }
+        return estadisticasCache.obtener("resumen", year, month, week, () -> {
+            List<Object[]> porTemaId = consultaAgregadoRepository.countConsultasByTemaId(year, month, week);
+            Map<Integer, String> nombresTema = temaRepository.findAll().stream()
+                    .collect(Collectors.toMap(Tema::getId, Tema::getNombre));
 
+            long totalConsultas = 0;
+            List<Object[]> porTema = new ArrayList<>();
+            Map<String, Long> conteoPorNombre = new HashMap<>();
+            for (Object[] fila : porTemaId) {
+                long cantidad = ((Number) fila[1]).longValue();
+                totalConsultas += cantidad;
+                String nombre = nombresTema.get((Integer) fila[0]);
+                if (nombre != null) {
+                    conteoPorNombre.merge(nombre, cantidad, Long::sum);
+                }
+            }
+            conteoPorNombre.forEach((nombre, cantidad) -> porTema.add(new Object[]{nombre, cantidad}));
+
+            return new ResumenConsultasDTO(
+                    calcularPorcentajes(porTema),
+                    calcularEstadisticasPorSubtema(year, month, week),
+                    totalConsultas,
+                    calcularUsuarios(year, month, week));
+        });
+    }
+
+    /*
+     * Una sola consulta agrupada por día sobre el rango de fecha, que se acumula en el intervalo
+     * pedido. Después se recorren todos los intervalos del rango para que los que no tienen
+     * consultas aparezcan con cero, por eso el número de intervalos se limita antes de consultar.
+     */
+    @Override
+    public List<PuntoSerieDTO> getSerie(LocalDate desde, LocalDate hasta, IntervaloSerie intervalo, boolean porTema) {
+        if (hasta.isBefore(desde) || intervalo.contar(desde, hasta) > maximoIntervalosSerie) {
+            throw new IllegalArgumentException("The series may have at most " + maximoIntervalosSerie + " intervals");
+        }
+        List<Object[]> filas = motorEstadisticas.activo()
+                ? motorEstadisticas.contarPorDia(desde, hasta, porTema)
+                : consultaRepository.countConsultasPorDia(inicioDe(desde), finDe(hasta), porTema);
+
+        Map<LocalDate, Long> totales = new HashMap<>();
+        Map<LocalDate, Map<String, Long>> totalesPorTema = new HashMap<>();
+        TreeSet<String> temas = new TreeSet<>();
+        for (Object[] fila : filas) {
+            LocalDate inicio = intervalo.inicio((LocalDate) fila[0]);
+            long cantidad = ((Number) fila[fila.length - 1]).longValue();
+            totales.merge(inicio, cantidad, Long::sum);
+            if (porTema) {
+                String tema = fila[1] != null ? (String) fila[1] : "Sin tema";
+                temas.add(tema);
+                totalesPorTema.computeIfAbsent(inicio, clave -> new HashMap<>()).merge(tema, cantidad, Long::sum);
+            }
+        }
+
+        List<PuntoSerieDTO> serie = new ArrayList<>();
+        for (LocalDate inicio = intervalo.inicio(desde); !inicio.isAfter(hasta); inicio = intervalo.siguiente(inicio)) {
+            Map<String, Long> porTemaPunto = null;
+            if (porTema) {
+                porTemaPunto = new TreeMap<>();
+                Map<String, Long> conteos = totalesPorTema.getOrDefault(inicio, Collections.emptyMap());
+                for (String tema : temas) {
+                    porTemaPunto.put(tema, conteos.getOrDefault(tema, 0L));
+                }
+            }
+            serie.add(new PuntoSerieDTO(inicio, totales.getOrDefault(inicio, 0L), porTemaPunto));
+        }
+        return serie;
+    }
+
+    @Override
+    @Transactional
+    public Consulta registrarConsulta(ConsultaRequestDTO consultaRequestDTO) {
+        Consulta consulta = new Consulta();
+        consulta.setMensaje(consultaRequestDTO.mensaje());
+        consulta.setDay(consultaRequestDTO.day());
+        consulta.setMonth(consultaRequestDTO.month());
+        consulta.setYear(consultaRequestDTO.year());
+        consulta.setWeek(consultaRequestDTO.week());
+        consulta.setFecha(fechaDe(consultaRequestDTO.year(), consultaRequestDTO.month(), consultaRequestDTO.day()));
+        if (consultaRequestDTO.temaId() != null) {
+            consulta.setTema(temaRepository.findById(consultaRequestDTO.temaId())
+                    .orElseThrow(() -> new IllegalArgumentException("Tema not found")));
+        }
+        if (consultaRequestDTO.subtemaId() != null) {
+            Subtema subtema = subtemaRepository.findById(consultaRequestDTO.subtemaId())
+                    .orElseThrow(() -> new IllegalArgumentException("Subtema not found"));
+            if (consulta.getTema() == null) {
+                consulta.setTema(subtema.getTema());
+            } else if (subtema.getTema() != null && !subtema.getTema().getId().equals(consulta.getTema().getId())) {
+                throw new IllegalArgumentException("Subtema does not belong to tema");
+            }
+            consulta.setSubtema(subtema);
+        }
+        if (consultaRequestDTO.usuarioId() != null) {
+            consulta.setUsuario(usuarioRepository.findById(consultaRequestDTO.usuarioId())
+                    .orElseThrow(() -> new IllegalArgumentException("Usuario not found")));
+        }
+
+        consulta.setAgregada(true);
+        Consulta savedConsulta = consultaRepository.save(consulta);
+        agregadoService.registrar(savedConsulta);
+        Integer temaId = savedConsulta.getTema() != null ? savedConsulta.getTema().getId() : null;
+        Transacciones.despuesDeConfirmar(() -> indiceBusqueda.registrar(savedConsulta.getId(), temaId,
+                savedConsulta.getFecha(), savedConsulta.getMensaje()));
+        return savedConsulta;
+    }
+
+    /*
+     * Las consultas del día actual se registran en el momento en que ocurren y conservan la hora;
+     * las de otros días solo conocen la fecha.
+     */
+    static LocalDateTime fechaDe(Integer year, Integer month, Integer day) {
+        LocalDate fecha;
+        try {
+            fecha = LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date");
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        return fecha.equals(ahora.toLocalDate()) ? ahora : fecha.atStartOfDay();
+    }
+
+    @Override
+    public void reconstruirAgregados() {
+        agregadoService.reconstruir();
+    }
+
+    @Override
+    @Transactional
+    public int completarSubtemas() {
+        int actualizadas = consultaRepository.completarSubtemaUnico();
+        estadisticasCache.invalidarTodoAlConfirmar();
+        Transacciones.despuesDeConfirmar(motorEstadisticas::recargar);
+        return actualizadas;
+    }
+
+    /*
+     * Cada lote de ids se actualiza en su propia transacción para no bloquear la tabla completa.
+     * La fecha no interviene en las estadísticas por periodo, así que la caché sigue siendo válida;
+     * el motor en memoria sí guarda el día de cada consulta y se vuelve a cargar, y la versión de
+     * las estadísticas por rango de fechas avanza. Al terminar una pasada completa se marca en
+     * estado_fechas para que el arranque no vuelva a recorrer la tabla.
+     */
+    @Override
+    public int completarFechas() {
+        Integer maxId = consultaRepository.findMaxId();
+        if (maxId == null) {
+            return 0;
+        }
+        int actualizadas = 0;
+        for (int desdeId = 1; desdeId <= maxId; desdeId += LOTE_COMPLETAR_FECHAS) {
+            actualizadas += consultaRepository.completarFechas(desdeId, desdeId + LOTE_COMPLETAR_FECHAS - 1);
+        }
+        if (actualizadas > 0) {
+            motorEstadisticas.recargar();
+            estadisticasCache.invalidarRangos();
+        }
+        estadoFechasRepository.save(new EstadoFechas(EstadoFechas.ID, true));
+        return actualizadas;
+    }
+
+    /*
+     * Al arrancar se corrigen en segundo plano, una sola vez, las fechas que faltan o que no
+     * coinciden con year, month y day, como las que la columna tomó con la hora de la migración
+     * cuando tenía DEFAULT CURRENT_TIMESTAMP. Después de la primera pasada completa no se vuelve
+     * a recorrer la tabla: las consultas nuevas llegan con fecha o la reciben al añadirse a los
+     * agregados. Si dos instancias arrancan a la vez antes de la marca, ambas hacen la pasada,
+     * pero las actualizaciones son idempotentes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void completarFechasEnSegundoPlano() {
+        if (estadoFechasRepository.findById(EstadoFechas.ID).map(EstadoFechas::getCompletadas).orElse(false)) {
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                int actualizadas = completarFechas();
+                if (actualizadas > 0) {
+                    log.info("Backfilled fecha on {} consultas from year, month and day", actualizadas);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not backfill fecha on startup: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public CacheEstadisticasDTO getEstadisticasCache() {
+        return estadisticasCache.estadisticas();
+    }
+
+    private static Map<String, Double> calcularPorcentajes(List<Object[]> resultados) {
         if (resultados.isEmpty()) {
             return Collections.emptyMap();
         }
@@ -92,23 +554,11 @@ public class ConsultaServiceImpl implements ConsultaService {
 
         Map<String, Double> estadisticas = new HashMap<>();
         for (Object[] resultado : resultados) {
-            String nombreSubtema = (String) resultado[0]; // [0] es el nombre
+            String nombre = (String) resultado[0]; // [0] es el nombre
             long cantidad = ((Number) resultado[1]).longValue(); // [1] es el count
             double porcentaje = (double) cantidad / totalConsultas * 100;
-            estadisticas.put(nombreSubtema, porcentaje);
+            estadisticas.put(nombre, porcentaje);
         }
         return estadisticas;
     }
-
-    @Override
-    public Long getConsultas(Integer year, Integer month, Integer week) {
-        Long count = consultaRepository.countConsultas(year, month, week);
-        return count != null ? count : 0L;
-    }
-
-    @Override
-    public Long getUsuarios(Integer year, Integer month, Integer week) {
-        Long count = consultaRepository.countUsuarios(year, month, week);
-        return count != null ? count : 0L;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.PaginaConversacionesDTO;
+
+/**
+ * Service interface for browsing the conversation history.
+ *
+ * Methods:
+ * - getConversaciones: Returns one page of consultas with their respuesta, newest first,
+ *   optionally for one usuario and/or tema, continuing below the given cursor.
+ */
+public interface ConversacionService {
+
+    PaginaConversacionesDTO getConversaciones(Integer usuarioId, Integer temaId, Integer antesDe, int tamano);
+}
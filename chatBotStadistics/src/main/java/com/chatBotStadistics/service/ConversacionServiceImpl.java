@@ -0,0 +1,44 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.ConversacionDTO;
+import com.chatBotStadistics.dto.PaginaConversacionesDTO;
+import com.chatBotStadistics.repository.ConsultaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service implementation for browsing the conversation history.
+ *
+ * Each page is read with a single projection query ({@link ConsultaRepository#findConversaciones}),
+ * so neither the eager relations of Consulta nor the respuesta are loaded one by one. Pages are
+ * addressed by the id of the last consulta returned instead of by offset, which keeps the cost
+ * of a page the same however deep into the history it is. One extra row is read to know
+ * whether a following page exists.
+ */
+@Service
+public class ConversacionServiceImpl implements ConversacionService {
+
+    private final ConsultaRepository consultaRepository;
+
+    public ConversacionServiceImpl(ConsultaRepository consultaRepository) {
+        this.consultaRepository = consultaRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaConversacionesDTO getConversaciones(Integer usuarioId, Integer temaId, Integer antesDe, int tamano) {
+        List<Object[]> filas = consultaRepository.findConversaciones(usuarioId, temaId, antesDe, tamano + 1);
+        boolean haySiguiente = filas.size() > tamano;
+        List<ConversacionDTO> conversaciones = new ArrayList<>(Math.min(filas.size(), tamano));
+        for (Object[] fila : haySiguiente ? filas.subList(0, tamano) : filas) {
+            conversaciones.add(new ConversacionDTO((Integer) fila[0], (LocalDateTime) fila[1], (Integer) fila[2],
+                    (String) fila[3], (String) fila[4], (Integer) fila[5], (String) fila[6], (Integer) fila[7], (String) fila[8]));
+        }
+        Integer siguiente = haySiguiente ? conversaciones.get(conversaciones.size() - 1).consultaId() : null;
+        return new PaginaConversacionesDTO(conversaciones, tamano, siguiente);
+    }
+}
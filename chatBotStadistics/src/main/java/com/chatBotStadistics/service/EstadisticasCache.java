@@ -0,0 +1,204 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.CacheEstadisticasDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache for the results of the statistics queries.
+ *
+ * Entries are keyed by (method, year, month, week) and evicted in least-recently-used
+ * order once the configured maximum size is reached. Results for closed periods (a past
+ * year, or a past month of the current year) never change and are kept until evicted or
+ * invalidated; results that include the current period expire after a short TTL.
+ *
+ * Writes call {@link #invalidarAlConfirmar(Integer, Integer, Integer)} with the period of the
+ * stored consulta, which drops every entry whose filters match it once the transaction commits.
+ * A generation counter keeps a query that was running during an invalidation from caching its
+ * possibly stale result.
+ *
+ * The same invalidations advance the data versions used for conditional GETs. A change to a
+ * (year, month, week) advances the version of every filter that matches it, so
+ * {@link #version(Integer, Integer, Integer)} is one map lookup. Changes without a complete
+ * period, and {@link #invalidarTodo()}, advance every version. Like the cached results, the
+ * versions of periods that are still open also advance every {@code open-period-ttl}.
+ */
+@Component
+public class EstadisticasCache {
+
+    private final int maxSize;
+    private final long ttlPeriodoAbierto;
+    private final Map<Clave, Entrada> entradas;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidaciones = new AtomicLong();
+    private long generacion;
+    private final long inicio = System.currentTimeMillis();
+    private final Map<Clave, long[]> versiones = new HashMap<>();
+    private long versionTotal;
+    private long cambioTotal = inicio;
+
+    public EstadisticasCache(@Value("${application.estadisticas.cache.max-size:500}") int maxSize,
+                             @Value("${application.estadisticas.cache.open-period-ttl:30000}") long ttlPeriodoAbierto) {
+        this.maxSize = maxSize;
+        this.ttlPeriodoAbierto = ttlPeriodoAbierto;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Clave, Entrada> eldest) {
+                return size() > EstadisticasCache.this.maxSize;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T obtener(String metodo, Integer year, Integer month, Integer week, Supplier<T> cargar) {
+        final Clave clave = new Clave(metodo, year, month, week);
+        final long generacionInicial;
+        synchronized (this) {
+            Entrada entrada = entradas.get(clave);
+            if (entrada != null && !entrada.expirada(System.currentTimeMillis())) {
+                hits.incrementAndGet();
+                return (T) entrada.valor();
+            }
+            generacionInicial = generacion;
+        }
+        misses.incrementAndGet();
+
+        T valor = cargar.get();
+        long expiraEn = esPeriodoCerrado(year, month, LocalDate.now())
+                ? Long.MAX_VALUE
+                : System.currentTimeMillis() + ttlPeriodoAbierto;
+        synchronized (this) {
+            if (generacion == generacionInicial) {
+                entradas.put(clave, new Entrada(valor, expiraEn));
+            }
+        }
+        return valor;
+    }
+
+    public synchronized void invalidar(Integer year, Integer month, Integer week) {
+        generacion++;
+        avanzarVersiones(year, month, week);
+        Iterator<Clave> iterator = entradas.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().incluye(year, month, week)) {
+                iterator.remove();
+                invalidaciones.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized void invalidarTodo() {
+        generacion++;
+        versionTotal++;
+        cambioTotal = System.currentTimeMillis();
+        invalidaciones.addAndGet(entradas.size());
+        entradas.clear();
+    }
+
+    public void invalidarAlConfirmar(Integer year, Integer month, Integer week) {
+        Transacciones.despuesDeConfirmar(() -> invalidar(year, month, week));
+    }
+
+    public void invalidarTodoAlConfirmar() {
+        Transacciones.despuesDeConfirmar(this::invalidarTodo);
+    }
+
+    /*
+     * Las estadísticas por rango de fechas no se guardan en la caché, pero su versión (la de las
+     * consultas sin filtro de periodo) tiene que avanzar cuando cambia la columna fecha.
+     */
+    public synchronized void invalidarRangos() {
+        avanzar(new Clave(null, null, null, null), System.currentTimeMillis());
+    }
+
+    /**
+     * The version of the statistics filtered by the given period (null for no filter), as an
+     * entity tag and the time of the last change it reflects.
+     */
+    public record Version(String etag, long modificado) {
+    }
+
+    public synchronized Version version(Integer year, Integer month, Integer week) {
+        long[] version = versiones.get(new Clave(null, year, month, week));
+        long contador = version != null ? version[0] : 0;
+        long modificado = Math.max(cambioTotal, version != null ? version[1] : inicio);
+        StringBuilder etag = new StringBuilder("W/\"")
+                .append(Long.toString(inicio, 36)).append('-').append(versionTotal).append('-').append(contador);
+        if (!esPeriodoCerrado(year, month, LocalDate.now())) {
+            long ahora = System.currentTimeMillis();
+            etag.append('-').append(ahora / ttlPeriodoAbierto);
+            modificado = Math.max(modificado, ahora - ahora % ttlPeriodoAbierto);
+        }
+        return new Version(etag.append('"').toString(), modificado);
+    }
+
+    /*
+     * Un cambio en (year, month, week) afecta a los ocho filtros que se obtienen quitando o no
+     * cada uno de los tres valores. Sin periodo completo no se sabe a cuáles, así que avanzan todos.
+     */
+    private void avanzarVersiones(Integer year, Integer month, Integer week) {
+        long ahora = System.currentTimeMillis();
+        if (year == null || month == null || week == null) {
+            versionTotal++;
+            cambioTotal = ahora;
+            return;
+        }
+        for (int mascara = 0; mascara < 8; mascara++) {
+            avanzar(new Clave(null,
+                    (mascara & 1) != 0 ? year : null,
+                    (mascara & 2) != 0 ? month : null,
+                    (mascara & 4) != 0 ? week : null), ahora);
+        }
+    }
+
+    private void avanzar(Clave clave, long ahora) {
+        long[] version = versiones.computeIfAbsent(clave, c -> new long[2]);
+        version[0]++;
+        version[1] = ahora;
+    }
+
+    public synchronized CacheEstadisticasDTO estadisticas() {
+        return new CacheEstadisticasDTO(hits.get(), misses.get(), invalidaciones.get(), entradas.size(), maxSize);
+    }
+
+    /*
+     * Un periodo está cerrado si termina antes de hoy: un año anterior, o un mes anterior del año actual.
+     * Sin año (o con el mes actual) el resultado todavía puede cambiar.
+     */
+    static boolean esPeriodoCerrado(Integer year, Integer month, LocalDate hoy) {
+        if (year == null) {
+            return false;
+        }
+        if (year != hoy.getYear()) {
+            return year < hoy.getYear();
+        }
+        return month != null && month < hoy.getMonthValue();
+    }
+
+    private record Clave(String metodo, Integer year, Integer month, Integer week) {
+
+        boolean incluye(Integer consultaYear, Integer consultaMonth, Integer consultaWeek) {
+            return coincide(year, consultaYear) && coincide(month, consultaMonth) && coincide(week, consultaWeek);
+        }
+
+        private static boolean coincide(Integer filtro, Integer valor) {
+            return filtro == null || valor == null || filtro.equals(valor);
+        }
+    }
+
+    private record Entrada(Object valor, long expiraEn) {
+
+        boolean expirada(long ahora) {
+            return ahora >= expiraEn;
+        }
+    }
+}
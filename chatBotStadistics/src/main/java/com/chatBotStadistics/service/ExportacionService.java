@@ -0,0 +1,19 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.FormatoExportacion;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Service interface for exporting the raw consultas and their respuestas.
+ *
+ * Methods:
+ * - exportar: Writes every consulta with its respuesta, optionally filtered by an inclusive
+ *   range of dates and by tema, to the given output stream in the requested format.
+ */
+public interface ExportacionService {
+
+    void exportar(FormatoExportacion formato, LocalDate desde, LocalDate hasta, Integer temaId, OutputStream salida) throws IOException;
+}
@@ -0,0 +1,116 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.FormatoExportacion;
+import com.chatBotStadistics.repository.ConsultaRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service implementation that streams consultas and respuestas as CSV or NDJSON.
+ *
+ * The rows come from {@link ConsultaRepository#streamExportacion}, which reads them through a
+ * MySQL server-side cursor inside a read-only transaction, and each row is written to the
+ * output as soon as it is read. Nothing but the current row and the write buffer is kept in
+ * memory, so the size of the export does not depend on the heap.
+ *
+ * Columns: consultaId, fecha, day, month, year, week, tema, subtema, usuarioId, mensaje,
+ * respuestaId, respuesta.
+ */
+@Service
+public class ExportacionServiceImpl implements ExportacionService {
+
+    private static final String[] COLUMNAS = {
+            "consultaId", "fecha", "day", "month", "year", "week", "tema", "subtema",
+            "usuarioId", "mensaje", "respuestaId", "respuesta"
+    };
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final JsonFactory JSON = JsonFactory.builder().build();
+
+    private final ConsultaRepository consultaRepository;
+
+    public ExportacionServiceImpl(ConsultaRepository consultaRepository) {
+        this.consultaRepository = consultaRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportar(FormatoExportacion formato, LocalDate desde, LocalDate hasta, Integer temaId, OutputStream salida) throws IOException {
+        LocalDateTime inicio = desde != null ? desde.atStartOfDay() : null;
+        LocalDateTime fin = hasta != null ? hasta.plusDays(1).atStartOfDay() : null;
+
+        // El writer no se cierra: la salida pertenece a quien llama.
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANO_BUFFER);
+        try (Stream<Object[]> filas = consultaRepository.streamExportacion(inicio, fin, temaId)) {
+            if (formato == FormatoExportacion.CSV) {
+                escribirCsv(filas.iterator(), writer);
+            } else {
+                escribirNdjson(filas.iterator(), writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private static void escribirCsv(Iterator<Object[]> filas, Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNAS));
+        writer.write("\r\n");
+        while (filas.hasNext()) {
+            Object[] fila = filas.next();
+            for (int i = 0; i < fila.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(campoCsv(fila[i]));
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    // RFC 4180: los campos con separador, comillas o saltos de línea van entre comillas dobles.
+    static String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+
+    private static void escribirNdjson(Iterator<Object[]> filas, Writer writer) throws IOException {
+        JsonGenerator generator = JSON.createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        generator.setRootValueSeparator(null);
+        while (filas.hasNext()) {
+            Object[] fila = filas.next();
+            generator.writeStartObject();
+            for (int i = 0; i < fila.length; i++) {
+                Object valor = fila[i];
+                if (valor == null) {
+                    generator.writeNullField(COLUMNAS[i]);
+                } else if (valor instanceof Integer numero) {
+                    generator.writeNumberField(COLUMNAS[i], numero);
+                } else {
+                    generator.writeStringField(COLUMNAS[i], valor.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+}
@@ -0,0 +1,65 @@
+package com.chatBotStadistics.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over values that are already uniformly distributed hashes (at least 16 bytes).
+ *
+ * Sized for a capacity and false positive rate: m = -n ln p / (ln 2)^2 bits and
+ * k = (m / n) ln 2 probes, derived from the first two 64-bit words of the hash by double
+ * hashing. {@link #puedeContener(byte[])} never answers false for an added value, and answers
+ * true for a value never added with about the configured probability while the capacity holds.
+ * Reads take no lock, so lookups can run on every request while values are being added.
+ */
+public final class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long numeroBits;
+    private final int sondeos;
+
+    public FiltroBloom(int capacidad, double probabilidadFalsos) {
+        int n = Math.max(capacidad, 1);
+        long m = (long) Math.ceil(-n * Math.log(probabilidadFalsos) / (Math.log(2) * Math.log(2)));
+        this.numeroBits = Math.max(Long.SIZE, (m + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+        this.bits = new AtomicLongArray((int) (numeroBits / Long.SIZE));
+        this.sondeos = Math.max(1, (int) Math.round((double) numeroBits / n * Math.log(2)));
+    }
+
+    public void agregar(byte[] hash) {
+        long h1 = palabra(hash, 0);
+        long h2 = palabra(hash, 8) | 1;
+        for (int i = 0; i < sondeos; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, numeroBits);
+            int indice = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long actual;
+            do {
+                actual = bits.get(indice);
+            } while ((actual & mascara) == 0 && !bits.compareAndSet(indice, actual, actual | mascara));
+        }
+    }
+
+    public boolean puedeContener(byte[] hash) {
+        long h1 = palabra(hash, 0);
+        long h2 = palabra(hash, 8) | 1;
+        for (int i = 0; i < sondeos; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, numeroBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long numeroBits() {
+        return numeroBits;
+    }
+
+    private static long palabra(byte[] hash, int desde) {
+        long valor = 0;
+        for (int i = desde; i < desde + Long.BYTES; i++) {
+            valor = (valor << 8) | (hash[i] & 0xFF);
+        }
+        return valor;
+    }
+}
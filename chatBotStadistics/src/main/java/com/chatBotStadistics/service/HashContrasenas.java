@@ -0,0 +1,137 @@
+package com.chatBotStadistics.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link PasswordEncoder} that runs a slow encoder (BCrypt) on a small dedicated pool.
+ *
+ * At most {@code hilos} hashes run at once and at most {@code capacidadCola} more wait for a
+ * thread; a hash that does not fit, or that does not finish within {@code esperaMs}, is refused
+ * with a {@link LoginRechazadoException} right away. The calling request thread still waits for
+ * its own hash, but a burst of logins can only hold {@code hilos + capacidadCola} of them and
+ * only {@code hilos} cores, so the statistics endpoints keep their workers and CPU.
+ *
+ * The time of one hash at the configured cost is measured when the encoder is created, and
+ * the latency of every hash (queue wait included) is counted for {@link #estadisticas()}.
+ */
+public final class HashContrasenas implements PasswordEncoder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HashContrasenas.class);
+
+    private final PasswordEncoder delegado;
+    private final ThreadPoolExecutor executor;
+    private final int hilos;
+    private final int capacidadCola;
+    private final long esperaMs;
+    private final int coste;
+    private final long costeMedidoMs;
+    private final AtomicLong hashes = new AtomicLong();
+    private final AtomicLong nanosTotales = new AtomicLong();
+    private final AtomicLong nanosMaximo = new AtomicLong();
+    private final AtomicLong rechazados = new AtomicLong();
+
+    public HashContrasenas(PasswordEncoder delegado, int coste, int hilos, int capacidadCola, long esperaMs) {
+        this.delegado = delegado;
+        this.coste = coste;
+        this.hilos = hilos;
+        this.capacidadCola = capacidadCola;
+        this.esperaMs = esperaMs;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(capacidadCola, 1)), tarea -> {
+            Thread hilo = new Thread(tarea, "hash-contrasenas-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.costeMedidoMs = medir();
+    }
+
+    /**
+     * Counters of the hashing pool.
+     */
+    public record Estadisticas(int coste, long costeMedidoMs, int hilos, int enCola, int capacidadCola,
+                               long hashes, double latenciaMediaMs, double latenciaMaximaMs, long rechazados) {
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> delegado.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> delegado.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    public Estadisticas estadisticas() {
+        long total = hashes.get();
+        return new Estadisticas(coste, costeMedidoMs, hilos, executor.getQueue().size(), capacidadCola, total,
+                total > 0 ? nanosTotales.get() / 1e6 / total : 0, nanosMaximo.get() / 1e6, rechazados.get());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T ejecutar(Callable<T> hash) {
+        long inicio = System.nanoTime();
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(hash);
+        } catch (RejectedExecutionException e) {
+            rechazados.incrementAndGet();
+            throw new LoginRechazadoException(LoginRechazadoException.Motivo.SATURADO, 1);
+        }
+        try {
+            T resultado = futuro.get(esperaMs, TimeUnit.MILLISECONDS);
+            registrar(System.nanoTime() - inicio);
+            return resultado;
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            rechazados.incrementAndGet();
+            throw new LoginRechazadoException(LoginRechazadoException.Motivo.SATURADO, 1);
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void registrar(long nanos) {
+        hashes.incrementAndGet();
+        nanosTotales.addAndGet(nanos);
+        nanosMaximo.accumulateAndGet(nanos, Math::max);
+    }
+
+    private long medir() {
+        long inicio = System.nanoTime();
+        delegado.encode("medicion-coste");
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        log.info("Password hash cost {} takes {} ms; {} hashing threads, queue of {}", coste, ms, hilos, capacidadCola);
+        return ms;
+    }
+}
@@ -0,0 +1,68 @@
+package com.chatBotStadistics.service;
+
+/**
+ * HyperLogLog sketch for estimating the number of distinct values in a set.
+ *
+ * Uses 2^12 one-byte registers (4 KiB per sketch), which gives a relative standard error of
+ * about 1.6%. Sketches of different periods can be merged with {@link #unir(HyperLogLog)}
+ * to estimate the distinct values of their union without keeping the values themselves.
+ * Values are spread with the SplitMix64 finalizer, so small consecutive ids are fine as input.
+ */
+public final class HyperLogLog {
+
+    private static final int PRECISION = 12;
+    private static final int REGISTROS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTROS);
+
+    private final byte[] registros = new byte[REGISTROS];
+
+    public synchronized void agregar(long valor) {
+        long hash = mezclar(valor);
+        int indice = (int) (hash >>> (Long.SIZE - PRECISION));
+        byte rango = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        if (rango > registros[indice]) {
+            registros[indice] = rango;
+        }
+    }
+
+    public synchronized void unir(HyperLogLog otro) {
+        byte[] copia = otro.copiarRegistros();
+        for (int i = 0; i < REGISTROS; i++) {
+            if (copia[i] > registros[i]) {
+                registros[i] = copia[i];
+            }
+        }
+    }
+
+    public synchronized long estimar() {
+        double suma = 0;
+        int ceros = 0;
+        for (byte registro : registros) {
+            suma += 1.0 / (1L << registro);
+            if (registro == 0) {
+                ceros++;
+            }
+        }
+        double estimacion = ALPHA * REGISTROS * REGISTROS / suma;
+        // Para cardinalidades pequeñas el conteo lineal es más preciso.
+        if (estimacion <= 2.5 * REGISTROS && ceros > 0) {
+            estimacion = REGISTROS * Math.log((double) REGISTROS / ceros);
+        }
+        return Math.round(estimacion);
+    }
+
+    public static double errorRelativo() {
+        return 1.04 / Math.sqrt(REGISTROS);
+    }
+
+    private synchronized byte[] copiarRegistros() {
+        return registros.clone();
+    }
+
+    private static long mezclar(long valor) {
+        long z = valor + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,271 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.repository.ConsultaRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Full-text index of consulta and respuesta messages, kept in memory and persisted to disk.
+ *
+ * On startup the last snapshot is read from {@code application.busqueda.indice.ruta} and the
+ * consultas stored after it are read from the database, in the background; a search that
+ * arrives before that finishes waits for it. From then on every consulta stored through the
+ * API is added after its transaction commits. The snapshot is rewritten every
+ * {@code guardar-cada-ms} when the index changed, and on shutdown.
+ *
+ * Loads and rebuilds read the database into a new index without holding the lock, so
+ * consultas keep being registered and a rebuild keeps answering searches from the previous
+ * index; the consultas registered meanwhile are merged in before the new index replaces it.
+ *
+ * Consultas written to the database by other processes with an id lower than the highest
+ * indexed one are only picked up by {@link #reconstruir()}.
+ */
+@Component
+public class IndiceBusqueda {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceBusqueda.class);
+
+    private final ConsultaRepository consultaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path ruta;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object bloqueoCarga = new Object();
+    private IndiceTexto indice = new IndiceTexto();
+    private List<Documento> pendientes;
+    private volatile boolean cargado;
+    private volatile boolean modificado;
+
+    public IndiceBusqueda(ConsultaRepository consultaRepository, TransactionTemplate transactionTemplate,
+                          @Value("${application.busqueda.indice.ruta:data/indice-consultas.bin}") String ruta) {
+        this.consultaRepository = consultaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ruta = Paths.get(ruta);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarEnSegundoPlano() {
+        Thread carga = new Thread(this::cargar, "indice-busqueda-carga");
+        carga.setDaemon(true);
+        carga.start();
+    }
+
+    public void registrar(int consultaId, Integer temaId, LocalDateTime fecha, String... textos) {
+        Documento documento = new Documento(consultaId, temaId, fecha);
+        for (String texto : textos) {
+            documento.terminos.addAll(Tokenizador.terminos(texto));
+        }
+        lock.writeLock().lock();
+        try {
+            if (documento.agregarA(indice)) {
+                modificado = true;
+            }
+            if (pendientes != null) {
+                pendientes.add(documento);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public IndiceTexto.Resultado buscar(String texto, Integer temaId, LocalDate desde, LocalDate hasta, int offset, int limite) {
+        cargar();
+        List<String> terminos = List.copyOf(Tokenizador.terminos(texto));
+        lock.readLock().lock();
+        try {
+            return indice.buscar(terminos, temaId,
+                    desde != null ? (int) desde.toEpochDay() : null,
+                    hasta != null ? (int) hasta.toEpochDay() : null,
+                    offset, limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void reconstruir() {
+        synchronized (bloqueoCarga) {
+            construir(new IndiceTexto());
+        }
+        guardarSiHayCambios();
+    }
+
+    @Scheduled(fixedDelayString = "${application.busqueda.indice.guardar-cada-ms:60000}")
+    public void guardarSiHayCambios() {
+        if (!cargado || !modificado) {
+            return;
+        }
+        // El bloqueo de lectura impide cambios mientras se escribe; las búsquedas siguen funcionando.
+        lock.readLock().lock();
+        try {
+            modificado = false;
+            guardar();
+        } catch (IOException e) {
+            modificado = true;
+            log.warn("Could not save the search index to {}: {}", ruta, e.getMessage());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        guardarSiHayCambios();
+    }
+
+    private void cargar() {
+        if (cargado) {
+            return;
+        }
+        synchronized (bloqueoCarga) {
+            if (cargado) {
+                return;
+            }
+            IndiceTexto leido = new IndiceTexto();
+            if (Files.exists(ruta)) {
+                try (InputStream archivo = Files.newInputStream(ruta);
+                     DataInputStream entrada = new DataInputStream(new BufferedInputStream(archivo, 64 * 1024))) {
+                    leido = IndiceTexto.leer(entrada);
+                } catch (IOException e) {
+                    log.warn("Could not read the search index from {}, rebuilding it: {}", ruta, e.getMessage());
+                    leido = new IndiceTexto();
+                }
+            }
+            construir(leido);
+            log.info("Search index loaded: {} consultas, {} terms", leido.documentos(), leido.terminos());
+        }
+    }
+
+    /*
+     * Completa el índice nuevo con la base de datos sin tomar el bloqueo; las consultas que se
+     * registran mientras tanto van al índice actual y a pendientes, y se agregan al nuevo antes
+     * de sustituirlo (agregar ignora las que la lectura ya vio). Se llama con bloqueoCarga tomado.
+     */
+    private void construir(IndiceTexto nuevo) {
+        lock.writeLock().lock();
+        try {
+            pendientes = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        int agregadas;
+        try {
+            agregadas = ponerAlDia(nuevo);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendientes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Documento documento : pendientes) {
+                if (documento.agregarA(nuevo)) {
+                    agregadas++;
+                }
+            }
+            pendientes = null;
+            indice = nuevo;
+            if (agregadas > 0 || cargado) {
+                modificado = true;
+            }
+            cargado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Lee las consultas posteriores a la última indexada. Las filas llegan ordenadas por id y una
+     * consulta con varias respuestas ocupa filas consecutivas, así que sus términos se acumulan
+     * hasta que cambia el id.
+     */
+    private int ponerAlDia(IndiceTexto indice) {
+        int desdeId = indice.maxId();
+        Integer agregadas = transactionTemplate.execute(status -> {
+            int[] total = {0};
+            Documento[] actual = {null};
+            try (Stream<Object[]> filas = consultaRepository.streamTextos(desdeId)) {
+                filas.forEach(fila -> {
+                    int id = (Integer) fila[0];
+                    if (actual[0] == null || actual[0].id != id) {
+                        if (actual[0] != null && actual[0].agregarA(indice)) {
+                            total[0]++;
+                        }
+                        actual[0] = new Documento(id, (Integer) fila[1], (LocalDateTime) fila[2]);
+                        actual[0].terminos.addAll(Tokenizador.terminos((String) fila[3]));
+                    }
+                    actual[0].terminos.addAll(Tokenizador.terminos((String) fila[4]));
+                });
+            }
+            if (actual[0] != null && actual[0].agregarA(indice)) {
+                total[0]++;
+            }
+            return total[0];
+        });
+        return agregadas != null ? agregadas : 0;
+    }
+
+    private void guardar() throws IOException {
+        Path directorio = ruta.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (OutputStream archivo = Files.newOutputStream(temporal);
+             DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(archivo, 64 * 1024))) {
+            indice.escribir(salida);
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int dia(LocalDateTime fecha) {
+        return fecha != null ? (int) fecha.toLocalDate().toEpochDay() : IndiceTexto.SIN_FECHA;
+    }
+
+    private static final class Documento {
+        private final int id;
+        private final Integer temaId;
+        private final LocalDateTime fecha;
+        private final Set<String> terminos = new HashSet<>();
+
+        Documento(int id, Integer temaId, LocalDateTime fecha) {
+            this.id = id;
+            this.temaId = temaId;
+            this.fecha = fecha;
+        }
+
+        boolean agregarA(IndiceTexto indice) {
+            return indice.agregar(id, temaId != null ? temaId : 0, dia(fecha), terminos);
+        }
+    }
+}
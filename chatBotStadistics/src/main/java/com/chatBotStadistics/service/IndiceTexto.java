@@ -0,0 +1,243 @@
+package com.chatBotStadistics.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index from terms to consulta ids, kept entirely in primitive int arrays.
+ *
+ * Each term maps to a sorted array of consulta ids (its posting list). Each indexed consulta
+ * also stores its tema id and the epoch day of its fecha in parallel arrays sorted by id, so
+ * tema and date filters are applied without touching the database.
+ *
+ * A search intersects the posting lists of its terms starting from the shortest one and walks
+ * the result from the newest id down, so its cost depends on the size of the posting lists
+ * involved and not on the size of the corpus.
+ *
+ * Ids are expected to arrive mostly in increasing order; an out-of-order id is inserted in
+ * place. The class is not thread-safe; {@link IndiceBusqueda} guards it with a lock.
+ */
+class IndiceTexto {
+
+    static final int SIN_FECHA = Integer.MIN_VALUE;
+    private static final int FORMATO = 0x49445831;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private int[] docIds = new int[1024];
+    private int[] docTemas = new int[1024];
+    private int[] docDias = new int[1024];
+    private int documentos;
+
+    record Resultado(int[] ids, int total) {
+    }
+
+    /*
+     * Devuelve false si la consulta ya estaba indexada: volver a registrarla no tiene efecto.
+     */
+    boolean agregar(int id, int temaId, int dia, Collection<String> terminos) {
+        int posicion = Arrays.binarySearch(docIds, 0, documentos, id);
+        if (posicion >= 0) {
+            return false;
+        }
+        posicion = -posicion - 1;
+        if (documentos == docIds.length) {
+            int capacidad = docIds.length * 2;
+            docIds = Arrays.copyOf(docIds, capacidad);
+            docTemas = Arrays.copyOf(docTemas, capacidad);
+            docDias = Arrays.copyOf(docDias, capacidad);
+        }
+        int mover = documentos - posicion;
+        System.arraycopy(docIds, posicion, docIds, posicion + 1, mover);
+        System.arraycopy(docTemas, posicion, docTemas, posicion + 1, mover);
+        System.arraycopy(docDias, posicion, docDias, posicion + 1, mover);
+        docIds[posicion] = id;
+        docTemas[posicion] = temaId;
+        docDias[posicion] = dia;
+        documentos++;
+
+        for (String termino : terminos) {
+            postings.computeIfAbsent(termino, t -> new Postings()).agregar(id);
+        }
+        return true;
+    }
+
+    Resultado buscar(List<String> terminos, Integer temaId, Integer diaDesde, Integer diaHasta, int offset, int limite) {
+        if (terminos.isEmpty()) {
+            return new Resultado(new int[0], 0);
+        }
+        Postings[] listas = new Postings[terminos.size()];
+        for (int i = 0; i < listas.length; i++) {
+            listas[i] = postings.get(terminos.get(i));
+            if (listas[i] == null) {
+                return new Resultado(new int[0], 0);
+            }
+        }
+        Arrays.sort(listas, (a, b) -> Integer.compare(a.size, b.size));
+
+        boolean filtrar = temaId != null || diaDesde != null || diaHasta != null;
+        int[] pagina = new int[limite];
+        int enPagina = 0;
+        int total = 0;
+        Postings menor = listas[0];
+        candidatos:
+        for (int i = menor.size - 1; i >= 0; i--) {
+            int id = menor.ids[i];
+            for (int j = 1; j < listas.length; j++) {
+                if (!listas[j].contiene(id)) {
+                    continue candidatos;
+                }
+            }
+            if (filtrar) {
+                int posicion = Arrays.binarySearch(docIds, 0, documentos, id);
+                if (temaId != null && docTemas[posicion] != temaId) {
+                    continue;
+                }
+                int dia = docDias[posicion];
+                if ((diaDesde != null || diaHasta != null) && dia == SIN_FECHA) {
+                    continue;
+                }
+                if ((diaDesde != null && dia < diaDesde) || (diaHasta != null && dia > diaHasta)) {
+                    continue;
+                }
+            }
+            if (total >= offset && enPagina < limite) {
+                pagina[enPagina++] = id;
+            }
+            total++;
+        }
+        return new Resultado(Arrays.copyOf(pagina, enPagina), total);
+    }
+
+    int maxId() {
+        return documentos == 0 ? 0 : docIds[documentos - 1];
+    }
+
+    int documentos() {
+        return documentos;
+    }
+
+    int terminos() {
+        return postings.size();
+    }
+
+    /*
+     * Formato: cabecera, documentos (id, tema, día) y, por término, su lista de ids codificada
+     * como diferencias en enteros de longitud variable.
+     */
+    void escribir(DataOutputStream salida) throws IOException {
+        salida.writeInt(FORMATO);
+        salida.writeInt(documentos);
+        for (int i = 0; i < documentos; i++) {
+            salida.writeInt(docIds[i]);
+            salida.writeInt(docTemas[i]);
+            salida.writeInt(docDias[i]);
+        }
+        salida.writeInt(postings.size());
+        for (Map.Entry<String, Postings> entrada : postings.entrySet()) {
+            salida.writeUTF(entrada.getKey());
+            Postings lista = entrada.getValue();
+            escribirVarInt(salida, lista.size);
+            int anterior = 0;
+            for (int i = 0; i < lista.size; i++) {
+                escribirVarInt(salida, lista.ids[i] - anterior);
+                anterior = lista.ids[i];
+            }
+        }
+    }
+
+    static IndiceTexto leer(DataInputStream entrada) throws IOException {
+        if (entrada.readInt() != FORMATO) {
+            throw new IOException("Unknown index format");
+        }
+        IndiceTexto indice = new IndiceTexto();
+        int documentos = entrada.readInt();
+        int capacidad = Math.max(1024, documentos);
+        indice.docIds = new int[capacidad];
+        indice.docTemas = new int[capacidad];
+        indice.docDias = new int[capacidad];
+        for (int i = 0; i < documentos; i++) {
+            indice.docIds[i] = entrada.readInt();
+            indice.docTemas[i] = entrada.readInt();
+            indice.docDias[i] = entrada.readInt();
+        }
+        indice.documentos = documentos;
+        int terminos = entrada.readInt();
+        for (int t = 0; t < terminos; t++) {
+            String termino = entrada.readUTF();
+            int size = leerVarInt(entrada);
+            Postings lista = new Postings(Math.max(2, size));
+            int anterior = 0;
+            for (int i = 0; i < size; i++) {
+                anterior += leerVarInt(entrada);
+                lista.ids[i] = anterior;
+            }
+            lista.size = size;
+            indice.postings.put(termino, lista);
+        }
+        return indice;
+    }
+
+    private static void escribirVarInt(DataOutputStream salida, int valor) throws IOException {
+        while ((valor & ~0x7F) != 0) {
+            salida.writeByte((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        salida.writeByte(valor);
+    }
+
+    private static int leerVarInt(DataInputStream entrada) throws IOException {
+        int valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 32; desplazamiento += 7) {
+            int b = entrada.readUnsignedByte();
+            valor |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static final class Postings {
+        private int[] ids;
+        private int size;
+
+        Postings() {
+            this(2);
+        }
+
+        Postings(int capacidad) {
+            ids = new int[capacidad];
+        }
+
+        void agregar(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int posicion = Arrays.binarySearch(ids, 0, size, id);
+                if (posicion >= 0) {
+                    return;
+                }
+                insertar(-posicion - 1, id);
+                return;
+            }
+            insertar(size, id);
+        }
+
+        private void insertar(int posicion, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, posicion, ids, posicion + 1, size - posicion);
+            ids[posicion] = id;
+            size++;
+        }
+
+        boolean contiene(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.IngestaConsultaDTO;
+import com.chatBotStadistics.dto.IngestaResultadoDTO;
+
+import java.util.List;
+
+/**
+ * Service interface for the bulk ingestion of consultas and their respuestas.
+ *
+ * Methods:
+ * - ingerir: Stores a batch of consultas with their respuestas in one transaction, resolving
+ *   their temas, subtemas and usuarios in bulk and updating the rollups once for the batch.
+ */
+public interface IngestaService {
+
+    IngestaResultadoDTO ingerir(List<IngestaConsultaDTO> consultas);
+}
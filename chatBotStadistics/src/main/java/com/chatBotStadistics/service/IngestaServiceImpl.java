@@ -0,0 +1,169 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.domain.Consulta;
+import com.chatBotStadistics.domain.Subtema;
+import com.chatBotStadistics.domain.Tema;
+import com.chatBotStadistics.domain.Usuario;
+import com.chatBotStadistics.dto.IngestaConsultaDTO;
+import com.chatBotStadistics.dto.IngestaResultadoDTO;
+import com.chatBotStadistics.repository.IngestaRepository;
+import com.chatBotStadistics.repository.SubtemaRepository;
+import com.chatBotStadistics.repository.TemaRepository;
+import com.chatBotStadistics.repository.UsuarioRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service implementation for the bulk ingestion of consultas and their respuestas.
+ *
+ * The work for a batch is a fixed number of round trips regardless of its size: one query
+ * each for the referenced temas, subtemas, usuarios by id and usuarios by phone number, one
+ * batched INSERT for the missing usuarios, one for the consultas and one for the respuestas,
+ * and one batched upsert per rollup through {@link AgregadoService#registrarLote}. Once the
+ * transaction commits, the consultas and respuestas are added to the {@link IndiceBusqueda}.
+ *
+ * The same rules as the single consulta endpoint apply: an unknown tema, subtema or usuario
+ * rejects the whole batch, the tema is derived from the subtema when missing, and a subtema
+ * from another tema is rejected.
+ */
+@Service
+public class IngestaServiceImpl implements IngestaService {
+
+    private final IngestaRepository ingestaRepository;
+    private final TemaRepository temaRepository;
+    private final SubtemaRepository subtemaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final AgregadoService agregadoService;
+    private final IndiceBusqueda indiceBusqueda;
+
+    public IngestaServiceImpl(IngestaRepository ingestaRepository, TemaRepository temaRepository, SubtemaRepository subtemaRepository, UsuarioRepository usuarioRepository, AgregadoService agregadoService, IndiceBusqueda indiceBusqueda) {
+        this.ingestaRepository = ingestaRepository;
+        this.temaRepository = temaRepository;
+        this.subtemaRepository = subtemaRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.agregadoService = agregadoService;
+        this.indiceBusqueda = indiceBusqueda;
+    }
+
+    @Override
+    @Transactional
+    public IngestaResultadoDTO ingerir(List<IngestaConsultaDTO> items) {
+        Map<Integer, Tema> temas = porId(temaRepository.findAllById(ids(items, IngestaConsultaDTO::temaId)), Tema::getId);
+        Map<Integer, Subtema> subtemas = porId(subtemaRepository.findAllById(ids(items, IngestaConsultaDTO::subtemaId)), Subtema::getId);
+        Map<Integer, Usuario> usuarios = porId(usuarioRepository.findAllById(ids(items, IngestaConsultaDTO::usuarioId)), Usuario::getId);
+        Map<String, Usuario> usuariosPorCelular = new HashMap<>();
+        int usuariosCreados = resolverUsuarios(items, usuariosPorCelular);
+
+        List<Consulta> consultas = new ArrayList<>(items.size());
+        for (IngestaConsultaDTO item : items) {
+            consultas.add(aConsulta(item, temas, subtemas, usuarios, usuariosPorCelular));
+        }
+        ingestaRepository.insertarConsultas(consultas);
+
+        List<Integer> consultaIds = new ArrayList<>();
+        List<String> respuestas = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).respuesta() != null) {
+                consultaIds.add(consultas.get(i).getId());
+                respuestas.add(items.get(i).respuesta());
+            }
+        }
+        if (!respuestas.isEmpty()) {
+            ingestaRepository.insertarRespuestas(consultaIds, respuestas);
+        }
+
+        agregadoService.registrarLote(consultas);
+        Transacciones.despuesDeConfirmar(() -> {
+            for (int i = 0; i < consultas.size(); i++) {
+                Consulta consulta = consultas.get(i);
+                indiceBusqueda.registrar(consulta.getId(), consulta.getTema() != null ? consulta.getTema().getId() : null,
+                        consulta.getFecha(), consulta.getMensaje(), items.get(i).respuesta());
+            }
+        });
+        return new IngestaResultadoDTO(consultas.size(), respuestas.size(), usuariosCreados);
+    }
+
+    /*
+     * Los números de celular se buscan con una sola consulta IN y los que faltan se insertan en
+     * un solo lote; devuelve cuántos usuarios se crearon.
+     */
+    private int resolverUsuarios(List<IngestaConsultaDTO> items, Map<String, Usuario> usuariosPorCelular) {
+        Set<String> numeros = items.stream()
+                .filter(item -> item.usuarioId() == null && item.numeroCelular() != null)
+                .map(IngestaConsultaDTO::numeroCelular)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (numeros.isEmpty()) {
+            return 0;
+        }
+        usuarioRepository.findByNumerosCelular(numeros)
+                .forEach(usuario -> usuariosPorCelular.putIfAbsent(usuario.getNumero_celular(), usuario));
+
+        List<String> nuevos = numeros.stream()
+                .filter(numero -> !usuariosPorCelular.containsKey(numero))
+                .toList();
+        if (nuevos.isEmpty()) {
+            return 0;
+        }
+        List<Integer> ids = ingestaRepository.insertarUsuarios(nuevos);
+        for (int i = 0; i < nuevos.size(); i++) {
+            usuariosPorCelular.put(nuevos.get(i), new Usuario(ids.get(i), nuevos.get(i)));
+        }
+        return nuevos.size();
+    }
+
+    private static Consulta aConsulta(IngestaConsultaDTO item, Map<Integer, Tema> temas, Map<Integer, Subtema> subtemas,
+                                      Map<Integer, Usuario> usuarios, Map<String, Usuario> usuariosPorCelular) {
+        Consulta consulta = new Consulta();
+        consulta.setMensaje(item.mensaje());
+        consulta.setDay(item.day());
+        consulta.setMonth(item.month());
+        consulta.setYear(item.year());
+        consulta.setWeek(item.week());
+        consulta.setFecha(ConsultaServiceImpl.fechaDe(item.year(), item.month(), item.day()));
+        consulta.setAgregada(true);
+        if (item.temaId() != null) {
+            consulta.setTema(encontrar(temas, item.temaId(), "Tema not found"));
+        }
+        if (item.subtemaId() != null) {
+            Subtema subtema = encontrar(subtemas, item.subtemaId(), "Subtema not found");
+            if (consulta.getTema() == null) {
+                consulta.setTema(subtema.getTema());
+            } else if (subtema.getTema() != null && !subtema.getTema().getId().equals(consulta.getTema().getId())) {
+                throw new IllegalArgumentException("Subtema does not belong to tema");
+            }
+            consulta.setSubtema(subtema);
+        }
+        if (item.usuarioId() != null) {
+            consulta.setUsuario(encontrar(usuarios, item.usuarioId(), "Usuario not found"));
+        } else if (item.numeroCelular() != null) {
+            consulta.setUsuario(usuariosPorCelular.get(item.numeroCelular()));
+        }
+        return consulta;
+    }
+
+    private static <T> T encontrar(Map<Integer, T> valores, Integer id, String mensaje) {
+        T valor = valores.get(id);
+        if (valor == null) {
+            throw new IllegalArgumentException(mensaje);
+        }
+        return valor;
+    }
+
+    private static Set<Integer> ids(List<IngestaConsultaDTO> items, Function<IngestaConsultaDTO, Integer> id) {
+        return items.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static <T> Map<Integer, T> porId(List<T> valores, Function<T, Integer> id) {
+        return valores.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+}
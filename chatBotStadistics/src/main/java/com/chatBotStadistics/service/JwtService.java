@@ -1,6 +1,7 @@
 package com.chatBotStadistics.service;
 
 import com.chatBotStadistics.domain.AdminUser;
+import io.jsonwebtoken.Claims;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
@@ -10,10 +11,12 @@ import java.util.Date;
  * Service interface for managing JSON Web Token (JWT) related operations.
  *
  * This interface provides methods to handle JWT functionality, including:
+ * - Verifying a token once and returning its claims.
  * - Extracting the username from a token.
  * - Generating tokens and refresh tokens for a given user.
  * - Building tokens with a custom expiration.
- * - Validating tokens against user details.
+ * - Validating tokens, or their already verified claims, against user details.
+ * - Telling refresh tokens apart from access tokens.
  * - Checking if a token is expired.
  * - Extracting the expiration date from a token.
  * - Retrieving the secret key used for signing the tokens.
@@ -21,6 +24,8 @@ import java.util.Date;
 
 public interface JwtService {
 
+    Claims parseClaims(String token);
+
     String extractUsername(String token);
 
     String generateToken(final AdminUser adminUser); // Cambiado a UserDetails
@@ -31,6 +36,10 @@ public interface JwtService {
 
     boolean isTokenValid(String token, AdminUser adminUser); // Cambiado a UserDetails
 
+    boolean isTokenValid(Claims claims, AdminUser adminUser);
+
+    boolean isRefreshToken(Claims claims);
+
     boolean isTokenExpired(String token);
 
     Date extractExpiration(String token);
@@ -1,6 +1,8 @@
 package com.chatBotStadistics.service;
 
 import com.chatBotStadistics.domain.AdminUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -9,7 +11,9 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Service implementation for managing JSON Web Tokens (JWT) related operations.
@@ -21,35 +25,87 @@ import java.util.Map;
  * The implementation relies on a secret key and expiration times configured as properties
  * in the application to ensure security and token lifecycle management.
  *
+ * Every token carries a random id (jti), which is what the token table and the revocation
+ * denylist refer to, and refresh tokens carry a "type" claim so they cannot be used as access
+ * tokens.
+ *
+ * The signing key and the parser are built once at startup and shared, since both are
+ * immutable. Every verified token is kept in a small LRU map
+ * ({@code application.security.jwt.cache.max-size}, 0 to disable) together with its claims until
+ * it expires, so a client repeating the same bearer token is verified with one map lookup
+ * instead of an HMAC check, and the extract methods on the same token never parse it twice.
+ *
  * Methods:
+ * - parseClaims: Verifies a JWT once and returns its claims.
  * - extractUsername: Extracts the username (subject) from a JWT.
  * - generateToken: Generates an access token for a given AdminUser.
  * - generateRefreshToken: Generates a refresh token for a given AdminUser.
- * - buildToken: Constructs a JWT for a given AdminUser with a specified expiration time.
- * - isTokenValid: Validates a token by verifying the username and expiration status.
+ * - buildToken: Constructs a JWT with a random id for a given AdminUser with a specified expiration time.
+ * - isRefreshToken: Tells whether verified claims belong to a refresh token.
+ * - isTokenValid: Validates a token, or its verified claims, by the username and expiration status.
  * - isTokenExpired: Checks if a token has expired based on the expiration claim.
  * - extractExpiration: Retrieves the expiration date from a JWT.
- * - getSignInKey: Provides the signing key derived from the configured secret key.
+ * - getSignInKey: Provides the signing key derived once from the configured secret key.
  */
 @Service
 public class JwtServiceImpl implements JwtService {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
-    @Value("${application.security.jwt.expiration}")
-    private long jwtExpiration;
-    @Value("${application.security.jwt.refresh-token.expiration}")
-    private long refreshExpiration;
+    private static final String TIPO = "type";
+    private static final String TIPO_REFRESH = "refresh";
+
+    private final long jwtExpiration;
+    private final long refreshExpiration;
+    private final SecretKey signInKey;
+    private final JwtParser parser;
+    private final int maxVerificados;
+    private final Map<String, Claims> verificados;
+
+    public JwtServiceImpl(@Value("${application.security.jwt.secret-key}") String secretKey,
+                          @Value("${application.security.jwt.expiration}") long jwtExpiration,
+                          @Value("${application.security.jwt.refresh-token.expiration}") long refreshExpiration,
+                          @Value("${application.security.jwt.cache.max-size:1000}") int maxVerificados) {
+        this.jwtExpiration = jwtExpiration;
+        this.refreshExpiration = refreshExpiration;
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parser().verifyWith(signInKey).build();
+        this.maxVerificados = maxVerificados;
+        this.verificados = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > JwtServiceImpl.this.maxVerificados;
+            }
+        };
+    }
 
+    /*
+     * Un token ya verificado se devuelve del mapa mientras no expire. Al expirar se quita y se
+     * vuelve a pasar por el parser, que lanza la misma ExpiredJwtException que antes.
+     */
+    @Override
+    public Claims parseClaims(String token) {
+        if (maxVerificados > 0) {
+            synchronized (verificados) {
+                Claims claims = verificados.get(token);
+                if (claims != null) {
+                    if (claims.getExpiration() == null || claims.getExpiration().after(new Date())) {
+                        return claims;
+                    }
+                    verificados.remove(token);
+                }
+            }
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (maxVerificados > 0) {
+            synchronized (verificados) {
+                verificados.put(token, claims);
+            }
+        }
+        return claims;
+    }
 
     @Override
     public String extractUsername(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     @Override
@@ -59,25 +115,40 @@ public class JwtServiceImpl implements JwtService {
 
     @Override
     public String generateRefreshToken(AdminUser adminUser) {
-        return buildToken(adminUser, refreshExpiration);
+        return buildToken(adminUser, refreshExpiration, Map.of("name", adminUser.getName(), TIPO, TIPO_REFRESH));
     }
 
     @Override
     public String buildToken(AdminUser adminUser, long expiration) {
+        return buildToken(adminUser, expiration, Map.of("name", adminUser.getName()));
+    }
+
+    private String buildToken(AdminUser adminUser, long expiration, Map<String, ?> claims) {
         return Jwts
                 .builder()
-                .claims(Map.of("name", adminUser.getName()))
+                .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(adminUser.getEmail())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
     @Override
     public boolean isTokenValid(String token, AdminUser adminUser) {
-        final String username = extractUsername(token);
-        return (username.equals(adminUser.getEmail())) && !isTokenExpired(token);
+        return isTokenValid(parseClaims(token), adminUser);
+    }
+
+    @Override
+    public boolean isTokenValid(Claims claims, AdminUser adminUser) {
+        final String username = claims.getSubject();
+        return (username.equals(adminUser.getEmail())) && !claims.getExpiration().before(new Date());
+    }
+
+    @Override
+    public boolean isRefreshToken(Claims claims) {
+        return TIPO_REFRESH.equals(claims.get(TIPO));
     }
 
     @Override
@@ -86,17 +157,11 @@ public class JwtServiceImpl implements JwtService {
 
     @Override
     public Date extractExpiration(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
+        return parseClaims(token).getExpiration();
     }
 
     @Override
     public SecretKey getSignInKey() {
-        final byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signInKey;
     }
 }
@@ -0,0 +1,143 @@
+package com.chatBotStadistics.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-IP and per-account throttling of login attempts, checked before any password is hashed.
+ *
+ * Both limits use fixed windows of {@code application.security.login.ventana-ms}. An IP can
+ * start {@code intentos-por-ip} logins per window, successful or not, which bounds how many
+ * hashes a single client can make us compute. An account can fail {@code fallos-por-cuenta}
+ * times per window from each IP; after that it is locked for that IP until the window ends,
+ * and a successful login from the IP clears its failures. Keeping the failures per (account,
+ * IP) means nobody can lock the owner out by failing on purpose from another address.
+ * Finished windows are purged every window.
+ *
+ * The client address is the request's remote address; with
+ * {@code server.forward-headers-strategy=native} it is taken from {@code X-Forwarded-For}
+ * when the request comes through a trusted proxy.
+ */
+@Component
+public class LimitadorLogin {
+
+    private final int intentosPorIp;
+    private final int fallosPorCuenta;
+    private final long ventanaMs;
+    private final Map<String, Ventana> ips = new ConcurrentHashMap<>();
+    private final Map<String, Ventana> cuentas = new ConcurrentHashMap<>();
+    private final AtomicLong intentos = new AtomicLong();
+    private final AtomicLong exitos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong rechazadosPorIp = new AtomicLong();
+    private final AtomicLong rechazadosPorCuenta = new AtomicLong();
+
+    public LimitadorLogin(@Value("${application.security.login.intentos-por-ip:20}") int intentosPorIp,
+                          @Value("${application.security.login.fallos-por-cuenta:5}") int fallosPorCuenta,
+                          @Value("${application.security.login.ventana-ms:60000}") long ventanaMs) {
+        this.intentosPorIp = intentosPorIp;
+        this.fallosPorCuenta = fallosPorCuenta;
+        this.ventanaMs = ventanaMs;
+    }
+
+    /**
+     * Counters of login attempts and of the ones refused by each limit.
+     */
+    public record Estadisticas(long intentos, long exitos, long fallos, long rechazadosPorIp,
+                               long rechazadosPorCuenta, int ipsVigiladas, int cuentasVigiladas) {
+    }
+
+    private static final class Ventana {
+        private final long inicio;
+        private int contador;
+
+        private Ventana(long inicio) {
+            this.inicio = inicio;
+        }
+    }
+
+    /*
+     * Cuenta el intento de la IP aunque luego se rechace por la cuenta: quien prueba muchas
+     * cuentas desde una IP agota su ventana igual.
+     */
+    public void comprobar(String ip, String email) {
+        long ahora = System.currentTimeMillis();
+        intentos.incrementAndGet();
+        long esperaIp = sumar(ips, ip, ahora, intentosPorIp);
+        if (esperaIp > 0) {
+            rechazadosPorIp.incrementAndGet();
+            throw new LoginRechazadoException(LoginRechazadoException.Motivo.IP, segundos(esperaIp));
+        }
+        Ventana cuenta = cuentas.get(clave(ip, email));
+        if (cuenta != null) {
+            synchronized (cuenta) {
+                if (ahora - cuenta.inicio < ventanaMs && cuenta.contador >= fallosPorCuenta) {
+                    rechazadosPorCuenta.incrementAndGet();
+                    throw new LoginRechazadoException(LoginRechazadoException.Motivo.CUENTA,
+                            segundos(cuenta.inicio + ventanaMs - ahora));
+                }
+            }
+        }
+    }
+
+    public void registrarFallo(String ip, String email) {
+        fallos.incrementAndGet();
+        sumar(cuentas, clave(ip, email), System.currentTimeMillis(), Integer.MAX_VALUE);
+    }
+
+    public void registrarExito(String ip, String email) {
+        exitos.incrementAndGet();
+        cuentas.remove(clave(ip, email));
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.login.ventana-ms:60000}")
+    public void purgar() {
+        long limite = System.currentTimeMillis() - ventanaMs;
+        ips.values().removeIf(ventana -> ventana.inicio <= limite);
+        cuentas.values().removeIf(ventana -> ventana.inicio <= limite);
+    }
+
+    public Estadisticas estadisticas() {
+        return new Estadisticas(intentos.get(), exitos.get(), fallos.get(), rechazadosPorIp.get(),
+                rechazadosPorCuenta.get(), ips.size(), cuentas.size());
+    }
+
+    public static String ipActual() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos) {
+            return atributos.getRequest().getRemoteAddr();
+        }
+        return "desconocida";
+    }
+
+    /*
+     * Suma uno en la ventana de la clave, empezando una nueva si la anterior terminó. Devuelve
+     * cuántos ms faltan para que acabe la ventana si ya se había alcanzado el máximo, o 0.
+     */
+    private long sumar(Map<String, Ventana> ventanas, String clave, long ahora, int maximo) {
+        Ventana ventana = ventanas.compute(clave, (c, actual) ->
+                actual == null || ahora - actual.inicio >= ventanaMs ? new Ventana(ahora) : actual);
+        synchronized (ventana) {
+            if (ventana.contador >= maximo) {
+                return ventana.inicio + ventanaMs - ahora;
+            }
+            ventana.contador++;
+            return 0;
+        }
+    }
+
+    private static String clave(String ip, String email) {
+        return (email == null ? "" : email.trim().toLowerCase(Locale.ROOT)) + '|' + ip;
+    }
+
+    private static long segundos(long ms) {
+        return Math.max(1, (ms + 999) / 1000);
+    }
+}
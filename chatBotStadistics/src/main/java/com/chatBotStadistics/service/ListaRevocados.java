@@ -0,0 +1,149 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.repository.TokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory denylist of revoked token ids (jti), fronted by a {@link FiltroBloom}.
+ *
+ * Tokens are identified by the SHA-256 of their jti, the same fixed-size hash stored in the
+ * token table. A lookup first asks the Bloom filter; a token that was never revoked is almost
+ * always rejected there and approved without touching the exact set or the database. Only the
+ * few false positives (about {@code false-positive-rate}) and the revoked tokens reach the set.
+ *
+ * The denylist is built from the revoked, unexpired rows on startup (or on first use, if that
+ * comes earlier) and rebuilt every {@code recargar-cada-ms}, which drops the tokens that expired in
+ * the meantime (the JWT parser already rejects them) and picks up revocations made by other
+ * instances. Revocations made here are added right away.
+ */
+@Component
+public class ListaRevocados {
+
+    private static final Logger log = LoggerFactory.getLogger(ListaRevocados.class);
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final TokenRepository tokenRepository;
+    private final int capacidad;
+    private final double probabilidadFalsos;
+    private final AtomicLong consultas = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+    private volatile Estado estado;
+
+    public ListaRevocados(TokenRepository tokenRepository,
+                          @Value("${application.security.denylist.capacity:10000}") int capacidad,
+                          @Value("${application.security.denylist.false-positive-rate:0.01}") double probabilidadFalsos) {
+        this.tokenRepository = tokenRepository;
+        this.capacidad = capacidad;
+        this.probabilidadFalsos = probabilidadFalsos;
+    }
+
+    private record Estado(FiltroBloom filtro, Map<String, Long> revocados, int capacidad) {
+    }
+
+    public boolean revocado(String jti) {
+        Estado actual = cargar();
+        consultas.incrementAndGet();
+        byte[] hash = digerir(jti);
+        if (!actual.filtro().puedeContener(hash)) {
+            descartadas.incrementAndGet();
+            return false;
+        }
+        return actual.revocados().containsKey(HEX.formatHex(hash));
+    }
+
+    public synchronized void revocar(String jtiHash, Instant expira) {
+        if (jtiHash == null) {
+            return;
+        }
+        Estado actual = cargar();
+        if (actual.revocados().size() >= actual.capacidad()) {
+            // El filtro ya no cumple su tasa de falsos positivos: se reconstruye con más capacidad.
+            recargar();
+            actual = estado;
+        }
+        actual.revocados().put(jtiHash, expira != null ? expira.toEpochMilli() : Long.MAX_VALUE);
+        actual.filtro().agregar(HEX.parseHex(jtiHash));
+    }
+
+    public void revocarAlConfirmar(List<String> jtiHashes, List<Instant> expiraciones) {
+        Transacciones.despuesDeConfirmar(() -> {
+            for (int i = 0; i < jtiHashes.size(); i++) {
+                revocar(jtiHashes.get(i), expiraciones.get(i));
+            }
+        });
+    }
+
+    /*
+     * Se recarga bajo el mismo candado que revocar: una revocación confirmada mientras se leía la
+     * tabla espera a que termine la recarga y se añade al estado nuevo, así nunca se pierde.
+     */
+    @Scheduled(fixedDelayString = "${application.security.denylist.recargar-cada-ms:60000}")
+    public synchronized void recargar() {
+        long ahora = System.currentTimeMillis();
+        List<Object[]> filas = tokenRepository.findRevocadosVigentes(Instant.ofEpochMilli(ahora));
+        Map<String, Long> revocados = new ConcurrentHashMap<>();
+        for (Object[] fila : filas) {
+            revocados.put((String) fila[0], ((Instant) fila[1]).toEpochMilli());
+        }
+        if (estado != null) {
+            // Lo revocado aquí se conserva hasta expirar, aunque la lectura aún no vea su fila.
+            estado.revocados().forEach((hash, expira) -> {
+                if (expira > ahora) {
+                    revocados.putIfAbsent(hash, expira);
+                }
+            });
+        }
+        int capacidadFiltro = Math.max(capacidad, 2 * revocados.size());
+        FiltroBloom filtro = new FiltroBloom(capacidadFiltro, probabilidadFalsos);
+        revocados.keySet().forEach(hash -> filtro.agregar(HEX.parseHex(hash)));
+        estado = new Estado(filtro, revocados, capacidadFiltro);
+        log.debug("Token denylist reloaded: {} revoked tokens, {} bits", revocados.size(), filtro.numeroBits());
+    }
+
+    public long consultas() {
+        return consultas.get();
+    }
+
+    public long descartadasPorFiltro() {
+        return descartadas.get();
+    }
+
+    public static String hash(String jti) {
+        return HEX.formatHex(digerir(jti));
+    }
+
+    private Estado cargar() {
+        Estado actual = estado;
+        if (actual != null) {
+            return actual;
+        }
+        synchronized (this) {
+            if (estado == null) {
+                recargar();
+            }
+            return estado;
+        }
+    }
+
+    private static byte[] digerir(String jti) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(jti.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.chatBotStadistics.service;
+
+/**
+ * Thrown when a login is refused before checking the password: too many attempts from the
+ * same IP, too many failures for the same account, or a saturated hashing pool.
+ *
+ * reintentarEnSegundos tells the client when trying again can succeed.
+ */
+public class LoginRechazadoException extends RuntimeException {
+
+    public enum Motivo {
+        IP,
+        CUENTA,
+        SATURADO
+    }
+
+    private final Motivo motivo;
+    private final long reintentarEnSegundos;
+
+    public LoginRechazadoException(Motivo motivo, long reintentarEnSegundos) {
+        super("Login rejected: " + motivo);
+        this.motivo = motivo;
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public Motivo getMotivo() {
+        return motivo;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
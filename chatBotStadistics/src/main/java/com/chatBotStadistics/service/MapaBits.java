@@ -0,0 +1,235 @@
+package com.chatBotStadistics.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compressed bitmap of non-negative int ids, in the style of Roaring bitmaps.
+ *
+ * Ids are grouped by their high 16 bits into chunks of 65536 values. A chunk with few ids keeps
+ * them as a sorted char array (2 bytes per id); once it passes {@link #MAXIMO_ARREGLO} ids it
+ * switches to a plain 8 KiB bitset, which is smaller from that point on. Intersections are
+ * computed chunk by chunk with the cheapest pair-wise method (merge of sorted arrays, probes
+ * into a bitset, or AND and bit count of two bitsets), without building the result.
+ *
+ * The class is not thread-safe; {@link ActividadUsuarios} guards its bitmaps with a lock.
+ */
+final class MapaBits {
+
+    private static final int MAXIMO_ARREGLO = 4096;
+    private static final int PALABRAS = 1 << 10;
+    private static final byte TIPO_ARREGLO = 0;
+    private static final byte TIPO_BITS = 1;
+
+    private char[] claves = new char[4];
+    private Contenedor[] contenedores = new Contenedor[4];
+    private int tamano;
+
+    boolean agregar(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("id must not be negative: " + id);
+        }
+        char clave = (char) (id >>> 16);
+        int posicion = Arrays.binarySearch(claves, 0, tamano, clave);
+        if (posicion < 0) {
+            posicion = -posicion - 1;
+            insertar(posicion, clave, new Contenedor());
+        }
+        return contenedores[posicion].agregar((char) id);
+    }
+
+    boolean contiene(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int posicion = Arrays.binarySearch(claves, 0, tamano, (char) (id >>> 16));
+        return posicion >= 0 && contenedores[posicion].contiene((char) id);
+    }
+
+    long cardinalidad() {
+        long total = 0;
+        for (int i = 0; i < tamano; i++) {
+            total += contenedores[i].cardinalidad;
+        }
+        return total;
+    }
+
+    // Número de ids presentes en este mapa y en el otro.
+    long cardinalidadComun(MapaBits otro) {
+        long total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < tamano && j < otro.tamano) {
+            if (claves[i] < otro.claves[j]) {
+                i++;
+            } else if (claves[i] > otro.claves[j]) {
+                j++;
+            } else {
+                total += contenedores[i].cardinalidadComun(otro.contenedores[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    void escribir(DataOutput salida) throws IOException {
+        salida.writeInt(tamano);
+        for (int i = 0; i < tamano; i++) {
+            salida.writeChar(claves[i]);
+            contenedores[i].escribir(salida);
+        }
+    }
+
+    static MapaBits leer(DataInput entrada) throws IOException {
+        MapaBits mapa = new MapaBits();
+        int tamano = entrada.readInt();
+        for (int i = 0; i < tamano; i++) {
+            char clave = entrada.readChar();
+            mapa.insertar(i, clave, Contenedor.leer(entrada));
+        }
+        return mapa;
+    }
+
+    private void insertar(int posicion, char clave, Contenedor contenedor) {
+        if (tamano == claves.length) {
+            claves = Arrays.copyOf(claves, tamano * 2);
+            contenedores = Arrays.copyOf(contenedores, tamano * 2);
+        }
+        System.arraycopy(claves, posicion, claves, posicion + 1, tamano - posicion);
+        System.arraycopy(contenedores, posicion, contenedores, posicion + 1, tamano - posicion);
+        claves[posicion] = clave;
+        contenedores[posicion] = contenedor;
+        tamano++;
+    }
+
+    /*
+     * Los 16 bits bajos de los ids de un bloque: en un arreglo ordenado (bits == null) mientras
+     * haya pocos, o en un bitset de 1024 palabras cuando el arreglo ocuparía más.
+     */
+    private static final class Contenedor {
+
+        private char[] valores = new char[4];
+        private long[] bits;
+        private int cardinalidad;
+
+        boolean agregar(char valor) {
+            if (bits != null) {
+                long antes = bits[valor >>> 6];
+                bits[valor >>> 6] = antes | (1L << valor);
+                if (antes == bits[valor >>> 6]) {
+                    return false;
+                }
+                cardinalidad++;
+                return true;
+            }
+            int posicion = Arrays.binarySearch(valores, 0, cardinalidad, valor);
+            if (posicion >= 0) {
+                return false;
+            }
+            if (cardinalidad == MAXIMO_ARREGLO) {
+                convertirABits();
+                return agregar(valor);
+            }
+            posicion = -posicion - 1;
+            if (cardinalidad == valores.length) {
+                valores = Arrays.copyOf(valores, Math.min(cardinalidad * 2, MAXIMO_ARREGLO));
+            }
+            System.arraycopy(valores, posicion, valores, posicion + 1, cardinalidad - posicion);
+            valores[posicion] = valor;
+            cardinalidad++;
+            return true;
+        }
+
+        boolean contiene(char valor) {
+            if (bits != null) {
+                return (bits[valor >>> 6] & (1L << valor)) != 0;
+            }
+            return Arrays.binarySearch(valores, 0, cardinalidad, valor) >= 0;
+        }
+
+        long cardinalidadComun(Contenedor otro) {
+            if (bits != null && otro.bits != null) {
+                long total = 0;
+                for (int i = 0; i < PALABRAS; i++) {
+                    total += Long.bitCount(bits[i] & otro.bits[i]);
+                }
+                return total;
+            }
+            if (bits != null || otro.bits != null) {
+                Contenedor arreglo = bits == null ? this : otro;
+                Contenedor conBits = bits == null ? otro : this;
+                long total = 0;
+                for (int i = 0; i < arreglo.cardinalidad; i++) {
+                    if (conBits.contiene(arreglo.valores[i])) {
+                        total++;
+                    }
+                }
+                return total;
+            }
+            long total = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinalidad && j < otro.cardinalidad) {
+                if (valores[i] < otro.valores[j]) {
+                    i++;
+                } else if (valores[i] > otro.valores[j]) {
+                    j++;
+                } else {
+                    total++;
+                    i++;
+                    j++;
+                }
+            }
+            return total;
+        }
+
+        void escribir(DataOutput salida) throws IOException {
+            if (bits != null) {
+                salida.writeByte(TIPO_BITS);
+                for (long palabra : bits) {
+                    salida.writeLong(palabra);
+                }
+                return;
+            }
+            salida.writeByte(TIPO_ARREGLO);
+            salida.writeShort(cardinalidad);
+            for (int i = 0; i < cardinalidad; i++) {
+                salida.writeChar(valores[i]);
+            }
+        }
+
+        static Contenedor leer(DataInput entrada) throws IOException {
+            Contenedor contenedor = new Contenedor();
+            byte tipo = entrada.readByte();
+            if (tipo == TIPO_BITS) {
+                contenedor.valores = null;
+                contenedor.bits = new long[PALABRAS];
+                for (int i = 0; i < PALABRAS; i++) {
+                    contenedor.bits[i] = entrada.readLong();
+                    contenedor.cardinalidad += Long.bitCount(contenedor.bits[i]);
+                }
+                return contenedor;
+            }
+            if (tipo != TIPO_ARREGLO) {
+                throw new IOException("Unknown bitmap container type " + tipo);
+            }
+            contenedor.cardinalidad = entrada.readUnsignedShort();
+            contenedor.valores = new char[Math.max(4, contenedor.cardinalidad)];
+            for (int i = 0; i < contenedor.cardinalidad; i++) {
+                contenedor.valores[i] = entrada.readChar();
+            }
+            return contenedor;
+        }
+
+        private void convertirABits() {
+            bits = new long[PALABRAS];
+            for (int i = 0; i < cardinalidad; i++) {
+                bits[valores[i] >>> 6] |= 1L << valores[i];
+            }
+            valores = null;
+        }
+    }
+}
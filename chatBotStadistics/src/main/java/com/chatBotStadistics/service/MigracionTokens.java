@@ -0,0 +1,51 @@
+package com.chatBotStadistics.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the column that held the full JWT of each token row, left behind when the token table
+ * switched to storing the hash of the token id.
+ *
+ * ddl-auto=update adds columns but never drops them, so the old varchar column and its unique
+ * index stayed on disk, with NULL in every new row. On startup, if the column still exists it
+ * is dropped; MySQL drops the unique index with it, since the column was its only part. Once
+ * the column is gone this is a single information_schema lookup.
+ */
+@Component
+public class MigracionTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionTokens.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MigracionTokens(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /*
+     * Si dos instancias arrancan a la vez, la segunda falla al borrar una columna que ya no
+     * existe; basta con registrarlo.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void borrarColumnaToken() {
+        try {
+            Integer columnas = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.columns " +
+                            "WHERE table_schema = SCHEMA() AND LOWER(table_name) = 'token' AND LOWER(column_name) = 'token'",
+                    Integer.class);
+            if (columnas == null || columnas == 0) {
+                return;
+            }
+            jdbcTemplate.execute("ALTER TABLE token DROP COLUMN token");
+            log.info("Dropped the token column and its unique index from the token table");
+        } catch (DataAccessException e) {
+            log.warn("Could not drop the token column from the token table: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.domain.Consulta;
+import com.chatBotStadistics.domain.Subtema;
+import com.chatBotStadistics.domain.Tema;
+import com.chatBotStadistics.repository.ConsultaRepository;
+import com.chatBotStadistics.repository.SubtemaRepository;
+import com.chatBotStadistics.repository.TemaRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory engine that answers the consulta statistics from a {@link TablaConsultas}.
+ *
+ * Enabled with {@code application.estadisticas.motor=memoria} (the default, {@code sql}, leaves
+ * it idle and empty). When enabled, the columns are loaded in the background on startup and
+ * every consulta stored through the API is appended after its transaction commits; until the
+ * load finishes {@link #activo()} is false and the statistics keep coming from MySQL, which
+ * remains the system of record. Bulk changes made through the API (rebuilding the rollups,
+ * backfilling subtemas or fechas) reload the table.
+ *
+ * The results have the same shape as the rows of the equivalent repository queries, so
+ * {@link ConsultaServiceImpl} can switch between both sources without further changes.
+ * Tema and subtema names are kept in memory and reread when an unknown id shows up.
+ *
+ * Scans over large tables run on a dedicated {@link ForkJoinPool} with
+ * {@code application.estadisticas.paralelismo} threads (0, the default, uses one per core), so
+ * unfiltered statistics over the whole history scale with the available cores.
+ */
+@Component
+public class MotorEstadisticas {
+
+    private static final Logger log = LoggerFactory.getLogger(MotorEstadisticas.class);
+
+    private final ConsultaRepository consultaRepository;
+    private final TemaRepository temaRepository;
+    private final SubtemaRepository subtemaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final ForkJoinPool pool;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private TablaConsultas tabla;
+    private List<int[]> pendientes;
+    private volatile boolean activo;
+    private volatile Map<Integer, String> nombresTema = Map.of();
+    private volatile Map<Integer, String> nombresSubtema = Map.of();
+
+    public MotorEstadisticas(ConsultaRepository consultaRepository, TemaRepository temaRepository,
+                             SubtemaRepository subtemaRepository, TransactionTemplate transactionTemplate,
+                             @Value("${application.estadisticas.motor:sql}") String motor,
+                             @Value("${application.estadisticas.paralelismo:0}") int paralelismo) {
+        this.consultaRepository = consultaRepository;
+        this.temaRepository = temaRepository;
+        this.subtemaRepository = subtemaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.habilitado = "memoria".equalsIgnoreCase(motor);
+        this.pool = habilitado
+                ? new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors())
+                : null;
+    }
+
+    public boolean activo() {
+        return activo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarEnSegundoPlano() {
+        if (!habilitado) {
+            return;
+        }
+        Thread carga = new Thread(this::recargar, "motor-estadisticas-carga");
+        carga.setDaemon(true);
+        carga.start();
+    }
+
+    /*
+     * La tabla nueva se lee sin bloquear: mientras tanto se sigue respondiendo con la anterior
+     * (o con MySQL) y las consultas registradas se guardan también en pendientes. Al terminar se
+     * agregan las pendientes que la lectura no vio y se reemplaza la tabla.
+     */
+    public void recargar() {
+        if (!habilitado) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendientes != null) {
+                return; // ya hay una carga en curso
+            }
+            pendientes = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        TablaConsultas nueva = new TablaConsultas(pool, TablaConsultas.FILAS_POR_SEGMENTO);
+        try {
+            cargarNombres();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> filas = consultaRepository.streamColumnas()) {
+                    filas.forEach(fila -> nueva.agregar((Integer) fila[0], valorOCero((Integer) fila[1]),
+                            valorOCero((Integer) fila[2]), valorOCero((Integer) fila[3]), valorOCero((Integer) fila[4]),
+                            valorOCero((Integer) fila[5]), valorOCero((Integer) fila[6]), dia((LocalDateTime) fila[7])));
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendientes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Could not load the statistics engine, statistics stay on SQL: {}", e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (int[] fila : pendientes) {
+                if (!nueva.contiene(fila[0])) {
+                    nueva.agregar(fila[0], fila[1], fila[2], fila[3], fila[4], fila[5], fila[6], fila[7]);
+                }
+            }
+            pendientes = null;
+            tabla = nueva;
+            activo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Statistics engine loaded: {} consultas", nueva.filas());
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    public void agregar(Consulta consulta) {
+        agregarTodas(List.of(consulta));
+    }
+
+    public void agregarTodas(List<Consulta> consultas) {
+        if (!habilitado) {
+            return;
+        }
+        List<int[]> filas = new ArrayList<>(consultas.size());
+        for (Consulta consulta : consultas) {
+            filas.add(new int[]{consulta.getId(), valorOCero(consulta.getYear()), valorOCero(consulta.getMonth()),
+                    valorOCero(consulta.getWeek()),
+                    consulta.getTema() != null ? valorOCero(consulta.getTema().getId()) : 0,
+                    consulta.getSubtema() != null ? valorOCero(consulta.getSubtema().getId()) : 0,
+                    consulta.getUsuario() != null ? valorOCero(consulta.getUsuario().getId()) : 0,
+                    dia(consulta.getFecha())});
+        }
+        /*
+         * Una consulta que se confirma antes de que la carga la lea pero cuyo aviso llega después
+         * del reemplazo ya está en la tabla, así que se descarta por id como en pendientes.
+         */
+        lock.writeLock().lock();
+        try {
+            if (tabla != null) {
+                for (int[] fila : filas) {
+                    if (!tabla.contiene(fila[0])) {
+                        tabla.agregar(fila[0], fila[1], fila[2], fila[3], fila[4], fila[5], fila[6], fila[7]);
+                    }
+                }
+            }
+            if (pendientes != null) {
+                pendientes.addAll(filas);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Object[]> contarPorTema(Integer year, Integer month, Integer week) {
+        return conNombres(leer(t -> t.contarPorTema(TablaConsultas.Filtro.periodo(year, month, week))), true);
+    }
+
+    public List<Object[]> contarPorTema(LocalDate desde, LocalDate hasta) {
+        return conNombres(leer(t -> t.contarPorTema(rango(desde, hasta))), true);
+    }
+
+    public List<Object[]> contarPorSubtema(Integer year, Integer month, Integer week) {
+        return conNombres(leer(t -> t.contarPorSubtema(TablaConsultas.Filtro.periodo(year, month, week))), false);
+    }
+
+    public List<Object[]> contarPorSubtema(LocalDate desde, LocalDate hasta) {
+        return conNombres(leer(t -> t.contarPorSubtema(rango(desde, hasta))), false);
+    }
+
+    public long contar(Integer year, Integer month, Integer week) {
+        return leer(t -> t.contar(TablaConsultas.Filtro.periodo(year, month, week)));
+    }
+
+    public long contar(LocalDate desde, LocalDate hasta) {
+        return leer(t -> t.contar(rango(desde, hasta)));
+    }
+
+    public long contarUsuarios(Integer year, Integer month, Integer week) {
+        return leer(t -> t.contarUsuarios(TablaConsultas.Filtro.periodo(year, month, week)));
+    }
+
+    public long contarUsuarios(LocalDate desde, LocalDate hasta) {
+        return leer(t -> t.contarUsuarios(rango(desde, hasta)));
+    }
+
+    // Filas [día, (nombre del tema o null), cantidad], como ConsultaRepository#countConsultasPorDia.
+    public List<Object[]> contarPorDia(LocalDate desde, LocalDate hasta, boolean porTema) {
+        TablaConsultas.PorDia porDia = leer(t -> t.contarPorDia((int) desde.toEpochDay(), (int) hasta.toEpochDay(), porTema));
+        List<Object[]> filas = new ArrayList<>();
+        for (int i = 0; i < porDia.conteos().length; i++) {
+            long[] delDia = porDia.conteos()[i];
+            if (delDia == null) {
+                continue;
+            }
+            LocalDate dia = LocalDate.ofEpochDay(porDia.desde() + i);
+            if (!porTema) {
+                filas.add(new Object[]{dia, delDia[0]});
+                continue;
+            }
+            for (int temaId = 0; temaId < delDia.length; temaId++) {
+                if (delDia[temaId] > 0) {
+                    filas.add(new Object[]{dia, temaId == 0 ? null : nombre(temaId, true), delDia[temaId]});
+                }
+            }
+        }
+        return filas;
+    }
+
+    private <T> T leer(Function<TablaConsultas, T> consulta) {
+        lock.readLock().lock();
+        try {
+            return consulta.apply(tabla);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Convierte conteos por id en filas [nombre, cantidad] agrupadas por nombre, omitiendo la
+     * posición 0 (sin tema o sin subtema), igual que el JOIN de las consultas SQL.
+     */
+    private List<Object[]> conNombres(long[] conteos, boolean esTema) {
+        Map<String, Long> porNombre = new HashMap<>();
+        for (int id = 1; id < conteos.length; id++) {
+            if (conteos[id] > 0) {
+                String nombre = nombre(id, esTema);
+                if (nombre != null) {
+                    porNombre.merge(nombre, conteos[id], Long::sum);
+                }
+            }
+        }
+        List<Object[]> filas = new ArrayList<>(porNombre.size());
+        porNombre.forEach((nombre, cantidad) -> filas.add(new Object[]{nombre, cantidad}));
+        return filas;
+    }
+
+    private String nombre(int id, boolean esTema) {
+        String nombre = (esTema ? nombresTema : nombresSubtema).get(id);
+        if (nombre == null) {
+            cargarNombres();
+            nombre = (esTema ? nombresTema : nombresSubtema).get(id);
+        }
+        return nombre;
+    }
+
+    private void cargarNombres() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Integer, String> temas = new HashMap<>();
+            for (Tema tema : temaRepository.findAll()) {
+                temas.put(tema.getId(), tema.getNombre());
+            }
+            Map<Integer, String> subtemas = new HashMap<>();
+            for (Subtema subtema : subtemaRepository.findAll()) {
+                subtemas.put(subtema.getId(), subtema.getNombre());
+            }
+            nombresTema = temas;
+            nombresSubtema = subtemas;
+        });
+    }
+
+    private static TablaConsultas.Filtro rango(LocalDate desde, LocalDate hasta) {
+        return TablaConsultas.Filtro.rango((int) desde.toEpochDay(), (int) hasta.toEpochDay());
+    }
+
+    private static int dia(LocalDateTime fecha) {
+        return fecha != null ? (int) fecha.toLocalDate().toEpochDay() : TablaConsultas.SIN_FECHA;
+    }
+
+    private static int valorOCero(Integer valor) {
+        return valor != null ? valor : 0;
+    }
+}
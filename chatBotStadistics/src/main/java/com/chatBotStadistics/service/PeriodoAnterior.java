@@ -0,0 +1,26 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.repository.ConsultaAgregadoRepository;
+
+/**
+ * The period a statistic is compared with: the previous year, month or week, with the
+ * granularity of the requested period (only its fields are set).
+ *
+ * For week 1 the previous period is the last week recorded in the previous month; when that
+ * month has no consultas, the whole month is used, which is simply empty.
+ */
+record PeriodoAnterior(Integer year, Integer month, Integer week) {
+
+    static PeriodoAnterior de(Integer year, Integer month, Integer week, ConsultaAgregadoRepository consultaAgregadoRepository) {
+        if (week != null && week > 1) {
+            return new PeriodoAnterior(year, month, week - 1);
+        }
+        if (month != null) {
+            int yearAnterior = month > 1 ? year : year - 1;
+            int monthAnterior = month > 1 ? month - 1 : 12;
+            Integer weekAnterior = week != null ? consultaAgregadoRepository.findUltimaSemana(yearAnterior, monthAnterior) : null;
+            return new PeriodoAnterior(yearAnterior, monthAnterior, weekAnterior);
+        }
+        return new PeriodoAnterior(year - 1, null, null);
+    }
+}
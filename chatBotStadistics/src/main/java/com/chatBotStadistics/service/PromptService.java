@@ -5,6 +5,7 @@ import com.chatBotStadistics.dto.PromptRequestDTO;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Service interface for managing operations related to Prompt entities.
@@ -18,6 +19,8 @@ import java.util.Optional;
  * - getPrompt: Retrieves a prompt by its unique identifier.
  * - updatePrompt: Updates the content of an existing prompt identified by its ID.
  * - createPrompt: Creates a new prompt with the provided content data.
+ * - getVersion: Returns the version of a prompt, which changes every time it is updated, or
+ *   empty if the prompt does not exist.
  */
 
 public interface PromptService {
@@ -25,5 +28,6 @@ public interface PromptService {
     Optional<Prompt> getPrompt(Integer id);
     Optional<Prompt> updatePrompt(Integer id, PromptRequestDTO promptRequestDTO);
     Prompt createPrompt(PromptRequestDTO promptRequestDTO);
+    OptionalLong getVersion(Integer id);
 
 }
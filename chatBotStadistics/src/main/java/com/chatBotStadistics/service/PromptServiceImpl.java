@@ -6,7 +6,11 @@ import com.chatBotStadistics.repository.PromptRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Implementation of the PromptService interface for managing Prompt entities.
@@ -19,6 +23,11 @@ import java.util.Optional;
  * This service interacts with the PromptRepository to handle data persistence
  * and retrieval operations. It ensures that input data is validated and updates
  * are only applied when relevant changes are provided.
+ *
+ * The version of a prompt, which the conditional GET of "/prompt/{id}" uses as its entity tag,
+ * is its modification time in microseconds, read with a single-column query instead of loading
+ * the prompt. The database keeps that column up to date, so updates made by other instances or
+ * straight in the database change the version too. Prompts never modified have version 0.
  */
 @Service
 public class PromptServiceImpl implements PromptService {
@@ -52,4 +61,14 @@ public class PromptServiceImpl implements PromptService {
         prompt.setContent(promptRequestDTO.content());
         return promptRepository.save(prompt);
     }
+
+    @Override
+    public OptionalLong getVersion(Integer id) {
+        List<LocalDateTime> actualizado = promptRepository.findActualizado(id);
+        if (actualizado.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        LocalDateTime fecha = actualizado.get(0);
+        return OptionalLong.of(fecha == null ? 0 : fecha.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + fecha.getNano() / 1_000);
+    }
 }
@@ -0,0 +1,115 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.repository.TokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scheduled purge of the token rows that can no longer authenticate anything.
+ *
+ * Every {@code application.security.tokens.purga-cada-ms} the rows of expired tokens (revoked or
+ * not) and of tokens without expiration (issued before token ids existed) are deleted in
+ * batches of {@code lote} ids, each in its own short transaction and with a pause of
+ * {@code pausa-ms} between batches, so logins and logouts never wait long for the table locks.
+ * Revoked tokens that have not expired are kept: {@link ListaRevocados} is rebuilt from them.
+ *
+ * A run stops after {@code max-lotes} batches and continues on the next one. The counters of
+ * the purges and the row counts of the table are available from {@link #estadisticas()}.
+ */
+@Component
+public class PurgaTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(PurgaTokens.class);
+
+    private final TokenRepository tokenRepository;
+    private final int lote;
+    private final int maxLotes;
+    private final long pausaMs;
+    private final AtomicLong purgas = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong borradas = new AtomicLong();
+    private volatile Ejecucion ultima;
+
+    public PurgaTokens(TokenRepository tokenRepository,
+                       @Value("${application.security.tokens.purga.lote:500}") int lote,
+                       @Value("${application.security.tokens.purga.max-lotes:200}") int maxLotes,
+                       @Value("${application.security.tokens.purga.pausa-ms:50}") long pausaMs) {
+        this.tokenRepository = tokenRepository;
+        this.lote = lote;
+        this.maxLotes = maxLotes;
+        this.pausaMs = pausaMs;
+    }
+
+    /**
+     * One run of the purge: rows deleted, batches and how long it took.
+     */
+    public record Ejecucion(Instant inicio, long borradas, int lotes, long duracionMs) {
+
+        public double filasPorSegundo() {
+            return duracionMs > 0 ? borradas * 1000.0 / duracionMs : borradas;
+        }
+    }
+
+    /**
+     * Row counts of the token table and the counters of the purges since startup.
+     */
+    public record Estadisticas(long total, long revocados, long caducados, long purgas, long lotes,
+                               long borradas, Ejecucion ultima) {
+    }
+
+    @Scheduled(initialDelayString = "${application.security.tokens.purga-cada-ms:3600000}",
+            fixedDelayString = "${application.security.tokens.purga-cada-ms:3600000}")
+    public synchronized Ejecucion purgar() {
+        Instant inicio = Instant.now();
+        long comienzo = System.nanoTime();
+        long total = 0;
+        int ejecutados = 0;
+        while (ejecutados < maxLotes) {
+            List<Integer> ids = tokenRepository.findIdsCaducados(inicio, Limit.of(lote));
+            if (ids.isEmpty()) {
+                break;
+            }
+            total += tokenRepository.deleteByIds(ids);
+            ejecutados++;
+            lotes.incrementAndGet();
+            if (ids.size() < lote || !pausar()) {
+                break;
+            }
+        }
+        borradas.addAndGet(total);
+        purgas.incrementAndGet();
+        Ejecucion ejecucion = new Ejecucion(inicio, total, ejecutados, (System.nanoTime() - comienzo) / 1_000_000);
+        ultima = ejecucion;
+        if (total > 0) {
+            log.info("Purged {} expired tokens in {} batches ({} ms)", total, ejecutados, ejecucion.duracionMs());
+        }
+        return ejecucion;
+    }
+
+    public Estadisticas estadisticas() {
+        Object[] fila = tokenRepository.contarPorEstado(Instant.now()).get(0);
+        return new Estadisticas(((Number) fila[0]).longValue(), ((Number) fila[1]).longValue(),
+                ((Number) fila[2]).longValue(), purgas.get(), lotes.get(), borradas.get(), ultima);
+    }
+
+    private boolean pausar() {
+        if (pausaMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausaMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.RetencionDTO;
+
+/**
+ * Service interface for the retention analysis of usuarios.
+ *
+ * Methods:
+ * - getRetencion: Returns the retention matrix of the weekly cohorts starting at the given week:
+ *   for the usuarios active in each week, how many were active again in each later week.
+ */
+public interface RetencionService {
+
+    RetencionDTO getRetencion(int year, int month, int week, int semanas);
+}
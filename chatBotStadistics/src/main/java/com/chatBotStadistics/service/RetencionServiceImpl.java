@@ -0,0 +1,43 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.CohorteDTO;
+import com.chatBotStadistics.dto.RetencionDTO;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service implementation for the retention analysis of usuarios.
+ *
+ * The matrix is computed by {@link ActividadUsuarios} from the per-week bitmaps of active
+ * usuarios, without querying the database; this class only turns the counts into percentages
+ * of each cohort.
+ */
+@Service
+public class RetencionServiceImpl implements RetencionService {
+
+    private final ActividadUsuarios actividadUsuarios;
+
+    public RetencionServiceImpl(ActividadUsuarios actividadUsuarios) {
+        this.actividadUsuarios = actividadUsuarios;
+    }
+
+    @Override
+    public RetencionDTO getRetencion(int year, int month, int week, int semanas) {
+        ActividadUsuarios.Retencion retencion = actividadUsuarios.retencion(year, month, week, semanas);
+        List<CohorteDTO> cohortes = new ArrayList<>(retencion.semanas().size());
+        for (int i = 0; i < retencion.semanas().size(); i++) {
+            ActividadUsuarios.Semana semana = retencion.semanas().get(i);
+            long usuarios = retencion.usuarios()[i];
+            List<Long> retenidos = new ArrayList<>();
+            List<Double> porcentajes = new ArrayList<>();
+            for (long cantidad : retencion.retenidos()[i]) {
+                retenidos.add(cantidad);
+                porcentajes.add(usuarios > 0 ? cantidad * 100.0 / usuarios : 0.0);
+            }
+            cohortes.add(new CohorteDTO(semana.year(), semana.month(), semana.week(), usuarios, retenidos, porcentajes));
+        }
+        return new RetencionDTO(cohortes.size(), cohortes);
+    }
+}
@@ -0,0 +1,119 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.UsuariosAproximadosDTO;
+import com.chatBotStadistics.repository.UsuarioPeriodoRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps one {@link HyperLogLog} sketch of active usuarios per (year, month, week) period.
+ *
+ * The sketches are built on first use from the usuario_periodo table and updated as new
+ * consultas are registered. Distinct-user counts for any combination of year, month and week
+ * are answered by merging the sketches of the matching periods, so the cost depends on the
+ * number of periods instead of the number of consultas or usuarios.
+ *
+ * Adding a usuario to a sketch is idempotent, so registering a consulta more than once or
+ * while the sketches are being rebuilt never inflates the estimate.
+ */
+@Component
+public class SketchUsuarios {
+
+    private final UsuarioPeriodoRepository usuarioPeriodoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Periodo, HyperLogLog> sketches = new ConcurrentHashMap<>();
+    private volatile boolean cargado;
+
+    public SketchUsuarios(UsuarioPeriodoRepository usuarioPeriodoRepository, TransactionTemplate transactionTemplate) {
+        this.usuarioPeriodoRepository = usuarioPeriodoRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void registrar(int year, int month, int week, int usuarioId) {
+        lock.readLock().lock();
+        try {
+            sketches.computeIfAbsent(new Periodo(year, month, week), periodo -> new HyperLogLog())
+                    .agregar(usuarioId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void reconstruir() {
+        lock.writeLock().lock();
+        try {
+            leer();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public UsuariosAproximadosDTO estimar(Integer year, Integer month, Integer week) {
+        cargar();
+        HyperLogLog union = new HyperLogLog();
+        lock.readLock().lock();
+        try {
+            sketches.forEach((periodo, sketch) -> {
+                if (periodo.incluido(year, month, week)) {
+                    union.unir(sketch);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long estimacion = union.estimar();
+        double errorRelativo = HyperLogLog.errorRelativo();
+        long margen = Math.round(2 * errorRelativo * estimacion);
+        return new UsuariosAproximadosDTO(estimacion, errorRelativo, Math.max(0, estimacion - margen), estimacion + margen);
+    }
+
+    /*
+     * La comprobación se repite con el bloqueo de escritura tomado: si dos lecturas llegan antes
+     * de la primera carga, solo una reconstruye, y registrar espera a que termine en lugar de
+     * escribir en los sketches que se están sustituyendo.
+     */
+    private void cargar() {
+        if (cargado) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!cargado) {
+                leer();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Debe llamarse con el bloqueo de escritura tomado.
+    private void leer() {
+        sketches.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> filas = usuarioPeriodoRepository.streamActividad()) {
+                filas.forEach(fila -> sketches
+                        .computeIfAbsent(new Periodo((Integer) fila[0], (Integer) fila[1], (Integer) fila[2]),
+                                periodo -> new HyperLogLog())
+                        .agregar((Integer) fila[3]));
+            }
+        });
+        cargado = true;
+    }
+
+    private record Periodo(int year, int month, int week) {
+
+        boolean incluido(Integer filtroYear, Integer filtroMonth, Integer filtroWeek) {
+            return (filtroYear == null || filtroYear == year)
+                    && (filtroMonth == null || filtroMonth == month)
+                    && (filtroWeek == null || filtroWeek == week);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.chatBotStadistics.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Column store of the consulta attributes used by the statistics, one primitive int array
+ * per column and no object per row.
+ *
+ * Row i holds the id, year, month, week, tema id, subtema id and usuario id of a consulta
+ * (0 when missing, as in the rollups) and the epoch day of its fecha ({@link #SIN_FECHA} when
+ * missing). Every statistic is a single sequential pass over the columns it reads, grouping
+ * into arrays indexed by tema, subtema or usuario id, so a query touches a few sequential
+ * memory blocks instead of a B-tree.
+ *
+ * With a {@link ForkJoinPool}, tables larger than one segment are scanned in parallel: the rows
+ * are split into contiguous id-ordered segments, each one is aggregated on its own, and the
+ * partial counts (or user bitsets) are merged. Without a pool, or for small tables, the scan
+ * runs on the calling thread.
+ *
+ * Ids usually arrive in increasing order; {@link #contiene(int)} binary searches the sorted
+ * prefix and scans the short unsorted tail left by out-of-order arrivals. The class is not
+ * thread-safe; {@link MotorEstadisticas} guards it with a lock.
+ */
+class TablaConsultas {
+
+    static final int SIN_FECHA = Integer.MIN_VALUE;
+    static final int FILAS_POR_SEGMENTO = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final int filasPorSegmento;
+
+    private int[] ids = new int[1024];
+    private int[] years = new int[1024];
+    private int[] months = new int[1024];
+    private int[] weeks = new int[1024];
+    private int[] temas = new int[1024];
+    private int[] subtemas = new int[1024];
+    private int[] usuarios = new int[1024];
+    private int[] dias = new int[1024];
+    private int filas;
+    private int ordenadas;
+    private int maxTema;
+    private int maxSubtema;
+    private int maxUsuario;
+    private int minDia = Integer.MAX_VALUE;
+    private int maxDia = Integer.MIN_VALUE;
+
+    TablaConsultas() {
+        this(null, FILAS_POR_SEGMENTO);
+    }
+
+    TablaConsultas(ForkJoinPool pool, int filasPorSegmento) {
+        this.pool = pool;
+        this.filasPorSegmento = filasPorSegmento;
+    }
+
+    /*
+     * Filtro de periodo (year, month, week, con -1 como "sin filtro") y rango de días inclusivo.
+     * Sin rango, desde y hasta cubren todos los enteros, incluido SIN_FECHA.
+     */
+    record Filtro(int year, int month, int week, int diaDesde, int diaHasta) {
+
+        static Filtro periodo(Integer year, Integer month, Integer week) {
+            return new Filtro(year != null ? year : -1, month != null ? month : -1, week != null ? week : -1,
+                    Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+
+        static Filtro rango(int diaDesde, int diaHasta) {
+            return new Filtro(-1, -1, -1, diaDesde, diaHasta);
+        }
+    }
+
+    void agregar(int id, int year, int month, int week, int temaId, int subtemaId, int usuarioId, int dia) {
+        if (filas == ids.length) {
+            int capacidad = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacidad);
+            years = Arrays.copyOf(years, capacidad);
+            months = Arrays.copyOf(months, capacidad);
+            weeks = Arrays.copyOf(weeks, capacidad);
+            temas = Arrays.copyOf(temas, capacidad);
+            subtemas = Arrays.copyOf(subtemas, capacidad);
+            usuarios = Arrays.copyOf(usuarios, capacidad);
+            dias = Arrays.copyOf(dias, capacidad);
+        }
+        if (ordenadas == filas && (filas == 0 || id > ids[filas - 1])) {
+            ordenadas++;
+        }
+        ids[filas] = id;
+        years[filas] = year;
+        months[filas] = month;
+        weeks[filas] = week;
+        temas[filas] = temaId;
+        subtemas[filas] = subtemaId;
+        usuarios[filas] = usuarioId;
+        dias[filas] = dia;
+        filas++;
+        maxTema = Math.max(maxTema, temaId);
+        maxSubtema = Math.max(maxSubtema, subtemaId);
+        maxUsuario = Math.max(maxUsuario, usuarioId);
+        if (dia != SIN_FECHA) {
+            minDia = Math.min(minDia, dia);
+            maxDia = Math.max(maxDia, dia);
+        }
+    }
+
+    boolean contiene(int id) {
+        if (Arrays.binarySearch(ids, 0, ordenadas, id) >= 0) {
+            return true;
+        }
+        for (int i = ordenadas; i < filas; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int filas() {
+        return filas;
+    }
+
+    long contar(Filtro filtro) {
+        return reducir((desde, hasta) -> {
+            long total = 0;
+            for (int i = desde; i < hasta; i++) {
+                if (coincide(i, filtro)) {
+                    total++;
+                }
+            }
+            return total;
+        }, Long::sum);
+    }
+
+    // Posición = id del tema; la posición 0 cuenta las consultas sin tema.
+    long[] contarPorTema(Filtro filtro) {
+        return contarPor(temas, maxTema, filtro);
+    }
+
+    long[] contarPorSubtema(Filtro filtro) {
+        return contarPor(subtemas, maxSubtema, filtro);
+    }
+
+    long contarUsuarios(Filtro filtro) {
+        int capacidad = maxUsuario + 1;
+        BitSet vistos = reducir((desde, hasta) -> {
+            BitSet segmento = new BitSet(capacidad);
+            for (int i = desde; i < hasta; i++) {
+                if (usuarios[i] != 0 && coincide(i, filtro)) {
+                    segmento.set(usuarios[i]);
+                }
+            }
+            return segmento;
+        }, (a, b) -> {
+            a.or(b);
+            return a;
+        });
+        return vistos.cardinality();
+    }
+
+    /*
+     * Conteos por día desde el primer día con datos dentro del rango: conteos[día - desde][tema]
+     * (o [día - desde][0] si no se agrupa por tema). Los días sin consultas quedan en null.
+     */
+    record PorDia(int desde, long[][] conteos) {
+    }
+
+    PorDia contarPorDia(int diaDesde, int diaHasta, boolean porTema) {
+        int desde = Math.max(diaDesde, minDia);
+        int hasta = Math.min(diaHasta, maxDia);
+        if (desde > hasta) {
+            return new PorDia(desde, new long[0][]);
+        }
+        int numeroDias = hasta - desde + 1;
+        int columnas = porTema ? maxTema + 1 : 1;
+        long[][] conteos = reducir((inicio, fin) -> {
+            long[][] segmento = new long[numeroDias][];
+            for (int i = inicio; i < fin; i++) {
+                int dia = dias[i];
+                if (dia >= desde && dia <= hasta) {
+                    long[] delDia = segmento[dia - desde];
+                    if (delDia == null) {
+                        delDia = new long[columnas];
+                        segmento[dia - desde] = delDia;
+                    }
+                    delDia[porTema ? temas[i] : 0]++;
+                }
+            }
+            return segmento;
+        }, (a, b) -> {
+            for (int dia = 0; dia < a.length; dia++) {
+                if (a[dia] == null) {
+                    a[dia] = b[dia];
+                } else if (b[dia] != null) {
+                    sumar(a[dia], b[dia]);
+                }
+            }
+            return a;
+        });
+        return new PorDia(desde, conteos);
+    }
+
+    private long[] contarPor(int[] columna, int maximo, Filtro filtro) {
+        return reducir((desde, hasta) -> {
+            long[] conteos = new long[maximo + 1];
+            for (int i = desde; i < hasta; i++) {
+                if (coincide(i, filtro)) {
+                    conteos[columna[i]]++;
+                }
+            }
+            return conteos;
+        }, TablaConsultas::sumar);
+    }
+
+    private static long[] sumar(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+        return a;
+    }
+
+    // Resultado parcial de las filas [desde, hasta).
+    @FunctionalInterface
+    private interface Segmento<T> {
+        T calcular(int desde, int hasta);
+    }
+
+    /*
+     * Las tareas solo leen los arreglos: quien llama mantiene el bloqueo de lectura del motor
+     * mientras espera el resultado, así que ninguna escritura puede cruzarse con el recorrido.
+     */
+    private <T> T reducir(Segmento<T> segmento, BinaryOperator<T> combinar) {
+        if (pool == null || filas <= filasPorSegmento) {
+            return segmento.calcular(0, filas);
+        }
+        return pool.invoke(new Particion<>(segmento, combinar, 0, filas));
+    }
+
+    private final class Particion<T> extends RecursiveTask<T> {
+
+        private final Segmento<T> segmento;
+        private final BinaryOperator<T> combinar;
+        private final int desde;
+        private final int hasta;
+
+        Particion(Segmento<T> segmento, BinaryOperator<T> combinar, int desde, int hasta) {
+            this.segmento = segmento;
+            this.combinar = combinar;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected T compute() {
+            if (hasta - desde <= filasPorSegmento) {
+                return segmento.calcular(desde, hasta);
+            }
+            int mitad = (desde + hasta) >>> 1;
+            Particion<T> derecha = new Particion<>(segmento, combinar, mitad, hasta);
+            derecha.fork();
+            T izquierda = new Particion<>(segmento, combinar, desde, mitad).compute();
+            return combinar.apply(izquierda, derecha.join());
+        }
+    }
+
+    private boolean coincide(int i, Filtro filtro) {
+        return (filtro.year() < 0 || years[i] == filtro.year())
+                && (filtro.month() < 0 || months[i] == filtro.month())
+                && (filtro.week() < 0 || weeks[i] == filtro.week())
+                && dias[i] >= filtro.diaDesde() && dias[i] <= filtro.diaHasta();
+    }
+}
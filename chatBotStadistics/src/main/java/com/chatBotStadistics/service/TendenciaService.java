@@ -0,0 +1,15 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.TendenciasDTO;
+
+/**
+ * Service interface for the trend analysis of the terms used in consultas.
+ *
+ * Methods:
+ * - getTendencias: Returns the terms whose share of the consultas grew the most from the
+ *   previous period to the given one (a year, a month or a week), optionally for a single tema.
+ */
+public interface TendenciaService {
+
+    TendenciasDTO getTendencias(Integer year, Integer month, Integer week, Integer temaId, int limite);
+}
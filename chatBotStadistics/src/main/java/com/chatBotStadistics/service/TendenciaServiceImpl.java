@@ -0,0 +1,92 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.TendenciaDTO;
+import com.chatBotStadistics.dto.TendenciasDTO;
+import com.chatBotStadistics.repository.ConsultaAgregadoRepository;
+import com.chatBotStadistics.repository.TerminoPeriodoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service implementation for the trend analysis of the terms used in consultas.
+ *
+ * Trends are read from the termino_periodo rollup, which is filled as consultas are stored,
+ * so the raw messages are never scanned. The most frequent terms of the period are taken as
+ * candidates, their counts in the previous period are read with a single IN query, and they
+ * are ranked by growth: the term's share of the consultas in the period divided by its share
+ * in the previous period. One is added to the previous count and total, so terms that are new
+ * in the period get a finite growth that still favours the more frequent ones.
+ *
+ * The previous period has the granularity of the request (see {@link PeriodoAnterior}).
+ */
+@Service
+public class TendenciaServiceImpl implements TendenciaService {
+
+    /* Un término que aparece una sola vez no es una tendencia. */
+    private static final long MINIMO_APARICIONES = 2;
+    private static final int CANDIDATOS_POR_RESULTADO = 20;
+    private static final int CANDIDATOS_MAXIMO = 1_000;
+
+    private final TerminoPeriodoRepository terminoPeriodoRepository;
+    private final ConsultaAgregadoRepository consultaAgregadoRepository;
+
+    public TendenciaServiceImpl(TerminoPeriodoRepository terminoPeriodoRepository, ConsultaAgregadoRepository consultaAgregadoRepository) {
+        this.terminoPeriodoRepository = terminoPeriodoRepository;
+        this.consultaAgregadoRepository = consultaAgregadoRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public TendenciasDTO getTendencias(Integer year, Integer month, Integer week, Integer temaId, int limite) {
+        PeriodoAnterior anterior = PeriodoAnterior.de(year, month, week, consultaAgregadoRepository);
+        Integer yearAnterior = anterior.year();
+        Integer monthAnterior = anterior.month();
+        Integer weekAnterior = anterior.week();
+
+        long consultas = contarConsultas(year, month, week, temaId);
+        long consultasAnterior = contarConsultas(yearAnterior, monthAnterior, weekAnterior, temaId);
+        List<TendenciaDTO> terminos = new ArrayList<>();
+        if (consultas > 0) {
+            int candidatos = Math.min(limite * CANDIDATOS_POR_RESULTADO, CANDIDATOS_MAXIMO);
+            List<Object[]> actuales = terminoPeriodoRepository.findTerminos(year, month, week, temaId, MINIMO_APARICIONES, candidatos);
+            Map<String, Long> anteriores = new HashMap<>();
+            if (consultasAnterior > 0) {
+                List<String> nombres = actuales.stream().map(fila -> (String) fila[0]).toList();
+                for (Object[] fila : terminoPeriodoRepository.countTerminos(yearAnterior, monthAnterior, weekAnterior, temaId, nombres)) {
+                    anteriores.put((String) fila[0], ((Number) fila[1]).longValue());
+                }
+            }
+            for (Object[] fila : actuales) {
+                String termino = (String) fila[0];
+                long total = ((Number) fila[1]).longValue();
+                long totalAnterior = anteriores.getOrDefault(termino, 0L);
+                double crecimiento = ((double) total / consultas) / ((totalAnterior + 1.0) / (consultasAnterior + 1.0));
+                if (crecimiento > 1) {
+                    terminos.add(new TendenciaDTO(termino, total, totalAnterior, Math.round(crecimiento * 100) / 100.0));
+                }
+            }
+            terminos.sort(Comparator.comparing(TendenciaDTO::crecimiento).reversed()
+                    .thenComparing(Comparator.comparing(TendenciaDTO::total).reversed())
+                    .thenComparing(TendenciaDTO::termino));
+        }
+        return new TendenciasDTO(year, month, week, yearAnterior, monthAnterior, weekAnterior, consultas, consultasAnterior,
+                terminos.size() > limite ? List.copyOf(terminos.subList(0, limite)) : terminos);
+    }
+
+    private long contarConsultas(Integer year, Integer month, Integer week, Integer temaId) {
+        long total = 0;
+        for (Object[] fila : consultaAgregadoRepository.countConsultasByTemaId(year, month, week)) {
+            if (temaId == null || temaId.equals(fila[0])) {
+                total += ((Number) fila[1]).longValue();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,72 @@
+package com.chatBotStadistics.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits Spanish text into the terms stored in the full-text index.
+ *
+ * Text is decomposed (NFD) and its combining marks removed, so "Matemáticas", "MATEMATICAS"
+ * and "matemáticas" all produce "matematicas" (and "niño" produces "nino"). Terms are the runs
+ * of letters and digits; single characters and common Spanish stop words are dropped.
+ * The same rules are applied to documents and to queries. For trend analysis,
+ * {@link #ngramas(String)} also returns each pair of consecutive terms.
+ */
+final class Tokenizador {
+
+    private static final int LONGITUD_MAXIMA_NGRAMA = 50;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Set<String> VACIAS = Set.of(
+            "al", "como", "con", "de", "del", "el", "en", "es", "esta", "este", "ha", "la", "las", "le",
+            "lo", "los", "mas", "me", "mi", "no", "para", "pero", "por", "que", "se", "si", "sin", "su",
+            "sus", "te", "tu", "un", "una", "uno", "y", "ya");
+
+    private Tokenizador() {
+    }
+
+    static Set<String> terminos(String texto) {
+        return new LinkedHashSet<>(secuencia(texto));
+    }
+
+    /*
+     * Términos y pares de términos consecutivos (sin contar las palabras vacías), sin repetir.
+     * Los términos demasiado largos suelen ser enlaces o texto pegado y no se cuentan.
+     */
+    static Set<String> ngramas(String texto) {
+        List<String> secuencia = secuencia(texto);
+        Set<String> ngramas = new LinkedHashSet<>();
+        for (int i = 0; i < secuencia.size(); i++) {
+            String termino = secuencia.get(i);
+            if (termino.length() > LONGITUD_MAXIMA_NGRAMA) {
+                continue;
+            }
+            ngramas.add(termino);
+            if (i + 1 < secuencia.size() && secuencia.get(i + 1).length() <= LONGITUD_MAXIMA_NGRAMA) {
+                ngramas.add(termino + " " + secuencia.get(i + 1));
+            }
+        }
+        return ngramas;
+    }
+
+    private static List<String> secuencia(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return terminos;
+        }
+        String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String termino : SEPARADORES.split(normalizado)) {
+            if (termino.length() > 1 && !VACIAS.contains(termino)) {
+                terminos.add(termino);
+            }
+        }
+        return terminos;
+    }
+}
@@ -0,0 +1,30 @@
+package com.chatBotStadistics.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helpers for running in-memory side effects of database writes.
+ */
+final class Transacciones {
+
+    private Transacciones() {
+    }
+
+    /*
+     * Ejecuta la acción cuando la transacción actual se confirma, o de inmediato si no hay transacción.
+     * Así las estructuras en memoria nunca reflejan cambios que luego se revierten.
+     */
+    static void despuesDeConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
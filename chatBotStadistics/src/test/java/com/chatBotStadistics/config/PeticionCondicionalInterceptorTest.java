@@ -0,0 +1,82 @@
+package com.chatBotStadistics.config;
+
+import com.chatBotStadistics.controllers.PromptController;
+import com.chatBotStadistics.domain.Prompt;
+import com.chatBotStadistics.dto.PromptRequestDTO;
+import com.chatBotStadistics.service.EstadisticasCache;
+import com.chatBotStadistics.service.PromptService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for {@link PeticionCondicionalInterceptor} on "/prompt/{id}".
+ *
+ * Verifies that a GET whose If-None-Match matches the prompt version is answered 304 without
+ * running the controller, that the same tag gets a 200 and a new tag once the prompt has been
+ * written, and that unknown prompts reach the controller.
+ */
+class PeticionCondicionalInterceptorTest {
+
+    private final PromptService promptService = mock(PromptService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PromptController(promptService))
+            .addInterceptors(new PeticionCondicionalInterceptor(new EstadisticasCache(500, 30_000), promptService))
+            .build();
+
+    @Test
+    void getPrompt_ShouldReturnNotModified_WhenIfNoneMatchMatches() throws Exception {
+        when(promptService.getVersion(1)).thenReturn(OptionalLong.of(5));
+        when(promptService.getPrompt(1)).thenReturn(Optional.of(new Prompt(1, "Prompt chatbot")));
+
+        mockMvc.perform(get("/prompt/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"5\""));
+        mockMvc.perform(get("/prompt/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"5\""))
+                .andExpect(status().isNotModified());
+
+        verify(promptService, times(1)).getPrompt(1);
+    }
+
+    @Test
+    void getPrompt_ShouldReturnOk_WithTheSameTag_AfterAWrite() throws Exception {
+        AtomicLong version = new AtomicLong(5);
+        when(promptService.getVersion(1)).thenAnswer(invocacion -> OptionalLong.of(version.get()));
+        when(promptService.getPrompt(1)).thenReturn(Optional.of(new Prompt(1, "Prompt chatbot")));
+        when(promptService.updatePrompt(eq(1), any(PromptRequestDTO.class))).thenAnswer(invocacion -> {
+            // La base de datos avanza la fecha de modificación con el UPDATE.
+            version.set(6);
+            return Optional.of(new Prompt(1, "Nuevo prompt"));
+        });
+
+        mockMvc.perform(get("/prompt/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"5\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(put("/prompt/1").contentType(MediaType.APPLICATION_JSON).content("{\"content\":\"Nuevo prompt\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/prompt/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"6\""));
+    }
+
+    @Test
+    void getPrompt_ShouldReachTheController_WhenThePromptDoesNotExist() throws Exception {
+        when(promptService.getVersion(99)).thenReturn(OptionalLong.empty());
+        when(promptService.getPrompt(99)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/prompt/99").header(HttpHeaders.IF_NONE_MATCH, "W/\"0\""))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+}
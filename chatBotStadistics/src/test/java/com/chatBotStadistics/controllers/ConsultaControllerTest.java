@@ -1,6 +1,16 @@
 package com.chatBotStadistics.controllers;
 
+import com.chatBotStadistics.domain.Consulta;
 import com.chatBotStadistics.domain.Prompt;
+import com.chatBotStadistics.dto.CacheEstadisticasDTO;
+import com.chatBotStadistics.dto.ConsultaRequestDTO;
+import com.chatBotStadistics.dto.IntervaloSerie;
+import com.chatBotStadistics.dto.PaginaEstadisticasDTO;
+import com.chatBotStadistics.dto.PuntoSerieDTO;
+import com.chatBotStadistics.dto.ResumenConsultasDTO;
+import com.chatBotStadistics.dto.SubtemaEstadisticaDTO;
+import com.chatBotStadistics.dto.TemaEstadisticaDTO;
+import com.chatBotStadistics.dto.UsuariosAproximadosDTO;
 import com.chatBotStadistics.dto.PromptRequestDTO;
 import com.chatBotStadistics.service.ConsultaService;
 import com.chatBotStadistics.service.PromptService;
@@ -17,7 +27,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -152,4 +164,188 @@ class ConsultaControllerTest {
         assertTrue(responseNull >= response);
         verifyNoMoreInteractions(consultaService);
     }
-}
\ No newline at end of file
+
+    @Test
+    void registrarConsulta_ShouldReturnCreated() {
+        //Arrange parameters.
+        ConsultaRequestDTO request = new ConsultaRequestDTO("Hola", 1, 2, 1, 15, 6, 2025, 3);
+        Consulta consulta = new Consulta();
+        consulta.setId(1);
+        when(consultaService.registrarConsulta(request)).thenReturn(consulta);
+
+        //ACT
+        ResponseEntity<Consulta> response = controller.registrarConsulta(request);
+
+        //ASSERT
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(consulta, response.getBody());
+    }
+
+    @Test
+    void reconstruirAgregados_ShouldReturnNoContent() {
+        ResponseEntity<Void> response = controller.reconstruirAgregados();
+
+        verify(consultaService, times(1)).reconstruirAgregados();
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    }
+
+    @Test
+    void obtenerEstadisticasCache() {
+        CacheEstadisticasDTO expected = new CacheEstadisticasDTO(10, 2, 1, 3, 500);
+        when(consultaService.getEstadisticasCache()).thenReturn(expected);
+
+        CacheEstadisticasDTO response = controller.obtenerEstadisticasCache();
+
+        assertEquals(expected, response);
+    }
+
+    @Test
+    void obtenerResumen() {
+        //Arrange parameters.
+        Integer year = 2025;
+        Integer month = 6;
+        Integer week = 4;
+        ResumenConsultasDTO expected = new ResumenConsultasDTO(
+                Map.of("itemA", 100.0), Map.of("subItemA", 100.0), 20L, 5L);
+        when(consultaService.getResumen(year, month, week)).thenReturn(expected);
+
+        //ACT
+        ResumenConsultasDTO response = controller.obtenerResumen(year, month, week);
+
+        //ASSERT
+        verify(consultaService, times(1)).getResumen(year, month, week);
+        assertEquals(expected, response);
+        verifyNoMoreInteractions(consultaService);
+    }
+
+    @Test
+    void completarSubtemas_ShouldReturnUpdatedRows() {
+        when(consultaService.completarSubtemas()).thenReturn(42);
+
+        Integer response = controller.completarSubtemas();
+
+        verify(consultaService, times(1)).completarSubtemas();
+        assertEquals(42, response);
+    }
+
+    @Test
+    void obtenerTotalUsuariosAproximado() {
+        //Arrange parameters.
+        Integer year = 2025;
+        UsuariosAproximadosDTO expected = new UsuariosAproximadosDTO(1000, 0.01625, 968, 1032);
+        when(consultaService.getUsuariosAproximados(year, null, null)).thenReturn(expected);
+
+        //ACT
+        UsuariosAproximadosDTO response = controller.obtenerTotalUsuariosAproximado(year, null, null);
+
+        //ASSERT
+        assertEquals(expected, response);
+        verify(consultaService, never()).getUsuarios(any(), any(), any());
+    }
+
+    @Test
+    void obtenerSerie_ShouldReturnSeries() {
+        //Arrange parameters.
+        LocalDate desde = LocalDate.of(2025, 1, 1);
+        LocalDate hasta = LocalDate.of(2025, 3, 31);
+        List<PuntoSerieDTO> expected = List.of(
+                new PuntoSerieDTO(LocalDate.of(2025, 1, 1), 10L, null),
+                new PuntoSerieDTO(LocalDate.of(2025, 2, 1), 0L, null),
+                new PuntoSerieDTO(LocalDate.of(2025, 3, 1), 4L, null));
+        when(consultaService.getSerie(desde, hasta, IntervaloSerie.MES, false)).thenReturn(expected);
+
+        //ACT
+        ResponseEntity<List<PuntoSerieDTO>> response = controller.obtenerSerie(desde, hasta, IntervaloSerie.MES, false);
+
+        //ASSERT
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expected, response.getBody());
+    }
+
+    @Test
+    void obtenerSerie_ShouldReturnBadRequest_WhenRangeIsInverted() {
+        ResponseEntity<List<PuntoSerieDTO>> response = controller.obtenerSerie(
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 1, 1), IntervaloSerie.DIA, false);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(consultaService);
+    }
+
+    @Test
+    void obtenerSerie_ShouldReturnBadRequest_WhenThereAreTooManyIntervals() {
+        LocalDate desde = LocalDate.of(1, 1, 1);
+        LocalDate hasta = LocalDate.of(2025, 1, 1);
+        when(consultaService.getSerie(desde, hasta, IntervaloSerie.DIA, false))
+                .thenThrow(new IllegalArgumentException("The series may have at most 1000 intervals"));
+
+        ResponseEntity<List<PuntoSerieDTO>> response = controller.obtenerSerie(desde, hasta, IntervaloSerie.DIA, false);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void obtenerEstadisticasPorTemaEntre_ShouldReturnRangeStatistics() {
+        //Arrange parameters.
+        LocalDate desde = LocalDate.of(2025, 7, 1);
+        LocalDate hasta = LocalDate.of(2025, 9, 30);
+        Map<String, Double> expectedMap = Map.of("Matematicas", 75.0, "Programacion", 25.0);
+        when(consultaService.getEstadisticasPorTema(desde, hasta)).thenReturn(expectedMap);
+
+        //ACT
+        ResponseEntity<Map<String, Double>> response = controller.obtenerEstadisticasPorTemaEntre(desde, hasta);
+
+        //ASSERT
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedMap, response.getBody());
+    }
+
+    @Test
+    void obtenerTotalConsultasEntre_ShouldReturnBadRequest_WhenRangeIsInverted() {
+        ResponseEntity<Long> response = controller.obtenerTotalConsultasEntre(
+                LocalDate.of(2025, 9, 30), LocalDate.of(2025, 7, 1));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(consultaService);
+    }
+
+    @Test
+    void completarFechas_ShouldReturnUpdatedRows() {
+        when(consultaService.completarFechas()).thenReturn(42);
+
+        Integer result = controller.completarFechas();
+
+        assertEquals(42, result);
+    }
+
+    @Test
+    void obtenerTopTemas_ShouldReturnOrderedPage() {
+        //Arrange parameters.
+        PaginaEstadisticasDTO<TemaEstadisticaDTO> expected = new PaginaEstadisticasDTO<>(List.of(
+                new TemaEstadisticaDTO("Programacion", 60L, 60.0),
+                new TemaEstadisticaDTO("Matematicas", 30L, 30.0)), 0, 2, true, 100L);
+        when(consultaService.getTopTemas(2025, null, null, 0, 2)).thenReturn(expected);
+
+        //ACT
+        ResponseEntity<PaginaEstadisticasDTO<TemaEstadisticaDTO>> response = controller.obtenerTopTemas(2025, null, null, 0, 2);
+
+        //ASSERT
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expected, response.getBody());
+    }
+
+    @Test
+    void obtenerTopSubtemas_ShouldReturnBadRequest_WhenPageSizeIsTooLarge() {
+        ResponseEntity<PaginaEstadisticasDTO<SubtemaEstadisticaDTO>> response = controller.obtenerTopSubtemas(null, null, null, 0, 1000);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(consultaService);
+    }
+
+    @Test
+    void obtenerTopTemas_ShouldReturnBadRequest_WhenPageIsTooLarge() {
+        ResponseEntity<PaginaEstadisticasDTO<TemaEstadisticaDTO>> response = controller.obtenerTopTemas(null, null, null, 30_000_000, 100);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(consultaService);
+    }
+}
@@ -0,0 +1,128 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.domain.EstadoAgregados;
+import com.chatBotStadistics.repository.ConsultaAgregadoRepository;
+import com.chatBotStadistics.repository.ConsultaRepository;
+import com.chatBotStadistics.repository.EstadoAgregadosRepository;
+import com.chatBotStadistics.repository.IngestaRepository;
+import com.chatBotStadistics.repository.TerminoPeriodoRepository;
+import com.chatBotStadistics.repository.UsuarioPeriodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link AgregadoServiceImpl}.
+ *
+ * Verifies that the rebuild reads the consultas page by page, each page in its own transaction
+ * with the counts written before the next page is read, that every consulta is counted once
+ * across pages, and that a rebuild stops when another one has taken over the cursor.
+ */
+class AgregadoServiceImplTest {
+
+    private final ConsultaRepository consultaRepository = mock(ConsultaRepository.class);
+    private final IngestaRepository ingestaRepository = mock(IngestaRepository.class);
+    private final EstadoAgregadosRepository estadoAgregadosRepository = mock(EstadoAgregadosRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final EstadoAgregados estado = new EstadoAgregados(EstadoAgregados.ID, 0, null, null);
+
+    private final AgregadoServiceImpl agregadoService = new AgregadoServiceImpl(mock(ConsultaAgregadoRepository.class),
+            mock(UsuarioPeriodoRepository.class), mock(EstadisticasCache.class), mock(SketchUsuarios.class),
+            ingestaRepository, consultaRepository, mock(TerminoPeriodoRepository.class), mock(MotorEstadisticas.class),
+            mock(ActividadUsuarios.class), estadoAgregadosRepository, transactionTemplate, 1000);
+
+    @BeforeEach
+    void setUp() {
+        when(estadoAgregadosRepository.bloquear(EstadoAgregados.ID)).thenReturn(Optional.of(estado));
+        when(transactionTemplate.execute(any())).thenAnswer(invocacion ->
+                ((TransactionCallback<?>) invocacion.getArgument(0)).doInTransaction(null));
+        doAnswer(invocacion -> {
+            ((Consumer<TransactionStatus>) invocacion.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconstruir_ShouldWriteEachPageInItsOwnTransaction_WhenThereAreMoreRowsThanOneBatch() {
+        int filas = AgregadoServiceImpl.LOTE_RECONSTRUCCION + 1;
+        when(consultaRepository.findMaxId()).thenReturn(filas);
+        when(consultaRepository.findParaReconstruir(anyInt(), anyInt(), any(Limit.class))).thenAnswer(invocacion -> {
+            int desdeId = invocacion.getArgument(0);
+            int hastaId = invocacion.getArgument(1);
+            int limite = ((Limit) invocacion.getArgument(2)).max();
+            List<Object[]> pagina = new ArrayList<>();
+            for (int id = desdeId + 1; id <= Math.min(hastaId, desdeId + limite); id++) {
+                pagina.add(new Object[]{id, 2025, 1, 1, 1, id % 10, "examen"});
+            }
+            return pagina;
+        });
+
+        agregadoService.reconstruir();
+
+        InOrder orden = inOrder(consultaRepository, ingestaRepository);
+        orden.verify(consultaRepository).findParaReconstruir(eq(0), eq(filas), any(Limit.class));
+        orden.verify(ingestaRepository).incrementarTerminos(any());
+        orden.verify(consultaRepository).findParaReconstruir(eq(AgregadoServiceImpl.LOTE_RECONSTRUCCION), eq(filas), any(Limit.class));
+        orden.verify(ingestaRepository).incrementarTerminos(any());
+        verify(consultaRepository, times(2)).findParaReconstruir(anyInt(), anyInt(), any(Limit.class));
+        verify(transactionTemplate, times(2)).execute(any());
+
+        ArgumentCaptor<List<int[]>> agregados = ArgumentCaptor.forClass(List.class);
+        verify(ingestaRepository, times(2)).incrementarAgregados(agregados.capture());
+        assertEquals(filas, agregados.getAllValues().stream().flatMap(List::stream).mapToInt(fila -> fila[4]).sum());
+        ArgumentCaptor<List<int[]>> usuarios = ArgumentCaptor.forClass(List.class);
+        verify(ingestaRepository, times(2)).incrementarUsuariosPeriodo(usuarios.capture());
+        assertEquals(filas, usuarios.getAllValues().stream().flatMap(List::stream).mapToInt(fila -> fila[4]).sum());
+        ArgumentCaptor<List<Object[]>> terminos = ArgumentCaptor.forClass(List.class);
+        verify(ingestaRepository, times(2)).incrementarTerminos(terminos.capture());
+        assertEquals(filas, terminos.getAllValues().stream().flatMap(List::stream).mapToInt(fila -> (Integer) fila[5]).sum());
+
+        assertNull(estado.getReconstruccionDesdeId());
+        assertEquals(filas, estado.getUltimaConsultaId());
+    }
+
+    @Test
+    void reconstruir_ShouldStop_WhenAnotherRebuildMovedTheCursor() {
+        int filas = AgregadoServiceImpl.LOTE_RECONSTRUCCION * 3;
+        when(consultaRepository.findMaxId()).thenReturn(filas);
+        when(consultaRepository.findParaReconstruir(anyInt(), anyInt(), any(Limit.class))).thenAnswer(invocacion -> {
+            int desdeId = invocacion.getArgument(0);
+            List<Object[]> pagina = new ArrayList<>();
+            for (int id = desdeId + 1; id <= desdeId + AgregadoServiceImpl.LOTE_RECONSTRUCCION; id++) {
+                pagina.add(new Object[]{id, 2025, 1, 1, 1, null, "examen"});
+            }
+            return pagina;
+        });
+        // La tercera lectura de la fila llega después de que otra reconstrucción empezara de nuevo.
+        AtomicInteger lecturas = new AtomicInteger();
+        when(estadoAgregadosRepository.bloquear(EstadoAgregados.ID)).thenAnswer(invocacion -> {
+            if (lecturas.incrementAndGet() == 3) {
+                estado.setReconstruccionDesdeId(0);
+            }
+            return Optional.of(estado);
+        });
+
+        agregadoService.reconstruir();
+
+        verify(consultaRepository, times(1)).findParaReconstruir(anyInt(), anyInt(), any(Limit.class));
+        assertEquals(0, estado.getReconstruccionDesdeId());
+    }
+}
@@ -0,0 +1,70 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.domain.AdminUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CacheAutenticacion}.
+ *
+ * Verifies that principals are loaded once until they expire or are invalidated, that missing
+ * admins are not remembered, and that a load running during an invalidation is not cached.
+ */
+class CacheAutenticacionTest {
+
+    @Test
+    void principal_ShouldLoadOnce_UntilAdminIsInvalidated() {
+        CacheAutenticacion cache = new CacheAutenticacion(60_000, 10);
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.principal("ana@example.com", () -> cargar(cargas, "ana@example.com"));
+        cache.principal("ana@example.com", () -> cargar(cargas, "ana@example.com"));
+        cache.principal("luis@example.com", () -> cargar(cargas, "luis@example.com"));
+        assertEquals(2, cargas.get());
+
+        cache.invalidarAdmin("ana@example.com");
+        cache.principal("ana@example.com", () -> cargar(cargas, "ana@example.com"));
+        cache.principal("luis@example.com", () -> cargar(cargas, "luis@example.com"));
+
+        assertEquals(3, cargas.get());
+    }
+
+    @Test
+    void principal_ShouldNotCacheLoad_RunningDuringInvalidation() {
+        CacheAutenticacion cache = new CacheAutenticacion(60_000, 10);
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.principal("ana@example.com", () -> {
+            cache.invalidarAdmin("ana@example.com");
+            return cargar(cargas, "ana@example.com");
+        });
+        cache.principal("ana@example.com", () -> cargar(cargas, "ana@example.com"));
+
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void principal_ShouldExpireAfterTtl_AndNotRememberMissingAdmins() throws InterruptedException {
+        CacheAutenticacion cache = new CacheAutenticacion(1, 10);
+        AtomicInteger cargas = new AtomicInteger();
+        cache.principal("ana@example.com", () -> cargar(cargas, "ana@example.com"));
+
+        Thread.sleep(5);
+        cache.principal("ana@example.com", () -> cargar(cargas, "ana@example.com"));
+
+        assertEquals(2, cargas.get());
+        assertTrue(cache.principal("nadie@example.com", Optional::empty).isEmpty());
+        assertTrue(cache.principal("nadie@example.com", () -> cargar(cargas, "nadie@example.com")).isPresent());
+    }
+
+    private static Optional<CacheAutenticacion.PrincipalAdmin> cargar(AtomicInteger cargas, String email) {
+        cargas.incrementAndGet();
+        AdminUser adminUser = AdminUser.builder().email(email).name("Ana").password("x").build();
+        return Optional.of(new CacheAutenticacion.PrincipalAdmin(adminUser, User.builder().username(email).password("x").build()));
+    }
+}
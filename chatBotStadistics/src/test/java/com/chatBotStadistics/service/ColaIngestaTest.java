@@ -0,0 +1,103 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.ColaIngestaDTO;
+import com.chatBotStadistics.dto.IngestaConsultaDTO;
+import com.chatBotStadistics.dto.IngestaResultadoDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ColaIngesta}.
+ *
+ * Verifies that batches that do not fit are rejected whole, that queued consultas are written
+ * in groups, that a failing group is retried one by one, and that stopping the queue flushes
+ * everything still pending.
+ */
+class ColaIngestaTest {
+
+    private static IngestaConsultaDTO consulta(String mensaje) {
+        return new IngestaConsultaDTO(mensaje, null, null, null, null, null, 1, 1, 2025, 1);
+    }
+
+    private static List<IngestaConsultaDTO> consultas(int cantidad) {
+        List<IngestaConsultaDTO> consultas = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            consultas.add(consulta("c" + i));
+        }
+        return consultas;
+    }
+
+    @Test
+    void encolar_ShouldRejectWholeBatch_WhenQueueIsFull() throws InterruptedException {
+        CountDownLatch escribiendo = new CountDownLatch(1);
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        ColaIngesta cola = new ColaIngesta(lote -> {
+            escribiendo.countDown();
+            try {
+                bloqueo.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new IngestaResultadoDTO(lote.size(), 0, 0);
+        }, 3, 1, 10);
+        cola.iniciar();
+
+        assertTrue(cola.encolar(consultas(1)));
+        assertTrue(escribiendo.await(10, TimeUnit.SECONDS)); // el escritor queda bloqueado con la primera
+        assertTrue(cola.encolar(consultas(3)));
+        assertFalse(cola.encolar(consultas(1)));
+
+        bloqueo.countDown();
+        cola.detener();
+        ColaIngestaDTO estadisticas = cola.estadisticas();
+        assertEquals(4, estadisticas.aceptadas());
+        assertEquals(1, estadisticas.rechazadas());
+        assertEquals(4, estadisticas.escritas());
+    }
+
+    @Test
+    void detener_ShouldFlushPendingConsultasInGroups() throws InterruptedException {
+        List<Integer> tamanos = Collections.synchronizedList(new ArrayList<>());
+        ColaIngesta cola = new ColaIngesta(lote -> {
+            tamanos.add(lote.size());
+            return new IngestaResultadoDTO(lote.size(), 0, 0);
+        }, 100, 10, 5_000);
+        cola.iniciar();
+
+        assertTrue(cola.encolar(consultas(25)));
+        cola.detener();
+
+        assertEquals(25, tamanos.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(tamanos.stream().allMatch(tamano -> tamano <= 10));
+        assertTrue(tamanos.size() < 25);
+        assertEquals(25, cola.estadisticas().escritas());
+        assertFalse(cola.encolar(consultas(1)));
+    }
+
+    @Test
+    void confirmar_ShouldRetryOneByOne_WhenGroupCommitFails() throws InterruptedException {
+        CountDownLatch escritas = new CountDownLatch(2);
+        ColaIngesta cola = new ColaIngesta(lote -> {
+            if (lote.stream().anyMatch(consulta -> consulta.mensaje().equals("mala"))) {
+                throw new IllegalArgumentException("Tema not found");
+            }
+            escritas.countDown();
+            return new IngestaResultadoDTO(lote.size(), 0, 0);
+        }, 10, 10, 50);
+        cola.iniciar();
+
+        assertTrue(cola.encolar(List.of(consulta("buena"), consulta("mala"), consulta("otra"))));
+        assertTrue(escritas.await(10, TimeUnit.SECONDS));
+        cola.detener();
+
+        assertEquals(2, cola.estadisticas().escritas());
+        assertEquals(1, cola.estadisticas().descartadas());
+    }
+}
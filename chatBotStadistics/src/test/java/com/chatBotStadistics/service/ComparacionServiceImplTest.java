@@ -0,0 +1,76 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.ComparacionDTO;
+import com.chatBotStadistics.dto.ComparacionTemaDTO;
+import com.chatBotStadistics.repository.ConsultaAgregadoRepository;
+import com.chatBotStadistics.repository.UsuarioPeriodoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ComparacionServiceImpl}.
+ *
+ * Verifies that both periods come from one grouped read per rollup, that the totals include
+ * the consultas without tema, and that the deltas and shares are computed per tema.
+ */
+@ExtendWith(MockitoExtension.class)
+class ComparacionServiceImplTest {
+
+    @Mock
+    private ConsultaAgregadoRepository consultaAgregadoRepository;
+
+    @Mock
+    private UsuarioPeriodoRepository usuarioPeriodoRepository;
+
+    @InjectMocks
+    private ComparacionServiceImpl comparacionService;
+
+    @Test
+    void getComparacion_ShouldCompareWeek_WithPreviousWeek() {
+        when(consultaAgregadoRepository.countConsultasComparadas(2025, 3, 2, 2025, 3, 1)).thenReturn(List.of(
+                new Object[]{1, "Matemáticas", 60L, 40L},
+                new Object[]{2, "Programación", 30L, 0L},
+                new Object[]{0, null, 10L, 10L}));
+        when(usuarioPeriodoRepository.countUsuariosComparados(2025, 3, 2, 2025, 3, 1))
+                .thenReturn(new Object[]{25L, 20L});
+
+        ComparacionDTO comparacion = comparacionService.getComparacion(2025, 3, 2);
+
+        assertEquals(1, comparacion.weekAnterior());
+        assertEquals(100L, comparacion.consultas().actual());
+        assertEquals(50L, comparacion.consultas().anterior());
+        assertEquals(100.0, comparacion.consultas().variacion());
+        assertEquals(5L, comparacion.usuarios().diferencia());
+        assertEquals(25.0, comparacion.usuarios().variacion());
+        assertEquals(List.of("Matemáticas", "Programación"), comparacion.temas().stream().map(ComparacionTemaDTO::tema).toList());
+        ComparacionTemaDTO programacion = comparacion.temas().get(1);
+        assertEquals(30L, programacion.diferencia());
+        assertNull(programacion.variacion());
+        assertEquals(100.0 / 3, programacion.porcentaje(), 1e-9);
+        assertEquals(0.0, programacion.porcentajeAnterior());
+    }
+
+    @Test
+    void getComparacion_ShouldCompareJanuary_WithDecemberOfPreviousYear() {
+        when(consultaAgregadoRepository.countConsultasComparadas(2025, 1, null, 2024, 12, null)).thenReturn(List.of());
+        when(usuarioPeriodoRepository.countUsuariosComparados(2025, 1, null, 2024, 12, null))
+                .thenReturn(new Object[]{0L, 0L});
+
+        ComparacionDTO comparacion = comparacionService.getComparacion(2025, 1, null);
+
+        assertEquals(2024, comparacion.yearAnterior());
+        assertEquals(12, comparacion.monthAnterior());
+        assertEquals(0L, comparacion.consultas().actual());
+        assertNull(comparacion.consultas().variacion());
+        assertTrue(comparacion.temas().isEmpty());
+        verify(consultaAgregadoRepository, never()).findUltimaSemana(anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,59 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.ConversacionDTO;
+import com.chatBotStadistics.dto.PaginaConversacionesDTO;
+import com.chatBotStadistics.repository.ConsultaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ConversacionServiceImpl}.
+ *
+ * Verifies that one extra row is requested to detect the following page, that the cursor
+ * is the id of the last conversation returned, and that the last page has no cursor.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConversacionServiceImplTest {
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    @InjectMocks
+    private ConversacionServiceImpl conversacionService;
+
+    @Test
+    void getConversaciones_ShouldReturnCursor_WhenMoreRowsExist() {
+        when(consultaRepository.findConversaciones(7, null, 100, 3))
+                .thenReturn(List.of(fila(99), fila(98), fila(97)));
+
+        PaginaConversacionesDTO pagina = conversacionService.getConversaciones(7, null, 100, 2);
+
+        assertEquals(List.of(99, 98), pagina.conversaciones().stream().map(ConversacionDTO::consultaId).toList());
+        assertEquals(98, pagina.siguiente());
+        assertEquals("respuesta 99", pagina.conversaciones().get(0).respuesta());
+    }
+
+    @Test
+    void getConversaciones_ShouldNotReturnCursor_OnLastPage() {
+        when(consultaRepository.findConversaciones(null, 3, null, 3)).thenReturn(List.<Object[]>of(fila(5)));
+
+        PaginaConversacionesDTO pagina = conversacionService.getConversaciones(null, 3, null, 2);
+
+        assertEquals(1, pagina.conversaciones().size());
+        assertNull(pagina.siguiente());
+    }
+
+    private static Object[] fila(int id) {
+        return new Object[]{id, LocalDateTime.of(2025, 3, 1, 10, 0), 3, "Mate", "Algebra", 7,
+                "consulta " + id, id + 1000, "respuesta " + id};
+    }
+}
@@ -0,0 +1,105 @@
+package com.chatBotStadistics.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link EstadisticasCache}.
+ *
+ * Verifies that results are reused between calls, that inserting a consulta only
+ * invalidates the entries whose filters match its period, that the size bound is
+ * respected, which periods are treated as closed, and which data versions advance on a change.
+ */
+class EstadisticasCacheTest {
+
+    @Test
+    void obtener_ShouldReuseCachedResult() {
+        EstadisticasCache cache = new EstadisticasCache(10, 60_000);
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.obtener("consultas", 2020, 5, 2, cargas::incrementAndGet);
+        Integer segundo = cache.obtener("consultas", 2020, 5, 2, cargas::incrementAndGet);
+
+        assertEquals(1, segundo);
+        assertEquals(1, cargas.get());
+        assertEquals(1, cache.estadisticas().hits());
+        assertEquals(1, cache.estadisticas().misses());
+    }
+
+    @Test
+    void invalidar_ShouldOnlyDropMatchingPeriods() {
+        EstadisticasCache cache = new EstadisticasCache(10, 60_000);
+        cache.obtener("consultas", 2020, 5, 2, () -> 1L);
+        cache.obtener("consultas", 2020, 6, 1, () -> 1L);
+        cache.obtener("consultas", 2020, null, null, () -> 1L);
+
+        cache.invalidar(2020, 5, 2);
+
+        assertEquals(1, cache.estadisticas().size());
+        assertEquals(2, cache.estadisticas().invalidaciones());
+    }
+
+    @Test
+    void obtener_ShouldEvictLeastRecentlyUsed_WhenFull() {
+        EstadisticasCache cache = new EstadisticasCache(2, 60_000);
+        cache.obtener("consultas", 2020, 1, 1, () -> 1L);
+        cache.obtener("consultas", 2020, 2, 1, () -> 2L);
+        cache.obtener("consultas", 2020, 3, 1, () -> 3L);
+
+        assertEquals(2, cache.estadisticas().size());
+    }
+
+    @Test
+    void version_ShouldOnlyAdvanceForMatchingFilters() {
+        EstadisticasCache cache = new EstadisticasCache(10, 60_000);
+        String semana = cache.version(2020, 5, 2).etag();
+        String otroMes = cache.version(2020, 6, null).etag();
+        String anio = cache.version(2020, null, null).etag();
+        String total = cache.version(null, null, null).etag();
+
+        cache.invalidar(2020, 5, 2);
+
+        assertNotEquals(semana, cache.version(2020, 5, 2).etag());
+        assertEquals(otroMes, cache.version(2020, 6, null).etag());
+        assertNotEquals(anio, cache.version(2020, null, null).etag());
+        assertNotEquals(total, cache.version(null, null, null).etag());
+    }
+
+    @Test
+    void version_ShouldAdvanceEverywhere_WhenPeriodIsIncomplete() {
+        EstadisticasCache cache = new EstadisticasCache(10, 60_000);
+        String semana = cache.version(2020, 5, 2).etag();
+
+        cache.invalidar(2020, null, null);
+
+        assertNotEquals(semana, cache.version(2020, 5, 2).etag());
+    }
+
+    @Test
+    void invalidarRangos_ShouldOnlyAdvanceUnfilteredVersion() {
+        EstadisticasCache cache = new EstadisticasCache(10, 60_000);
+        String anio = cache.version(2020, null, null).etag();
+        String total = cache.version(null, null, null).etag();
+
+        cache.invalidarRangos();
+
+        assertEquals(anio, cache.version(2020, null, null).etag());
+        assertNotEquals(total, cache.version(null, null, null).etag());
+    }
+
+    @Test
+    void esPeriodoCerrado_ShouldOnlyCloseFinishedYearsAndMonths() {
+        LocalDate hoy = LocalDate.of(2025, 6, 15);
+
+        assertTrue(EstadisticasCache.esPeriodoCerrado(2024, null, hoy));
+        assertTrue(EstadisticasCache.esPeriodoCerrado(2025, 5, hoy));
+        assertFalse(EstadisticasCache.esPeriodoCerrado(2025, 6, hoy));
+        assertFalse(EstadisticasCache.esPeriodoCerrado(2025, null, hoy));
+        assertFalse(EstadisticasCache.esPeriodoCerrado(null, 1, hoy));
+        assertFalse(EstadisticasCache.esPeriodoCerrado(2026, 1, hoy));
+    }
+}
@@ -0,0 +1,67 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.FormatoExportacion;
+import com.chatBotStadistics.repository.ConsultaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ExportacionServiceImpl}.
+ *
+ * Verifies the CSV and NDJSON output for a streamed row, including quoting of messages
+ * with separators and line breaks, and that the inclusive date range is turned into a
+ * half-open range on fecha.
+ */
+@ExtendWith(MockitoExtension.class)
+class ExportacionServiceImplTest {
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    @InjectMocks
+    private ExportacionServiceImpl exportacionService;
+
+    private static Object[] fila() {
+        return new Object[]{7, LocalDateTime.of(2025, 1, 6, 10, 30), 6, 1, 2025, 2, "Matematicas", null, 3,
+                "Hola, \"bot\"\nayuda", 9, "Claro"};
+    }
+
+    @Test
+    void exportar_ShouldWriteQuotedCsv() throws IOException {
+        when(consultaRepository.streamExportacion(LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0), 1))
+                .thenReturn(Stream.<Object[]>of(fila()));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportacionService.exportar(FormatoExportacion.CSV, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), 1, salida);
+
+        assertEquals("consultaId,fecha,day,month,year,week,tema,subtema,usuarioId,mensaje,respuestaId,respuesta\r\n"
+                        + "7,2025-01-06T10:30,6,1,2025,2,Matematicas,,3,\"Hola, \"\"bot\"\"\nayuda\",9,Claro\r\n",
+                salida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportar_ShouldWriteOneJsonObjectPerLine() throws IOException {
+        when(consultaRepository.streamExportacion(null, null, null)).thenReturn(Stream.of(fila(), fila()));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportacionService.exportar(FormatoExportacion.NDJSON, null, null, null, salida);
+
+        String linea = "{\"consultaId\":7,\"fecha\":\"2025-01-06T10:30\",\"day\":6,\"month\":1,\"year\":2025,\"week\":2,"
+                + "\"tema\":\"Matematicas\",\"subtema\":null,\"usuarioId\":3,\"mensaje\":\"Hola, \\\"bot\\\"\\nayuda\","
+                + "\"respuestaId\":9,\"respuesta\":\"Claro\"}\n";
+        assertEquals(linea + linea, salida.toString(StandardCharsets.UTF_8));
+    }
+}
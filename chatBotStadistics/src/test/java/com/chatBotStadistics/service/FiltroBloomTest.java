@@ -0,0 +1,37 @@
+package com.chatBotStadistics.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FiltroBloom}.
+ *
+ * Checks that added hashes are always found and that the false positive rate stays close to
+ * the configured one at full capacity.
+ */
+class FiltroBloomTest {
+
+    @Test
+    void puedeContener_ShouldFindEveryAddedHash_AndKeepFalsePositivesNearRate() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.agregar(hash("revocado-" + i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.puedeContener(hash("revocado-" + i)));
+        }
+        int falsos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.puedeContener(hash("valido-" + i))) {
+                falsos++;
+            }
+        }
+        assertTrue(falsos < 2_000, "false positives: " + falsos);
+    }
+
+    private static byte[] hash(String jti) {
+        return java.util.HexFormat.of().parseHex(ListaRevocados.hash(jti));
+    }
+}
@@ -0,0 +1,79 @@
+package com.chatBotStadistics.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HashContrasenas}.
+ *
+ * Verifies that hashes computed on the pool match the delegate, that hashes beyond the pool
+ * and its queue are refused right away, and that the latency is counted.
+ */
+class HashContrasenasTest {
+
+    @Test
+    void encodeAndMatches_ShouldRunOnPool_AndCountLatency() {
+        try (HashContrasenas hash = new HashContrasenas(new BCryptPasswordEncoder(4), 4, 2, 4, 5_000)) {
+            String codificada = hash.encode("secreto");
+
+            assertTrue(hash.matches("secreto", codificada));
+            assertFalse(hash.matches("otro", codificada));
+            HashContrasenas.Estadisticas estadisticas = hash.estadisticas();
+            assertEquals(3, estadisticas.hashes());
+            assertEquals(4, estadisticas.coste());
+            assertTrue(estadisticas.latenciaMaximaMs() >= estadisticas.latenciaMediaMs());
+            assertEquals(0, estadisticas.rechazados());
+        }
+    }
+
+    @Test
+    void matches_ShouldRejectRightAway_WhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch ocupados = new CountDownLatch(2);
+        PasswordEncoder lento = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                ocupados.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        ExecutorService peticiones = Executors.newFixedThreadPool(3);
+        try (HashContrasenas hash = new HashContrasenas(lento, 4, 2, 1, 5_000)) {
+            Future<Boolean> primera = peticiones.submit(() -> hash.matches("a", "a"));
+            Future<Boolean> segunda = peticiones.submit(() -> hash.matches("b", "b"));
+            assertTrue(ocupados.await(5, TimeUnit.SECONDS));
+            Future<Boolean> encolada = peticiones.submit(() -> hash.matches("c", "c"));
+            while (hash.estadisticas().enCola() == 0) {
+                Thread.onSpinWait();
+            }
+
+            LoginRechazadoException e = assertThrows(LoginRechazadoException.class, () -> hash.matches("d", "d"));
+
+            assertEquals(LoginRechazadoException.Motivo.SATURADO, e.getMotivo());
+            liberar.countDown();
+            assertTrue(primera.get() && segunda.get() && encolada.get());
+            assertEquals(1, hash.estadisticas().rechazados());
+        } finally {
+            peticiones.shutdownNow();
+        }
+    }
+}
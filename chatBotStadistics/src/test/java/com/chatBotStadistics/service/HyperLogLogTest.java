@@ -0,0 +1,65 @@
+package com.chatBotStadistics.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HyperLogLog}.
+ *
+ * Checks that estimates stay within the expected error for small and large cardinalities,
+ * that repeated values are not counted twice, and that merged sketches estimate the union.
+ */
+class HyperLogLogTest {
+
+    @Test
+    void estimar_ShouldBeExact_ForEmptySketch() {
+        assertEquals(0, new HyperLogLog().estimar());
+    }
+
+    @Test
+    void estimar_ShouldIgnoreRepeatedValues() {
+        HyperLogLog unaVez = new HyperLogLog();
+        HyperLogLog repetido = new HyperLogLog();
+        for (int usuario = 1; usuario <= 100; usuario++) {
+            unaVez.agregar(usuario);
+        }
+        for (int i = 0; i < 10; i++) {
+            for (int usuario = 1; usuario <= 100; usuario++) {
+                repetido.agregar(usuario);
+            }
+        }
+
+        assertEquals(unaVez.estimar(), repetido.estimar());
+        assertEquals(100, repetido.estimar(), 100 * 3 * HyperLogLog.errorRelativo());
+    }
+
+    @Test
+    void estimar_ShouldStayWithinErrorBound_ForLargeCardinality() {
+        HyperLogLog sketch = new HyperLogLog();
+        int distintos = 200_000;
+        for (int usuario = 0; usuario < distintos; usuario++) {
+            sketch.agregar(usuario);
+        }
+
+        double margen = 3 * HyperLogLog.errorRelativo() * distintos;
+        assertEquals(distintos, sketch.estimar(), margen);
+    }
+
+    @Test
+    void unir_ShouldEstimateUnionOfSketches() {
+        HyperLogLog semana1 = new HyperLogLog();
+        HyperLogLog semana2 = new HyperLogLog();
+        for (int usuario = 0; usuario < 30_000; usuario++) {
+            semana1.agregar(usuario);
+        }
+        for (int usuario = 20_000; usuario < 50_000; usuario++) {
+            semana2.agregar(usuario);
+        }
+
+        semana1.unir(semana2);
+
+        double margen = 3 * HyperLogLog.errorRelativo() * 50_000;
+        assertEquals(50_000, semana1.estimar(), margen);
+    }
+}
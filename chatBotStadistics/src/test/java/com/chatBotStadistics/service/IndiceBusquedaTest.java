@@ -0,0 +1,70 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.repository.ConsultaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link IndiceBusqueda}.
+ *
+ * Verifies that a rebuild reads the database without blocking registrations or searches, and
+ * that the consultas registered while it runs end up in the new index.
+ */
+class IndiceBusquedaTest {
+
+    @TempDir
+    Path directorio;
+
+    private final ConsultaRepository consultaRepository = mock(ConsultaRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconstruir_ShouldNotBlockRegistrar_AndKeepTheConsultasRegisteredMeanwhile() throws Exception {
+        when(transactionTemplate.execute(any())).thenAnswer(invocacion ->
+                ((TransactionCallback<Object>) invocacion.getArgument(0)).doInTransaction(null));
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(consultaRepository.streamTextos(anyInt())).thenReturn(Stream.<Object[]>of(new Object[]{1, 1, fecha, "hola mundo", null}));
+        IndiceBusqueda indiceBusqueda = new IndiceBusqueda(consultaRepository, transactionTemplate,
+                directorio.resolve("indice.bin").toString());
+        assertEquals(1, indiceBusqueda.buscar("mundo", null, null, null, 0, 10).total());
+
+        CountDownLatch leyendo = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        when(consultaRepository.streamTextos(anyInt())).thenAnswer(invocacion -> {
+            leyendo.countDown();
+            assertTrue(continuar.await(5, TimeUnit.SECONDS));
+            return Stream.<Object[]>of(new Object[]{1, 1, fecha, "hola mundo", null});
+        });
+        ExecutorService hilos = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> reconstruccion = hilos.submit(indiceBusqueda::reconstruir);
+            assertTrue(leyendo.await(5, TimeUnit.SECONDS));
+
+            indiceBusqueda.registrar(2, 1, fecha, "mundo nuevo");
+            assertEquals(2, indiceBusqueda.buscar("mundo", null, null, null, 0, 10).total());
+
+            continuar.countDown();
+            reconstruccion.get(5, TimeUnit.SECONDS);
+        } finally {
+            hilos.shutdownNow();
+        }
+        assertEquals(2, indiceBusqueda.buscar("mundo", null, null, null, 0, 10).total());
+    }
+}
@@ -0,0 +1,95 @@
+package com.chatBotStadistics.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link IndiceTexto} and {@link Tokenizador}.
+ *
+ * Checks that accents and case are ignored, that every term must match, that tema and date
+ * filters and paging are applied newest first, and that a saved index reads back the same.
+ */
+class IndiceTextoTest {
+
+    private static final int LUNES = (int) LocalDate.of(2024, 3, 4).toEpochDay();
+    private static final int MARTES = LUNES + 1;
+
+    @Test
+    void terminos_ShouldIgnoreAccentsCaseAndStopWords() {
+        assertEquals(Set.of("matematicas", "nino", "examen"),
+                Tokenizador.terminos("¿El NIÑO y el examen de Matemáticas?"));
+    }
+
+    @Test
+    void ngramas_ShouldAddPairsOfConsecutiveTerms() {
+        assertEquals(Set.of("horario", "biblioteca", "horario biblioteca", "central", "biblioteca central", "central horario"),
+                Tokenizador.ngramas("Horario de la biblioteca central, horario"));
+    }
+
+    @Test
+    void buscar_ShouldRequireEveryTerm_NewestFirst() {
+        IndiceTexto indice = indice();
+
+        IndiceTexto.Resultado resultado = indice.buscar(List.of("horario", "biblioteca"), null, null, null, 0, 10);
+
+        assertArrayEquals(new int[]{4, 1}, resultado.ids());
+        assertEquals(2, resultado.total());
+        assertEquals(0, indice.buscar(List.of("biblioteca", "piscina"), null, null, null, 0, 10).total());
+    }
+
+    @Test
+    void buscar_ShouldApplyFiltersAndPaging() {
+        IndiceTexto indice = indice();
+
+        assertArrayEquals(new int[]{4}, indice.buscar(List.of("horario"), 2, null, null, 0, 10).ids());
+        assertArrayEquals(new int[]{3, 1}, indice.buscar(List.of("horario"), null, LUNES, LUNES, 0, 10).ids());
+
+        IndiceTexto.Resultado segundaPagina = indice.buscar(List.of("horario"), null, null, null, 2, 2);
+        assertArrayEquals(new int[]{1}, segundaPagina.ids());
+        assertEquals(3, segundaPagina.total());
+    }
+
+    @Test
+    void agregar_ShouldIgnoreAlreadyIndexedConsultas() {
+        IndiceTexto indice = indice();
+
+        assertFalse(indice.agregar(3, 1, LUNES, Set.of("natacion")));
+        assertEquals(0, indice.buscar(List.of("natacion"), null, null, null, 0, 10).total());
+    }
+
+    @Test
+    void escribir_ShouldReadBackTheSameIndex() throws IOException {
+        IndiceTexto indice = indice();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        indice.escribir(new DataOutputStream(bytes));
+
+        IndiceTexto leido = IndiceTexto.leer(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(indice.documentos(), leido.documentos());
+        assertEquals(indice.terminos(), leido.terminos());
+        assertEquals(4, leido.maxId());
+        assertArrayEquals(new int[]{3, 1}, leido.buscar(List.of("horario"), 1, LUNES, MARTES, 0, 10).ids());
+    }
+
+    /*
+     * Las consultas llegan desordenadas a propósito: el índice debe mantener los ids ordenados.
+     */
+    private static IndiceTexto indice() {
+        IndiceTexto indice = new IndiceTexto();
+        indice.agregar(3, 1, LUNES, Tokenizador.terminos("Horario de la piscina"));
+        indice.agregar(1, 1, LUNES, Tokenizador.terminos("¿Cuál es el horario de la biblioteca?"));
+        indice.agregar(2, 1, MARTES, Tokenizador.terminos("Préstamo de libros en la biblioteca"));
+        indice.agregar(4, 2, MARTES, Tokenizador.terminos("Horario de la Biblioteca central"));
+        return indice;
+    }
+}
@@ -0,0 +1,104 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.domain.Consulta;
+import com.chatBotStadistics.domain.Subtema;
+import com.chatBotStadistics.domain.Tema;
+import com.chatBotStadistics.domain.Usuario;
+import com.chatBotStadistics.dto.IngestaConsultaDTO;
+import com.chatBotStadistics.dto.IngestaResultadoDTO;
+import com.chatBotStadistics.repository.IngestaRepository;
+import com.chatBotStadistics.repository.SubtemaRepository;
+import com.chatBotStadistics.repository.TemaRepository;
+import com.chatBotStadistics.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link IngestaServiceImpl}.
+ *
+ * Verifies that temas, subtemas and usuarios are resolved once per batch, that unknown phone
+ * numbers are registered in a single insert, that the tema is derived from the subtema, and
+ * that an unknown reference rejects the batch before anything is written.
+ */
+@ExtendWith(MockitoExtension.class)
+class IngestaServiceImplTest {
+
+    @Mock
+    private IngestaRepository ingestaRepository;
+
+    @Mock
+    private TemaRepository temaRepository;
+
+    @Mock
+    private SubtemaRepository subtemaRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private AgregadoService agregadoService;
+
+    @Mock
+    private IndiceBusqueda indiceBusqueda;
+
+    @InjectMocks
+    private IngestaServiceImpl ingestaService;
+
+    @Test
+    void ingerir_ShouldResolveReferencesInBulk() {
+        Tema tema = new Tema();
+        tema.setId(1);
+        Subtema subtema = new Subtema();
+        subtema.setId(10);
+        subtema.setTema(tema);
+        when(subtemaRepository.findAllById(Set.of(10))).thenReturn(List.of(subtema));
+        when(usuarioRepository.findByNumerosCelular(Set.of("555-1", "555-2"))).thenReturn(List.of(new Usuario(7, "555-1")));
+        when(ingestaRepository.insertarUsuarios(List.of("555-2"))).thenReturn(List.of(8));
+        doAnswer(invocation -> {
+            List<Consulta> consultas = invocation.getArgument(0);
+            for (int i = 0; i < consultas.size(); i++) {
+                consultas.get(i).setId(100 + i);
+            }
+            return null;
+        }).when(ingestaRepository).insertarConsultas(anyList());
+
+        IngestaResultadoDTO resultado = ingestaService.ingerir(List.of(
+                new IngestaConsultaDTO("hola", "buenas", null, 10, null, "555-1", 6, 1, 2025, 2),
+                new IngestaConsultaDTO("otra", null, null, null, null, "555-2", 6, 1, 2025, 2),
+                new IngestaConsultaDTO("mas", "claro", null, null, null, "555-2", 7, 1, 2025, 2)));
+
+        assertEquals(new IngestaResultadoDTO(3, 2, 1), resultado);
+        verify(usuarioRepository, times(1)).findByNumerosCelular(anyCollection());
+        verify(ingestaRepository).insertarRespuestas(List.of(100, 102), List.of("buenas", "claro"));
+
+        ArgumentCaptor<List<Consulta>> captor = ArgumentCaptor.captor();
+        verify(agregadoService).registrarLote(captor.capture());
+        List<Consulta> consultas = captor.getValue();
+        assertEquals(1, consultas.get(0).getTema().getId());
+        assertEquals(7, consultas.get(0).getUsuario().getId());
+        assertEquals(8, consultas.get(1).getUsuario().getId());
+        assertEquals(8, consultas.get(2).getUsuario().getId());
+    }
+
+    @Test
+    void ingerir_ShouldRejectBatch_WhenTemaDoesNotExist() {
+        when(temaRepository.findAllById(Set.of(99))).thenReturn(List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> ingestaService.ingerir(List.of(
+                new IngestaConsultaDTO("hola", null, 99, null, null, null, 6, 1, 2025, 2))));
+
+        verify(ingestaRepository, never()).insertarConsultas(anyList());
+        verifyNoInteractions(agregadoService);
+    }
+}
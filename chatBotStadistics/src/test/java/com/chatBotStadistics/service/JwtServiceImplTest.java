@@ -0,0 +1,78 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.domain.AdminUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link JwtServiceImpl}.
+ *
+ * Verifies that a token is parsed once and its claims reused, that the reused claims still
+ * validate against the usuario, that every token gets its own id and refresh tokens are
+ * marked, and that expired or tampered tokens are rejected with or
+ * without the verified-token map.
+ */
+class JwtServiceImplTest {
+
+    private static final String SECRET = "NDQ1ZjAzNjQtMzViZi00MDRjLTljZjQtNjNjYWIyZTU5ZDYwNDQ1ZjAzNjQtMzViZi00MDRj";
+
+    @Test
+    void parseClaims_ShouldReuseVerifiedClaims() {
+        JwtServiceImpl jwtService = new JwtServiceImpl(SECRET, 60_000, 600_000, 10);
+        AdminUser adminUser = adminUser("ana@example.com");
+        String token = jwtService.generateToken(adminUser);
+
+        Claims claims = jwtService.parseClaims(token);
+
+        assertSame(claims, jwtService.parseClaims(token));
+        assertEquals("ana@example.com", jwtService.extractUsername(token));
+        assertTrue(jwtService.isTokenValid(claims, adminUser));
+        assertFalse(jwtService.isTokenValid(claims, adminUser("otro@example.com")));
+    }
+
+    @Test
+    void buildToken_ShouldAddRandomId_AndMarkRefreshTokens() {
+        JwtServiceImpl jwtService = new JwtServiceImpl(SECRET, 60_000, 600_000, 10);
+        AdminUser adminUser = adminUser("ana@example.com");
+
+        Claims acceso = jwtService.parseClaims(jwtService.generateToken(adminUser));
+        Claims otroAcceso = jwtService.parseClaims(jwtService.generateToken(adminUser));
+        Claims refresh = jwtService.parseClaims(jwtService.generateRefreshToken(adminUser));
+
+        assertNotNull(acceso.getId());
+        assertNotEquals(acceso.getId(), otroAcceso.getId());
+        assertFalse(jwtService.isRefreshToken(acceso));
+        assertTrue(jwtService.isRefreshToken(refresh));
+    }
+
+    @Test
+    void parseClaims_ShouldRejectExpiredTokens() {
+        JwtServiceImpl jwtService = new JwtServiceImpl(SECRET, 60_000, 600_000, 10);
+        String token = jwtService.buildToken(adminUser("ana@example.com"), -1_000);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.parseClaims(token));
+        assertThrows(ExpiredJwtException.class, () -> jwtService.parseClaims(token));
+    }
+
+    @Test
+    void parseClaims_ShouldRejectTamperedTokens_WithoutCache() {
+        JwtServiceImpl jwtService = new JwtServiceImpl(SECRET, 60_000, 600_000, 0);
+        String token = jwtService.generateToken(adminUser("ana@example.com"));
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertEquals("ana@example.com", jwtService.parseClaims(token).getSubject());
+        assertNotSame(jwtService.parseClaims(token), jwtService.parseClaims(token));
+        assertThrows(SignatureException.class, () -> jwtService.parseClaims(alterado));
+    }
+
+    private static AdminUser adminUser(String email) {
+        AdminUser adminUser = new AdminUser();
+        adminUser.setEmail(email);
+        adminUser.setName("Ana");
+        return adminUser;
+    }
+}
@@ -0,0 +1,72 @@
+package com.chatBotStadistics.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LimitadorLogin}.
+ *
+ * Verifies that an IP is limited by its attempts and an account by its failures from each IP,
+ * that failures from one IP never lock the account for another, that a success clears the
+ * failures of the account, and that the limits reset with the window.
+ */
+class LimitadorLoginTest {
+
+    @Test
+    void comprobar_ShouldRejectIp_AfterTooManyAttempts() {
+        LimitadorLogin limitador = new LimitadorLogin(3, 100, 60_000);
+        for (int i = 0; i < 3; i++) {
+            limitador.comprobar("10.0.0.1", "cuenta" + i + "@example.com");
+        }
+
+        LoginRechazadoException e = assertThrows(LoginRechazadoException.class,
+                () -> limitador.comprobar("10.0.0.1", "otra@example.com"));
+
+        assertEquals(LoginRechazadoException.Motivo.IP, e.getMotivo());
+        assertTrue(e.getReintentarEnSegundos() > 0 && e.getReintentarEnSegundos() <= 60);
+        limitador.comprobar("10.0.0.2", "otra@example.com");
+        assertEquals(1, limitador.estadisticas().rechazadosPorIp());
+    }
+
+    @Test
+    void comprobar_ShouldLockAccount_AfterFailures_UntilSuccessClearsThem() {
+        LimitadorLogin limitador = new LimitadorLogin(100, 2, 60_000);
+        limitador.registrarFallo("10.0.0.1", "Ana@Example.com");
+        limitador.comprobar("10.0.0.1", "ana@example.com");
+        limitador.registrarFallo("10.0.0.1", "ana@example.com");
+
+        LoginRechazadoException e = assertThrows(LoginRechazadoException.class,
+                () -> limitador.comprobar("10.0.0.1", "ana@example.com"));
+
+        assertEquals(LoginRechazadoException.Motivo.CUENTA, e.getMotivo());
+        limitador.registrarExito("10.0.0.1", "ana@example.com");
+        limitador.comprobar("10.0.0.1", "ana@example.com");
+    }
+
+    @Test
+    void comprobar_ShouldNotLockAccount_ForOtherIps() {
+        LimitadorLogin limitador = new LimitadorLogin(100, 2, 60_000);
+        limitador.registrarFallo("10.0.0.66", "admin@example.com");
+        limitador.registrarFallo("10.0.0.66", "admin@example.com");
+        assertThrows(LoginRechazadoException.class, () -> limitador.comprobar("10.0.0.66", "admin@example.com"));
+
+        limitador.comprobar("10.0.0.1", "admin@example.com");
+
+        assertEquals(1, limitador.estadisticas().rechazadosPorCuenta());
+    }
+
+    @Test
+    void comprobar_ShouldAllowAgain_WhenWindowEnds() throws InterruptedException {
+        LimitadorLogin limitador = new LimitadorLogin(1, 1, 20);
+        limitador.comprobar("10.0.0.1", "ana@example.com");
+        limitador.registrarFallo("10.0.0.1", "ana@example.com");
+        assertThrows(LoginRechazadoException.class, () -> limitador.comprobar("10.0.0.1", "ana@example.com"));
+
+        Thread.sleep(40);
+        limitador.purgar();
+
+        assertEquals(0, limitador.estadisticas().ipsVigiladas());
+        limitador.comprobar("10.0.0.1", "ana@example.com");
+    }
+}
@@ -0,0 +1,71 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.repository.TokenRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ListaRevocados}.
+ *
+ * Verifies that the denylist is built from the revoked rows on first use, that revocations are
+ * seen right away and survive a reload, that the filter grows past its capacity, and that
+ * tokens never revoked are approved by the Bloom filter alone.
+ */
+class ListaRevocadosTest {
+
+    private final TokenRepository tokenRepository = mock(TokenRepository.class);
+
+    @Test
+    void revocado_ShouldLoadRevokedRows_OnFirstUse() {
+        Instant expira = Instant.now().plusSeconds(600);
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[]{ListaRevocados.hash("jti-1"), expira});
+        when(tokenRepository.findRevocadosVigentes(any())).thenReturn(filas);
+        ListaRevocados listaRevocados = new ListaRevocados(tokenRepository, 100, 0.01);
+
+        assertTrue(listaRevocados.revocado("jti-1"));
+        assertFalse(listaRevocados.revocado("jti-2"));
+        verify(tokenRepository, times(1)).findRevocadosVigentes(any());
+    }
+
+    @Test
+    void revocar_ShouldBeSeenRightAway_AndSurviveReload() {
+        when(tokenRepository.findRevocadosVigentes(any())).thenReturn(List.of());
+        ListaRevocados listaRevocados = new ListaRevocados(tokenRepository, 2, 0.01);
+
+        for (int i = 0; i < 5; i++) {
+            listaRevocados.revocar(ListaRevocados.hash("jti-" + i), Instant.now().plusSeconds(600));
+        }
+        listaRevocados.recargar();
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(listaRevocados.revocado("jti-" + i));
+        }
+        listaRevocados.revocar(ListaRevocados.hash("viejo"), Instant.now().minusSeconds(1));
+        listaRevocados.recargar();
+        assertFalse(listaRevocados.revocado("viejo"));
+    }
+
+    @Test
+    void revocado_ShouldApproveMostValidTokens_WithTheFilterAlone() {
+        when(tokenRepository.findRevocadosVigentes(any())).thenReturn(List.of());
+        ListaRevocados listaRevocados = new ListaRevocados(tokenRepository, 1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            listaRevocados.revocar(ListaRevocados.hash("revocado-" + i), Instant.now().plusSeconds(600));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(listaRevocados.revocado("valido-" + i));
+        }
+
+        assertEquals(10_000, listaRevocados.consultas());
+        assertTrue(listaRevocados.descartadasPorFiltro() > 9_700);
+    }
+}
@@ -0,0 +1,88 @@
+package com.chatBotStadistics.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link MapaBits}.
+ *
+ * Checks membership and cardinality across chunks, intersections between sparse and dense
+ * chunks against a plain {@link BitSet}, and that a saved bitmap reads back the same.
+ */
+class MapaBitsTest {
+
+    @Test
+    void agregar_ShouldIgnoreDuplicatesAndSpanChunks() {
+        MapaBits mapa = new MapaBits();
+
+        assertTrue(mapa.agregar(7));
+        assertFalse(mapa.agregar(7));
+        assertTrue(mapa.agregar(70_000));
+        assertTrue(mapa.agregar(3));
+
+        assertEquals(3, mapa.cardinalidad());
+        assertTrue(mapa.contiene(70_000));
+        assertFalse(mapa.contiene(70_001));
+        assertFalse(mapa.contiene(-1));
+    }
+
+    @Test
+    void cardinalidadComun_ShouldMatchBitSetForSparseAndDenseChunks() {
+        MapaBits densa = new MapaBits();
+        MapaBits dispersa = new MapaBits();
+        MapaBits otraDensa = new MapaBits();
+        BitSet esperadaDensa = new BitSet();
+        BitSet esperadaDispersa = new BitSet();
+        BitSet esperadaOtraDensa = new BitSet();
+        for (int id = 0; id < 200_000; id += 3) {
+            densa.agregar(id);
+            esperadaDensa.set(id);
+        }
+        for (int id = 0; id < 200_000; id += 97) {
+            dispersa.agregar(id);
+            esperadaDispersa.set(id);
+        }
+        for (int id = 0; id < 200_000; id += 5) {
+            otraDensa.agregar(id);
+            esperadaOtraDensa.set(id);
+        }
+
+        assertEquals(esperadaDensa.cardinality(), densa.cardinalidad());
+        assertEquals(comunes(esperadaDensa, esperadaDispersa), densa.cardinalidadComun(dispersa));
+        assertEquals(comunes(esperadaDispersa, esperadaDensa), dispersa.cardinalidadComun(densa));
+        assertEquals(comunes(esperadaDensa, esperadaOtraDensa), densa.cardinalidadComun(otraDensa));
+        assertEquals(esperadaDispersa.cardinality(), dispersa.cardinalidadComun(dispersa));
+    }
+
+    @Test
+    void escribirYLeer_ShouldRoundTrip() throws IOException {
+        MapaBits mapa = new MapaBits();
+        for (int id = 0; id < 10_000; id += 2) {
+            mapa.agregar(id);
+        }
+        mapa.agregar(1_000_000);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        mapa.escribir(new DataOutputStream(bytes));
+        MapaBits leido = MapaBits.leer(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(mapa.cardinalidad(), leido.cardinalidad());
+        assertEquals(mapa.cardinalidad(), leido.cardinalidadComun(mapa));
+        assertTrue(leido.contiene(1_000_000));
+        assertTrue(leido.agregar(3));
+    }
+
+    private static long comunes(BitSet a, BitSet b) {
+        BitSet interseccion = (BitSet) a.clone();
+        interseccion.and(b);
+        return interseccion.cardinality();
+    }
+}
@@ -0,0 +1,63 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.domain.Consulta;
+import com.chatBotStadistics.repository.ConsultaRepository;
+import com.chatBotStadistics.repository.SubtemaRepository;
+import com.chatBotStadistics.repository.TemaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link MotorEstadisticas}.
+ *
+ * Verifies that a consulta appended after the load that already read it is not counted twice.
+ */
+class MotorEstadisticasTest {
+
+    private final ConsultaRepository consultaRepository = mock(ConsultaRepository.class);
+    private final TemaRepository temaRepository = mock(TemaRepository.class);
+    private final SubtemaRepository subtemaRepository = mock(SubtemaRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final MotorEstadisticas motor = new MotorEstadisticas(consultaRepository, temaRepository,
+            subtemaRepository, transactionTemplate, "memoria", 1);
+
+    @AfterEach
+    void cerrar() {
+        motor.cerrar();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void agregarTodas_ShouldSkipConsultasTheLoadAlreadyRead() {
+        doAnswer(invocacion -> {
+            ((Consumer<TransactionStatus>) invocacion.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(consultaRepository.streamColumnas()).thenReturn(Stream.<Object[]>of(new Object[]{1, 2025, 1, 1, 1, null, 1, null}));
+        motor.recargar();
+        assertTrue(motor.activo());
+
+        motor.agregarTodas(List.of(consulta(1), consulta(2)));
+
+        assertEquals(2, motor.contar(2025, null, null));
+    }
+
+    private static Consulta consulta(int id) {
+        Consulta consulta = new Consulta();
+        consulta.setId(id);
+        consulta.setYear(2025);
+        consulta.setMonth(1);
+        consulta.setWeek(1);
+        return consulta;
+    }
+}
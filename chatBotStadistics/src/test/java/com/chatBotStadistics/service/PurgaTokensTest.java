@@ -0,0 +1,56 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.repository.TokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link PurgaTokens}.
+ *
+ * Verifies that expired tokens are deleted in batches until a short batch, that a run stops
+ * after the maximum number of batches, and that the counters add up across runs.
+ */
+class PurgaTokensTest {
+
+    private final TokenRepository tokenRepository = mock(TokenRepository.class);
+
+    @Test
+    void purgar_ShouldDeleteInBatches_UntilShortBatch() {
+        when(tokenRepository.findIdsCaducados(any(), eq(Limit.of(2))))
+                .thenReturn(List.of(1, 2), List.of(3, 4), List.of(5));
+        when(tokenRepository.deleteByIds(any())).thenAnswer(invocacion -> ((List<?>) invocacion.getArgument(0)).size());
+        PurgaTokens purgaTokens = new PurgaTokens(tokenRepository, 2, 10, 0);
+
+        PurgaTokens.Ejecucion ejecucion = purgaTokens.purgar();
+
+        assertEquals(5, ejecucion.borradas());
+        assertEquals(3, ejecucion.lotes());
+        verify(tokenRepository).deleteByIds(List.of(5));
+        verify(tokenRepository, times(3)).findIdsCaducados(any(), any());
+    }
+
+    @Test
+    void purgar_ShouldStopAfterMaxBatches_AndAccumulateCounters() {
+        when(tokenRepository.findIdsCaducados(any(), any())).thenReturn(List.of(1, 2));
+        when(tokenRepository.deleteByIds(any())).thenReturn(2);
+        when(tokenRepository.contarPorEstado(any())).thenReturn(List.<Object[]>of(new Object[]{10L, 3L, 4L}));
+        PurgaTokens purgaTokens = new PurgaTokens(tokenRepository, 2, 3, 0);
+
+        purgaTokens.purgar();
+        purgaTokens.purgar();
+
+        PurgaTokens.Estadisticas estadisticas = purgaTokens.estadisticas();
+        assertEquals(2, estadisticas.purgas());
+        assertEquals(6, estadisticas.lotes());
+        assertEquals(12, estadisticas.borradas());
+        assertEquals(10, estadisticas.total());
+        assertEquals(4, estadisticas.caducados());
+        assertEquals(6, estadisticas.ultima().borradas());
+    }
+}
@@ -0,0 +1,62 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.repository.UsuarioPeriodoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SketchUsuarios}.
+ *
+ * Verifies that concurrent first readers build the sketches only once, and that a usuario
+ * registered while that build is running is not lost.
+ */
+class SketchUsuariosTest {
+
+    private final UsuarioPeriodoRepository usuarioPeriodoRepository = mock(UsuarioPeriodoRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void estimar_ShouldBuildOnce_AndKeepUsuariosRegisteredDuringTheBuild() throws Exception {
+        doAnswer(invocacion -> {
+            ((Consumer<TransactionStatus>) invocacion.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        CountDownLatch leyendo = new CountDownLatch(1);
+        when(usuarioPeriodoRepository.streamActividad()).thenAnswer(invocacion -> {
+            leyendo.countDown();
+            Thread.sleep(200);
+            return Stream.<Object[]>of(new Object[]{2025, 1, 1, 1});
+        });
+        SketchUsuarios sketchUsuarios = new SketchUsuarios(usuarioPeriodoRepository, transactionTemplate);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> primera = hilos.submit(() -> sketchUsuarios.estimar(2025, null, null));
+            Future<?> segunda = hilos.submit(() -> sketchUsuarios.estimar(2025, null, null));
+            assertTrue(leyendo.await(5, TimeUnit.SECONDS));
+            Future<?> registro = hilos.submit(() -> sketchUsuarios.registrar(2025, 1, 1, 2));
+            primera.get(5, TimeUnit.SECONDS);
+            segunda.get(5, TimeUnit.SECONDS);
+            registro.get(5, TimeUnit.SECONDS);
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        verify(usuarioPeriodoRepository, times(1)).streamActividad();
+        assertEquals(2, sketchUsuarios.estimar(2025, null, null).estimacion());
+    }
+}
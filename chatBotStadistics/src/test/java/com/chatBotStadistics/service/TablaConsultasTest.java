@@ -0,0 +1,115 @@
+package com.chatBotStadistics.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TablaConsultas}.
+ *
+ * Checks the period and date filters, the counts per tema and subtema, distinct users,
+ * the per-day counts, the lookup of ids that arrive out of order, and that a scan split into
+ * parallel segments gives the same results as a sequential one.
+ */
+class TablaConsultasTest {
+
+    private static final int LUNES = (int) LocalDate.of(2024, 3, 4).toEpochDay();
+    private static final int MARTES = LUNES + 1;
+
+    private TablaConsultas tabla() {
+        TablaConsultas tabla = new TablaConsultas();
+        tabla.agregar(1, 2024, 3, 1, 1, 10, 7, LUNES);
+        tabla.agregar(2, 2024, 3, 1, 1, 11, 7, LUNES);
+        tabla.agregar(3, 2024, 3, 2, 2, 0, 8, MARTES);
+        tabla.agregar(4, 2024, 4, 1, 0, 0, 0, TablaConsultas.SIN_FECHA);
+        return tabla;
+    }
+
+    @Test
+    void contar_ShouldApplyPeriodAndDateFilters() {
+        TablaConsultas tabla = tabla();
+
+        assertEquals(4, tabla.contar(TablaConsultas.Filtro.periodo(null, null, null)));
+        assertEquals(3, tabla.contar(TablaConsultas.Filtro.periodo(2024, 3, null)));
+        assertEquals(2, tabla.contar(TablaConsultas.Filtro.periodo(2024, 3, 1)));
+        assertEquals(1, tabla.contar(TablaConsultas.Filtro.rango(MARTES, MARTES)));
+        assertEquals(3, tabla.contar(TablaConsultas.Filtro.rango(LUNES, MARTES)));
+    }
+
+    @Test
+    void contarPorTemaYSubtema_ShouldIndexCountsById() {
+        TablaConsultas tabla = tabla();
+
+        assertArrayEquals(new long[]{1, 2, 1}, tabla.contarPorTema(TablaConsultas.Filtro.periodo(null, null, null)));
+        assertArrayEquals(new long[]{0, 2, 0}, tabla.contarPorTema(TablaConsultas.Filtro.periodo(2024, 3, 1)));
+
+        long[] porSubtema = tabla.contarPorSubtema(TablaConsultas.Filtro.rango(LUNES, LUNES));
+        assertEquals(12, porSubtema.length);
+        assertEquals(1, porSubtema[10]);
+        assertEquals(1, porSubtema[11]);
+        assertEquals(0, porSubtema[0]);
+    }
+
+    @Test
+    void contarUsuarios_ShouldCountDistinctUsersAndSkipMissingOnes() {
+        TablaConsultas tabla = tabla();
+
+        assertEquals(2, tabla.contarUsuarios(TablaConsultas.Filtro.periodo(2024, null, null)));
+        assertEquals(1, tabla.contarUsuarios(TablaConsultas.Filtro.periodo(2024, 3, 1)));
+    }
+
+    @Test
+    void contarPorDia_ShouldClipTheRangeToTheDaysWithData() {
+        TablaConsultas.PorDia porDia = tabla().contarPorDia(LUNES - 10, MARTES + 10, true);
+
+        assertEquals(LUNES, porDia.desde());
+        assertEquals(2, porDia.conteos().length);
+        assertArrayEquals(new long[]{0, 2, 0}, porDia.conteos()[0]);
+        assertArrayEquals(new long[]{0, 0, 1}, porDia.conteos()[1]);
+
+        assertEquals(0, tabla().contarPorDia(MARTES + 1, MARTES + 5, false).conteos().length);
+    }
+
+    @Test
+    void contiene_ShouldFindIdsThatArrivedOutOfOrder() {
+        TablaConsultas tabla = tabla();
+        tabla.agregar(9, 2024, 4, 1, 1, 10, 7, MARTES);
+        tabla.agregar(6, 2024, 4, 1, 1, 10, 7, MARTES);
+
+        assertTrue(tabla.contiene(3));
+        assertTrue(tabla.contiene(6));
+        assertTrue(tabla.contiene(9));
+        assertFalse(tabla.contiene(5));
+        assertEquals(6, tabla.filas());
+    }
+
+    @Test
+    void agregacionParalela_ShouldMatchTheSequentialScan() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TablaConsultas secuencial = new TablaConsultas();
+            TablaConsultas paralela = new TablaConsultas(pool, 7);
+            for (int id = 1; id <= 1000; id++) {
+                int dia = LUNES + id % 30;
+                for (TablaConsultas tabla : new TablaConsultas[]{secuencial, paralela}) {
+                    tabla.agregar(id, 2024, 3 + id % 2, 1 + id % 4, id % 5, id % 9, id % 37, dia);
+                }
+            }
+            TablaConsultas.Filtro todo = TablaConsultas.Filtro.periodo(null, null, null);
+            TablaConsultas.Filtro marzo = TablaConsultas.Filtro.periodo(2024, 3, null);
+
+            assertEquals(secuencial.contar(marzo), paralela.contar(marzo));
+            assertArrayEquals(secuencial.contarPorTema(todo), paralela.contarPorTema(todo));
+            assertArrayEquals(secuencial.contarPorSubtema(marzo), paralela.contarPorSubtema(marzo));
+            assertEquals(36, paralela.contarUsuarios(todo));
+            assertEquals(secuencial.contarUsuarios(marzo), paralela.contarUsuarios(marzo));
+            assertArrayEquals(secuencial.contarPorDia(LUNES, LUNES + 29, true).conteos(),
+                    paralela.contarPorDia(LUNES, LUNES + 29, true).conteos());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
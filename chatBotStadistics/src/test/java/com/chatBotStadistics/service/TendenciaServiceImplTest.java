@@ -0,0 +1,72 @@
+package com.chatBotStadistics.service;
+
+import com.chatBotStadistics.dto.TendenciaDTO;
+import com.chatBotStadistics.dto.TendenciasDTO;
+import com.chatBotStadistics.repository.ConsultaAgregadoRepository;
+import com.chatBotStadistics.repository.TerminoPeriodoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TendenciaServiceImpl}.
+ *
+ * Verifies that the previous period follows the requested granularity, that terms are ranked
+ * by the growth of their share of the consultas, and that falling terms are left out.
+ */
+@ExtendWith(MockitoExtension.class)
+class TendenciaServiceImplTest {
+
+    @Mock
+    private TerminoPeriodoRepository terminoPeriodoRepository;
+
+    @Mock
+    private ConsultaAgregadoRepository consultaAgregadoRepository;
+
+    @InjectMocks
+    private TendenciaServiceImpl tendenciaService;
+
+    @Test
+    void getTendencias_ShouldRankRisingTerms_AgainstPreviousWeek() {
+        when(consultaAgregadoRepository.countConsultasByTemaId(2025, 3, 2))
+                .thenReturn(List.<Object[]>of(new Object[]{1, 100L}, new Object[]{2, 50L}));
+        when(consultaAgregadoRepository.countConsultasByTemaId(2025, 3, 1))
+                .thenReturn(List.<Object[]>of(new Object[]{1, 100L}, new Object[]{2, 20L}));
+        when(terminoPeriodoRepository.findTerminos(eq(2025), eq(3), eq(2), eq(1), anyLong(), anyInt()))
+                .thenReturn(List.of(new Object[]{"matricula", 30L}, new Object[]{"horario", 20L}, new Object[]{"beca", 10L}));
+        when(terminoPeriodoRepository.countTerminos(eq(2025), eq(3), eq(1), eq(1), anyCollection()))
+                .thenReturn(List.of(new Object[]{"matricula", 5L}, new Object[]{"horario", 40L}));
+
+        TendenciasDTO tendencias = tendenciaService.getTendencias(2025, 3, 2, 1, 10);
+
+        assertEquals(100L, tendencias.consultas());
+        assertEquals(100L, tendencias.consultasAnterior());
+        assertEquals(1, tendencias.weekAnterior());
+        assertEquals(List.of("beca", "matricula"), tendencias.terminos().stream().map(TendenciaDTO::termino).toList());
+        assertEquals(0L, tendencias.terminos().get(0).totalAnterior());
+        assertEquals(5.05, tendencias.terminos().get(1).crecimiento());
+    }
+
+    @Test
+    void getTendencias_ShouldCompareFirstWeek_WithLastWeekOfPreviousMonth() {
+        when(consultaAgregadoRepository.findUltimaSemana(2024, 12)).thenReturn(5);
+        when(consultaAgregadoRepository.countConsultasByTemaId(anyInt(), anyInt(), anyInt())).thenReturn(List.of());
+
+        TendenciasDTO tendencias = tendenciaService.getTendencias(2025, 1, 1, null, 10);
+
+        assertEquals(2024, tendencias.yearAnterior());
+        assertEquals(12, tendencias.monthAnterior());
+        assertEquals(5, tendencias.weekAnterior());
+        assertTrue(tendencias.terminos().isEmpty());
+        verify(consultaAgregadoRepository).countConsultasByTemaId(2024, 12, 5);
+        verifyNoInteractions(terminoPeriodoRepository);
+    }
+}